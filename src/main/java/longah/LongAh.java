@@ -1,8 +1,12 @@
 package longah;
 
+import java.util.concurrent.locks.Lock;
+
 import longah.util.GroupList;
+import longah.handler.ConfigHandler;
 import longah.handler.Logging;
 import longah.handler.PINHandler;
+import longah.handler.StorageHandler;
 import longah.handler.UI;
 import longah.handler.InputHandler;
 
@@ -35,7 +39,19 @@ public class LongAh {
             UI.showCommandPrompt();
             String command = UI.getUserInput();
             Command c = InputHandler.parseInput(command);
-            c.execute(GroupList.getActiveGroup());
+            if (c.hasUserPrompt()) {
+                // The command takes the data lock itself, so that it is not held while waiting for input
+                c.execute(GroupList.getActiveGroup());
+                return;
+            }
+            // Write-behind saves must not read group data while a command changes it
+            Lock dataLock = StorageHandler.getDataLock();
+            dataLock.lock();
+            try {
+                c.execute(GroupList.getActiveGroup());
+            } finally {
+                dataLock.unlock();
+            }
         }
     }
     
@@ -48,6 +64,7 @@ public class LongAh {
         init();
 
         Logging.logInfo("Starting Pre-program preparations.");
+        new ConfigHandler();
         try {
             new PINHandler();
             new GroupList();
@@ -1,5 +1,8 @@
 package longah.commands;
 
+import java.util.concurrent.locks.Lock;
+
+import longah.handler.StorageHandler;
 import longah.handler.UI;
 import longah.node.Group;
 import longah.util.MemberList;
@@ -34,14 +37,25 @@ public class ClearCommand extends Command {
         UI.showMessage("Enter 'N' or any other key to cancel.");
         String confirmation = UI.getUserInput();
         if (confirmation.equalsIgnoreCase("Y")) {
-            TransactionList transactions = group.getTransactionList();
-            MemberList members = group.getMemberList();
-            transactions.clear(members);
-            group.updateTransactionSolution();
-            group.saveAllData();
+            Lock dataLock = StorageHandler.getDataLock();
+            dataLock.lock();
+            try {
+                TransactionList transactions = group.getTransactionList();
+                MemberList members = group.getMemberList();
+                transactions.clear(members);
+                group.updateTransactionSolution();
+                group.saveClearedTransactions();
+            } finally {
+                dataLock.unlock();
+            }
             UI.showMessage("All transactions have been cleared for this account.");
         } else {
             UI.showMessage("Clear operation cancelled.");
         }
     }
+
+    @Override
+    public boolean hasUserPrompt() {
+        return true;
+    }
 }
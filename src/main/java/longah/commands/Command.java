@@ -25,6 +25,16 @@ public abstract class Command {
      */
     public abstract void execute(Group group) throws LongAhException;
 
+    /**
+     * Returns whether the command waits for user input while executing. Such a command takes the
+     * data lock only around its changes to the data, instead of for its whole execution.
+     *
+     * @return True if the command prompts the user, false otherwise.
+     */
+    public boolean hasUserPrompt() {
+        return false;
+    }
+
     /**
      * Returns the command string.
      * 
@@ -0,0 +1,40 @@
+package longah.commands;
+
+import longah.exception.ExceptionMessage;
+import longah.exception.LongAhException;
+import longah.handler.ConfigHandler;
+import longah.handler.StorageHandler;
+import longah.handler.UI;
+import longah.node.Group;
+import longah.util.GroupList;
+
+public class ConvertCommand extends Command {
+    /**
+     * Constructor for ConvertCommand.
+     *
+     * @param commandString  The command string.
+     * @param taskExpression The task expression.
+     */
+    public ConvertCommand(String commandString, String taskExpression) {
+        super(commandString, taskExpression);
+    }
+
+    /**
+     * Executes the convert command, selecting the storage format and saving the data of all groups
+     * in it. The format is saved in the config file first, so that groups which are not converted
+     * now are converted when next loaded.
+     *
+     * @param group The group to execute the command on.
+     * @throws LongAhException If the format is invalid or the config file is not written.
+     */
+    public void execute(Group group) throws LongAhException {
+        String format = this.taskExpression.trim().toLowerCase();
+        if (!format.equals(ConfigHandler.TEXT_FORMAT) && !format.equals(ConfigHandler.BINARY_FORMAT)) {
+            throw new LongAhException(ExceptionMessage.INVALID_CONVERT_COMMAND);
+        }
+        ConfigHandler.saveSetting(ConfigHandler.STORAGE_FORMAT, format);
+        StorageHandler.setBinaryFormat(format.equals(ConfigHandler.BINARY_FORMAT));
+        int convertedCount = GroupList.convertAllGroups();
+        UI.showMessage("Data of " + convertedCount + " groups saved in " + format + " format.");
+    }
+}
@@ -3,6 +3,8 @@ package longah.commands;
 import longah.node.Group;
 import longah.exception.ExceptionMessage;
 import longah.exception.LongAhException;
+import longah.handler.Logging;
+import longah.handler.StorageHandler;
 import longah.handler.UI;
 
 public class ExitCommand extends Command {
@@ -26,6 +28,9 @@ public class ExitCommand extends Command {
         if (!this.taskExpression.isEmpty()) {
             throw new LongAhException(ExceptionMessage.INVALID_EXIT_COMMAND);
         }
+        // Changes waiting to be saved in the background are written before exiting
+        StorageHandler.flushAll();
+        Logging.logInfo(StorageHandler.getWriteStatistics());
         UI.exit();
     }
 }
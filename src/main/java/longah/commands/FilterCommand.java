@@ -1,9 +1,8 @@
 package longah.commands;
 
 import longah.node.Group;
-import longah.util.TransactionList;
 import longah.exception.LongAhException;
-import longah.handler.UI;
+import longah.handler.Pager;
 import longah.exception.ExceptionMessage;
 
 public class FilterCommand extends Command {
@@ -26,26 +25,30 @@ public class FilterCommand extends Command {
      * @throws LongAhException If the taskExpression for the date times to search is in the wrong format
      */
     public void execute(Group group) throws LongAhException {
-        TransactionList transactions = group.getTransactionList();
-        String message;
-        if (taskExpression.contains("b/") && taskExpression.contains("a/")) {
-            String[] splitExpression = taskExpression.split(" b/");
+        Pager pager = new Pager(taskExpression);
+        String expression = pager.getExpression();
+        Pager.Query query;
+        if (expression.contains("b/") && expression.contains("a/")) {
+            String[] splitExpression = expression.split(" b/");
             if (splitExpression.length < 2 || !splitExpression[0].contains("a/")) {
                 throw new LongAhException(ExceptionMessage.INVALID_FILTER_DATETIME_COMMAND);
             }
             String fromDateTimeExpression = splitExpression[0].replaceAll("a/", "");
             String toDateTimeExpression = splitExpression[1].trim();
-            message = transactions.filterTransactionsBetweenDateTime(fromDateTimeExpression, toDateTimeExpression);
-        } else if (taskExpression.contains("a/") && !taskExpression.contains("b/")) {
-            message = transactions.filterTransactionsAfterDateTime(taskExpression.replaceAll("a/", ""));
-        } else if (taskExpression.contains("b/") && !taskExpression.contains("a/")) {
-            message = transactions.filterTransactionsBeforeDateTime(taskExpression.replaceAll("b/", ""));
+            query = activeGroup -> activeGroup.getTransactionList()
+                    .getBetweenDateTimeListing(fromDateTimeExpression, toDateTimeExpression);
+        } else if (expression.contains("a/") && !expression.contains("b/")) {
+            String dateTimeExpression = expression.replaceAll("a/", "");
+            query = activeGroup -> activeGroup.getTransactionList().getAfterDateTimeListing(dateTimeExpression);
+        } else if (expression.contains("b/") && !expression.contains("a/")) {
+            String dateTimeExpression = expression.replaceAll("b/", "");
+            query = activeGroup -> activeGroup.getTransactionList().getBeforeDateTimeListing(dateTimeExpression);
         } else {
-            assert !(taskExpression.contains("a/") || taskExpression.contains("b/")) : "Invalid request handled" +
+            assert !(expression.contains("a/") || expression.contains("b/")) : "Invalid request handled" +
                     "for the filtering single dates";
-            message = transactions.filterTransactionsEqualToDateTime(taskExpression);
+            query = activeGroup -> activeGroup.getTransactionList().getEqualToDateTimeListing(expression);
         }
-        UI.showMessage(message);
+        pager.show(group, query);
     }
 }
 
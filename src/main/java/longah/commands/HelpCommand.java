@@ -60,27 +60,34 @@ public class HelpCommand extends Command {
                 "is involved as the lender.");
         UI.showMessage("13. `find debts [MEMBER NAME]` - Find all debts of the member.");
         UI.showMessage("14. `find transactions [MEMBER NAME]` - Find all transactions where " +
-                "the member is involved.\n");
+                "the member is involved.");
+        UI.showMessage("15. `find pair [MEMBER NAME] p/[OTHER MEMBER NAME]` - Find the direct debts between " +
+                "members before simplification. (other member is optional)\n");
         UI.showMessage("EDIT commands: ");
         UI.printSeparator();
-        UI.showMessage("15. `edit member [MEMBER NAME] p/[NEW MEMBER NAME]` " +
+        UI.showMessage("16. `edit member [MEMBER NAME] p/[NEW MEMBER NAME]` " +
                 "- Edit the name of a member.");
-        UI.showMessage("16. `edit transaction [TRANSACTION NUMBER] [LENDER] p/[BORROWER1] a/[AMOUNT]\n" +
+        UI.showMessage("17. `edit transaction [TRANSACTION NUMBER] [LENDER] p/[BORROWER1] a/[AMOUNT]\n" +
                 "p/[BORROWER2] a/[AMOUNT]...` - Edit the details of a transaction.\n");
         UI.showMessage("PIN commands: ");
         UI.printSeparator();
-        UI.showMessage("17. `PIN enable` - Enable PIN authentication for the application.");
-        UI.showMessage("18. `PIN disable` - Disable PIN authentication for the application.");
-        UI.showMessage("19. `PIN reset` - Reset the user PIN.\n");
+        UI.showMessage("18. `PIN enable` - Enable PIN authentication for the application.");
+        UI.showMessage("19. `PIN disable` - Disable PIN authentication for the application.");
+        UI.showMessage("20. `PIN reset` - Reset the user PIN.\n");
         UI.showMessage("OTHER commands: ");
         UI.printSeparator();
-        UI.showMessage("20. `settleup [MEMBER NAME]` - Settle all debts of the member.");
-        UI.showMessage("21. `clear` - Clear all transaction data in the group.");
-        UI.showMessage("22. 'group [GROUP NAME]' - Switch to another group with specified name.");
-        UI.showMessage("23. `filter [TIME PERIOD]` - Filter transactions by time period.");
-        UI.showMessage("24. `chart` - Display a chart of debts in the group.");
-        UI.showMessage("25. `exit` - Exit the application.");
-        UI.showMessage("26. `help` - Display the list of commands.\n");
+        UI.showMessage("21. `settleup [MEMBER NAME]` - Settle all debts of the member.");
+        UI.showMessage("22. `clear` - Clear all transaction data in the group.");
+        UI.showMessage("23. 'group [GROUP NAME]' - Switch to another group with specified name.");
+        UI.showMessage("24. `filter [TIME PERIOD]` - Filter transactions by time period.");
+        UI.showMessage("25. `query l/[LENDER] p/[BORROWER] a/[TIME] b/[TIME] min/[AMOUNT] max/[AMOUNT]` - " +
+                "Find transactions meeting all the given conditions. (each condition is optional)");
+        UI.showMessage("26. `next` or `prev` - Show the next or previous page of a list, find, filter or query " +
+                "command entered with pg/[PAGE] and optionally sz/[PAGE SIZE].");
+        UI.showMessage("27. `convert [text OR binary]` - Save the data of all groups in the given format.");
+        UI.showMessage("28. `chart` - Display a chart of debts in the group.");
+        UI.showMessage("29. `exit` - Exit the application.");
+        UI.showMessage("30. `help` - Display the list of commands.\n");
         UI.showMessage("For more information on a specific command, " +
                 "or view command shortcuts, do refer to our user guide.");
     }
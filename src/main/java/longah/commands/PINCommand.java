@@ -22,6 +22,11 @@ public class PINCommand extends Command {
         execute();
     }
 
+    @Override
+    public boolean hasUserPrompt() {
+        return true;
+    }
+
     /**
      * Executes the reset command.
      *
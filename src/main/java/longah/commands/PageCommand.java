@@ -0,0 +1,32 @@
+package longah.commands;
+
+import longah.handler.Pager;
+import longah.node.Group;
+import longah.exception.LongAhException;
+import longah.exception.ExceptionMessage;
+
+public class PageCommand extends Command {
+    /**
+     * Constructor for PageCommand.
+     *
+     * @param commandString The command string, either "next" or "prev".
+     * @param taskExpression The task expression.
+     */
+    public PageCommand(String commandString, String taskExpression) {
+        super(commandString, taskExpression);
+    }
+
+    /**
+     * Executes the page command, displaying the next or previous page of the last paged
+     * list, find or filter command.
+     *
+     * @param group The group to execute the command on.
+     * @throws LongAhException If there is no paged command to navigate or the page is out of range.
+     */
+    public void execute(Group group) throws LongAhException {
+        if (!this.taskExpression.isEmpty()) {
+            throw new LongAhException(ExceptionMessage.INVALID_PAGE_COMMAND);
+        }
+        Pager.showAdjacentPage(group, this.commandString.equals("next") ? 1 : -1);
+    }
+}
@@ -0,0 +1,30 @@
+package longah.commands;
+
+import longah.handler.Pager;
+import longah.node.Group;
+import longah.exception.LongAhException;
+
+public class QueryCommand extends Command {
+    /**
+     * Constructor for QueryCommand.
+     *
+     * @param commandString The command string.
+     * @param taskExpression The task expression.
+     */
+    public QueryCommand(String commandString, String taskExpression) {
+        super(commandString, taskExpression);
+    }
+
+    /**
+     * Executes the query command, listing the transactions which meet all conditions of the query.
+     *
+     * @param group The group to execute the command on.
+     * @throws LongAhException If the query is invalid or no transaction matches it.
+     */
+    public void execute(Group group) throws LongAhException {
+        Pager pager = new Pager(taskExpression);
+        String expression = pager.getExpression();
+        pager.show(group, activeGroup -> activeGroup.getTransactionList().getQueryListing(expression,
+                activeGroup.getMemberList()));
+    }
+}
@@ -25,7 +25,6 @@ public class SettleCommand extends Command {
             throw new LongAhException(ExceptionMessage.INVALID_SETTLEUP_COMMAND);
         }
         group.settleUp(this.taskExpression);
-        group.updateTransactionSolution();
-        group.saveAllData();
+        group.saveAddedTransaction();
     }
 }
@@ -24,6 +24,6 @@ public class AddMemberCommand extends Command {
     public void execute(Group group) throws LongAhException {
         MemberList members = group.getMemberList();
         members.addMember(taskExpression);
-        group.saveMembersData();
+        group.saveAddedMember(members.getMember(taskExpression));
     }
 }
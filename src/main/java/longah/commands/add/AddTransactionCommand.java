@@ -26,6 +26,6 @@ public class AddTransactionCommand extends Command {
         MemberList members = group.getMemberList();
         TransactionList transactions = group.getTransactionList();
         transactions.addTransaction(taskExpression, members, group);
-        group.saveAllData();
+        group.saveAddedTransaction();
     }
 }
@@ -55,4 +55,15 @@ public class DeleteCommand extends Command {
             throw new LongAhException(ExceptionMessage.INVALID_DELETE_COMMAND);
         }
     }
+
+    /**
+     * Returns whether the command waits for user input, which deleting the last group does to
+     * create a new group.
+     *
+     * @return True if the command deletes a group, false otherwise.
+     */
+    @Override
+    public boolean hasUserPrompt() {
+        return this.subCommand.equals("group");
+    }
 }
@@ -3,6 +3,7 @@ package longah.commands.delete;
 import longah.commands.Command;
 import longah.exception.LongAhException;
 import longah.node.Group;
+import longah.node.Member;
 import longah.util.MemberList;
 import longah.util.TransactionList;
 
@@ -25,9 +26,9 @@ public class DeleteMemberCommand extends Command {
     public void execute(Group group) throws LongAhException {
         TransactionList transactions = group.getTransactionList();
         MemberList members = group.getMemberList();
-        transactions.deleteMember(taskExpression, members);
+        Member member = members.getMember(taskExpression);
+        transactions.deleteMember(taskExpression, members, group);
         members.deleteMember(taskExpression);
-        group.updateTransactionSolution();
-        group.saveAllData();
+        group.saveDeletedMember(member);
     }
 }
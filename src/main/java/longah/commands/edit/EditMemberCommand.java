@@ -32,8 +32,8 @@ public class EditMemberCommand extends Command {
         String oldName = namesSplit[0].trim();
         String newName = namesSplit[1].trim();
         members.editMemberName(oldName, newName);
-        group.updateTransactionSolution();
-        group.saveAllData();
+        // Transactions refer to members by id and are unaffected by the rename
+        group.saveRenamedMember(members.getMember(newName));
         UI.showMessage("Member name edited successfully! " + oldName + " is renamed to: " + newName);
     }
 }
@@ -25,7 +25,7 @@ public class EditTransactionCommand extends Command {
     public void execute(Group group) throws LongAhException {
         TransactionList transactions = group.getTransactionList();
         MemberList members = group.getMemberList();
-        transactions.editTransactionList(taskExpression, members);
-        group.updateTransactionSolution();
-        group.saveAllData();}
+        int index = transactions.editTransactionList(taskExpression, members, group);
+        group.saveEditedTransaction(index);
+    }
 }
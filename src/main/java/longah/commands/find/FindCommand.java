@@ -49,6 +49,11 @@ public class FindCommand extends Command {
                     new FindDebtCommand(fullCommandString, this.taskExpression);
             findDebtCommand.execute(group);
             break;
+        case "pair":
+            FindPairCommand findPairCommand =
+                    new FindPairCommand(fullCommandString, this.taskExpression);
+            findPairCommand.execute(group);
+            break;
         default:
             throw new LongAhException(ExceptionMessage.INVALID_FIND_COMMAND);
         }
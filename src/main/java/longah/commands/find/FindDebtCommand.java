@@ -3,7 +3,7 @@ package longah.commands.find;
 import longah.commands.Command;
 import longah.node.Group;
 import longah.exception.LongAhException;
-import longah.handler.UI;
+import longah.handler.Pager;
 
 public class FindDebtCommand extends Command {
     /**
@@ -22,6 +22,8 @@ public class FindDebtCommand extends Command {
      * @param group The group to execute the command on.
      */
     public void execute(Group group) throws LongAhException {
-        UI.showMessage(group.listIndivDebt(taskExpression));
+        Pager pager = new Pager(taskExpression);
+        String name = pager.getExpression();
+        pager.show(group, activeGroup -> activeGroup.getIndivDebtListing(name));
     }
 }
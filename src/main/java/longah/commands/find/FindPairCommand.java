@@ -0,0 +1,37 @@
+package longah.commands.find;
+
+import longah.commands.Command;
+import longah.node.Group;
+import longah.exception.LongAhException;
+import longah.handler.Pager;
+import longah.handler.UI;
+
+public class FindPairCommand extends Command {
+    /**
+     * Constructor for FindPairCommand.
+     * 
+     * @param commandString The command string.
+     * @param taskExpression The task expression.
+     */
+    public FindPairCommand(String commandString, String taskExpression) {
+        super(commandString, taskExpression);
+    }
+
+    /**
+     * Executes the find pair command.
+     * Lists the direct debts between the member and the member specified with p/,
+     * or between the member and every other member if none is specified.
+     * 
+     * @param group The group to execute the command on.
+     */
+    public void execute(Group group) throws LongAhException {
+        Pager pager = new Pager(taskExpression);
+        String[] namesSplit = pager.getExpression().split("p/", 2);
+        String name = namesSplit[0].trim();
+        if (namesSplit.length == 1) {
+            pager.show(group, activeGroup -> activeGroup.getPairDebtListing(name));
+            return;
+        }
+        UI.showMessage(group.listPairDebt(name, namesSplit[1].trim()));
+    }
+}
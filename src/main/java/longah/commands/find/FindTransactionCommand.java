@@ -2,10 +2,8 @@ package longah.commands.find;
 
 import longah.commands.Command;
 import longah.node.Group;
-import longah.util.MemberList;
-import longah.util.TransactionList;
 import longah.exception.LongAhException;
-import longah.handler.UI;
+import longah.handler.Pager;
 
 public class FindTransactionCommand extends Command {
     /**
@@ -24,8 +22,9 @@ public class FindTransactionCommand extends Command {
      * @param group The group to execute the command on.
      */
     public void execute(Group group) throws LongAhException {
-        TransactionList transactions = group.getTransactionList();
-        MemberList members = group.getMemberList();
-        UI.showMessage(transactions.findTransactions(taskExpression, members));
+        Pager pager = new Pager(taskExpression);
+        String name = pager.getExpression();
+        pager.show(group, activeGroup -> activeGroup.getTransactionList().getInvolvedListing(name,
+                activeGroup.getMemberList()));
     }
 }
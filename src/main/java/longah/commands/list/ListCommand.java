@@ -24,16 +24,12 @@ public class ListCommand extends Command {
     /**
      * Executes the list command.
      * Depending on the subCommand, it will execute the list member
-     * or list transaction or list debt command.
+     * or list transaction or list debt command, which checks the rest of the expression.
      * 
      * @param group The group to execute the command on.
      * @throws LongAhException If the subCommand is invalid.
      */
     public void execute(Group group) throws LongAhException {
-        if (!this.taskExpression.equals("")) {
-            throw new LongAhException(ExceptionMessage.INVALID_LIST_COMMAND);
-        }
-
         String fullCommandString = this.commandString + " " + this.subCommand;
         switch (this.subCommand) {
         case "members":
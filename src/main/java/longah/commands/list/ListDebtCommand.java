@@ -4,7 +4,7 @@ import longah.commands.Command;
 import longah.node.Group;
 import longah.exception.ExceptionMessage;
 import longah.exception.LongAhException;
-import longah.handler.UI;
+import longah.handler.Pager;
 
 public class ListDebtCommand extends Command {
     /**
@@ -23,9 +23,10 @@ public class ListDebtCommand extends Command {
      * @param group The group to execute the command on.
      */
     public void execute(Group group) throws LongAhException {
-        if (!this.taskExpression.isEmpty()) {
+        Pager pager = new Pager(this.taskExpression);
+        if (!pager.getExpression().isEmpty()) {
             throw new LongAhException(ExceptionMessage.INVALID_LIST_COMMAND);
         }
-        UI.showMessage(group.listDebts());
+        pager.show(group, Group::getDebtListing);
     }
 }
@@ -28,6 +28,9 @@ public class ListGroupsCommand extends Command {
             throw new LongAhException(ExceptionMessage.INVALID_LIST_COMMAND);
         }
         String output = GroupList.getGroupList();
+        if (GroupList.isCacheLimited()) {
+            output += GroupList.getCacheStatistics() + "\n";
+        }
         UI.showMessage(output);
     }
 }
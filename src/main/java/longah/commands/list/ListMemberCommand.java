@@ -2,10 +2,9 @@ package longah.commands.list;
 
 import longah.commands.Command;
 import longah.node.Group;
-import longah.util.MemberList;
 import longah.exception.ExceptionMessage;
 import longah.exception.LongAhException;
-import longah.handler.UI;
+import longah.handler.Pager;
 
 public class ListMemberCommand extends Command {
     /**
@@ -24,10 +23,10 @@ public class ListMemberCommand extends Command {
      * @param group The group to execute the command on.
      */
     public void execute(Group group) throws LongAhException {
-        if (!this.taskExpression.isEmpty()) {
+        Pager pager = new Pager(this.taskExpression);
+        if (!pager.getExpression().isEmpty()) {
             throw new LongAhException(ExceptionMessage.INVALID_LIST_COMMAND);
         }
-        MemberList members = group.getMemberList();
-        UI.showMessage(members.listMembers());
+        pager.show(group, activeGroup -> activeGroup.getMemberList().getMemberListing());
     }
 }
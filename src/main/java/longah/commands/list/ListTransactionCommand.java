@@ -2,10 +2,9 @@ package longah.commands.list;
 
 import longah.commands.Command;
 import longah.node.Group;
-import longah.util.TransactionList;
 import longah.exception.ExceptionMessage;
 import longah.exception.LongAhException;
-import longah.handler.UI;
+import longah.handler.Pager;
 
 public class ListTransactionCommand extends Command {
     /**
@@ -24,10 +23,10 @@ public class ListTransactionCommand extends Command {
      * @param group The group to execute the command on.
      */
     public void execute(Group group) throws LongAhException {
-        if (!this.taskExpression.isEmpty()) {
+        Pager pager = new Pager(this.taskExpression);
+        if (!pager.getExpression().isEmpty()) {
             throw new LongAhException(ExceptionMessage.INVALID_LIST_COMMAND);
         }
-        TransactionList transactions = group.getTransactionList();
-        UI.showMessage(transactions.listTransactions());
+        pager.show(group, activeGroup -> activeGroup.getTransactionList().getTransactionListing());
     }
 }
@@ -30,6 +30,11 @@ public enum ExceptionMessage {
     TRANSACTIONS_SUMMED_UP ("No pending payments.", ExceptionType.INFO),
     INVALID_DATE_TIME_FILTER ("Invalid datetime filter. The to date your are searching for " +
             "is before the from date.", ExceptionType.INFO),
+    INVALID_PAGE_OPTION ("Invalid page option. Use pg/PAGE and sz/PAGE_SIZE with positive numbers.",
+            ExceptionType.INFO),
+    PAGE_OUT_OF_RANGE ("Page out of range.", ExceptionType.INFO),
+    NO_PAGED_LISTING ("No paged listing to navigate. Add pg/PAGE to a list, find or filter command first.",
+            ExceptionType.INFO),
 
     // Date Time Exceptions
     INVALID_TIME_FORMAT ("Invalid DateTime format. Please format " +
@@ -44,6 +49,7 @@ public enum ExceptionMessage {
     INVALID_STORAGE_CONTENT ("Invalid content in storage file, line ignored.", ExceptionType.WARNING),
     STORAGE_FILE_CORRUPTED ("Storage file corrupted, group has been excluded.", ExceptionType.WARNING),
     IO_EXCEPTION ("An error occurred while reading/writing to the file.", ExceptionType.WARNING),
+    INVALID_CONFIG_SETTING ("Invalid setting in config file, line ignored.", ExceptionType.WARNING),
     // Ui exceptions
     INVALID_COMMAND ("Invalid command. Use 'help' to see the list of commands.",
             ExceptionType.INFO),
@@ -57,7 +63,7 @@ public enum ExceptionMessage {
             " Use 'list members', 'list transactions', or 'list debts' or 'list groups'",
             ExceptionType.INFO),
     INVALID_FIND_COMMAND ("Invalid command format." +
-            " Use 'find transactions', 'find lender', 'find borrower', or 'find debts'",
+            " Use 'find transactions', 'find lender', 'find borrower', 'find debts' or 'find pair'",
             ExceptionType.INFO),
             
     INVALID_FILTER_DATETIME_COMMAND("Invalid filter command." +
@@ -88,8 +94,15 @@ public enum ExceptionMessage {
             " Use 'chart'", ExceptionType.INFO),
     INVALID_HELP_COMMAND ("Invalid command format." +
             " Use 'help'", ExceptionType.INFO),
+    INVALID_PAGE_COMMAND ("Invalid command format." +
+            " Use 'next' or 'prev'", ExceptionType.INFO),
+    INVALID_QUERY_COMMAND ("Invalid command format." +
+            " Use 'query l/LENDER p/BORROWER a/DateTime b/DateTime min/AMOUNT max/AMOUNT'" +
+            " with at least one condition, each at most once", ExceptionType.INFO),
     INVALID_SWITCH_GROUP_COMMAND ("Invalid command format." +
-            " Use 'group GROUP_NAME'", ExceptionType.INFO);
+            " Use 'group GROUP_NAME'", ExceptionType.INFO),
+    INVALID_CONVERT_COMMAND ("Invalid command format." +
+            " Use 'convert text' or 'convert binary'", ExceptionType.INFO);
 
     private final String message;
     private final ExceptionType type;
@@ -0,0 +1,263 @@
+package longah.handler;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import longah.node.Member;
+import longah.node.Transaction;
+import longah.util.DateTime;
+import longah.util.MemberList;
+import longah.util.Subtransaction;
+import longah.util.TransactionList;
+import longah.util.TransactionStore;
+import longah.exception.LongAhException;
+import longah.exception.ExceptionMessage;
+
+/*
+ * Binary Storage Format
+ * -----------
+ * Header:
+ * [Magic "LAHG"][Version][MemberCount][TransactionCount]
+ *
+ * Members:
+ * [Id][NameLength][Name(UTF-8)][Balance(zigzag)]
+ *
+ * Transactions:
+ * [LenderId << 1 | HasTime][TimeDelta(zigzag, opt)][BorrowerCount][BorrowerId1][Amount1]...
+ *
+ * Trailer:
+ * [CRC32 of all preceding bytes, 4 bytes big-endian]
+ *
+ * All numbers other than the version and CRC are varints. Balances and amounts are in cents,
+ * and the time of a transaction is stored as the difference in minutes from the time of the
+ * previous transaction with a time.
+ */
+public class BinaryStorageFormat {
+    private static final byte[] MAGIC = {'L', 'A', 'H', 'G'};
+    private static final int VERSION = 1;
+    private static final int CRC_LENGTH = 4;
+
+    private byte[] buffer;
+    private int position = 0;
+
+    private BinaryStorageFormat(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns if the data starts with the magic value of the binary format.
+     *
+     * @param data The data to check
+     * @return If the data is in the binary format
+     */
+    public static boolean isBinaryFormat(byte[] data) {
+        return data.length >= MAGIC.length && Arrays.equals(Arrays.copyOf(data, MAGIC.length), MAGIC);
+    }
+
+    /**
+     * Encodes the members and transactions of a group into the binary format.
+     *
+     * @param members The members of the group
+     * @param transactions The transactions of the group
+     * @return The encoded data
+     */
+    public static byte[] encode(MemberList members, TransactionList transactions) {
+        return encode(members, transactions.getStore());
+    }
+
+    /**
+     * Encodes the members of a group and the transactions in a store into the binary format.
+     *
+     * @param members The members of the group
+     * @param store The store of the transactions of the group
+     * @return The encoded data
+     */
+    public static byte[] encode(MemberList members, TransactionStore store) {
+        BinaryStorageFormat writer = new BinaryStorageFormat(new byte[64]);
+        writer.writeBytes(MAGIC);
+        writer.writeByte(VERSION);
+        writer.writeVarint(members.getMemberListSize());
+        writer.writeVarint(store.size());
+
+        for (Member member : members.getMembers()) {
+            byte[] name = member.getName().getBytes(StandardCharsets.UTF_8);
+            writer.writeVarint(member.getId());
+            writer.writeVarint(name.length);
+            writer.writeBytes(name);
+            writer.writeVarint(zigzag(member.getBalanceCents()));
+        }
+
+        long previousTime = 0;
+        for (int i = 0; i < store.size(); i++) {
+            long time = store.getTimeMinutes(i);
+            boolean hasTime = time != TransactionStore.NO_TIME;
+            writer.writeVarint(((long) store.getLender(i).getId() << 1) | (hasTime ? 1 : 0));
+            if (hasTime) {
+                writer.writeVarint(zigzag(time - previousTime));
+                previousTime = time;
+            }
+            int subtransactionCount = store.getSubtransactionCount(i);
+            writer.writeVarint(subtransactionCount);
+            for (int j = 0; j < subtransactionCount; j++) {
+                writer.writeVarint(store.getBorrower(i, j).getId());
+                writer.writeVarint(store.getAmountCents(i, j));
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(writer.buffer, 0, writer.position);
+        long checksum = crc.getValue();
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            writer.writeByte((int) (checksum >>> shift));
+        }
+        return Arrays.copyOf(writer.buffer, writer.position);
+    }
+
+    /**
+     * Decodes data in the binary format into the member list and transaction list of a group.
+     *
+     * @param data The encoded data
+     * @param members The member list to add the members to
+     * @param transactions The transaction list to add the transactions to
+     * @throws LongAhException If the data is corrupted or its content is invalid
+     */
+    public static void decode(byte[] data, MemberList members, TransactionList transactions)
+            throws LongAhException {
+        if (!isBinaryFormat(data) || data.length < MAGIC.length + 1 + CRC_LENGTH) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_CORRUPTED);
+        }
+        int contentLength = data.length - CRC_LENGTH;
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, contentLength);
+        long checksum = 0;
+        for (int i = contentLength; i < data.length; i++) {
+            checksum = (checksum << 8) | (data[i] & 0xFF);
+        }
+        if (checksum != crc.getValue()) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_CORRUPTED);
+        }
+
+        BinaryStorageFormat reader = new BinaryStorageFormat(Arrays.copyOf(data, contentLength));
+        reader.position = MAGIC.length;
+        try {
+            if (reader.readByte() != VERSION) {
+                throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+            }
+            long memberCount = reader.readVarint();
+            long transactionCount = reader.readVarint();
+
+            for (long i = 0; i < memberCount; i++) {
+                int id = reader.readInt();
+                String name = new String(reader.readBytes(reader.readInt()), StandardCharsets.UTF_8);
+                members.addMemberCents(id, name, unzigzag(reader.readVarint()));
+            }
+
+            long previousTime = 0;
+            for (long i = 0; i < transactionCount; i++) {
+                long lenderData = reader.readVarint();
+                Member lender = members.getMemberById(reader.toInt(lenderData >>> 1));
+                DateTime transactionTime = null;
+                if ((lenderData & 1) == 1) {
+                    previousTime += unzigzag(reader.readVarint());
+                    transactionTime = DateTime.fromEpochMinutes(previousTime);
+                }
+                int subtransactionCount = reader.readInt();
+                ArrayList<Subtransaction> subtransactions = new ArrayList<>();
+                for (int j = 0; j < subtransactionCount; j++) {
+                    Member borrower = members.getMemberById(reader.readInt());
+                    long amount = reader.readVarint();
+                    if (borrower.equals(lender) || amount <= 0) {
+                        throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+                    }
+                    subtransactions.add(new Subtransaction(lender, borrower, amount));
+                }
+                transactions.addTransaction(new Transaction(lender, subtransactions, transactionTime));
+            }
+        } catch (ArrayIndexOutOfBoundsException | DateTimeException e) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+        if (reader.position != contentLength) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void writeByte(int value) {
+        if (this.position == this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+        }
+        this.buffer[this.position++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        for (byte value : bytes) {
+            writeByte(value);
+        }
+    }
+
+    /**
+     * Writes a value as an unsigned varint of 7 bits per byte, with the high bit of each byte
+     * set if more bytes follow.
+     *
+     * @param value The value to write
+     */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    private int readByte() {
+        return this.buffer[this.position++] & 0xFF;
+    }
+
+    private byte[] readBytes(int length) {
+        if (length > this.buffer.length - this.position) {
+            throw new ArrayIndexOutOfBoundsException(this.position + length);
+        }
+        byte[] bytes = Arrays.copyOfRange(this.buffer, this.position, this.position + length);
+        this.position += length;
+        return bytes;
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @return The value read
+     * @throws LongAhException If the varint is longer than 64 bits
+     */
+    private long readVarint() throws LongAhException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int current = readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+    }
+
+    private int readInt() throws LongAhException {
+        return toInt(readVarint());
+    }
+
+    private int toInt(long value) throws LongAhException {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,257 @@
+package longah.handler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import longah.exception.ExceptionMessage;
+import longah.exception.LongAhException;
+import longah.node.Group;
+import longah.util.GroupList;
+import longah.util.MemberList;
+import longah.util.MinimumTransferSolver;
+import longah.util.SettlementMode;
+import longah.util.TransactionList;
+
+/*
+ * Config Format
+ * -----------
+ * One setting per line, written as [Key]=[Value]. Blank lines and lines
+ * starting with # are ignored.
+ *
+ * write-behind=[true|false]      (save changes in the background)
+ * max-write-delay=[Milliseconds] (maximum delay of a background save)
+ * journal=[true|false]           (append changes to a journal)
+ * checkpoint-records=[Count]     (journal records which start a checkpoint)
+ * checkpoint-bytes=[Bytes]       (journal size which starts a checkpoint)
+ * storage-format=[text|binary]   (format the data of each group is saved in)
+ * cache-groups=[Count]           (groups kept in memory, 0 for no limit)
+ * cache-bytes=[Bytes]            (memory used by the groups kept, 0 for no limit)
+ * preload-groups=[true|false]    (load all groups at startup)
+ * fast-start=[true|false]        (load stored balances and verify them in the background)
+ * settlement-mode=[greedy|minimum-transfers|largest-first]
+ *                                (strategy used to solve the debts of a group)
+ * solver-members=[Count]         (members above which minimum transfers are solved greedily)
+ * columnar-store=[true|false]    (keep transactions in primitive columns)
+ * verify-ledger=[true|false]     (check incremental balance updates against a full replay)
+ */
+/**
+ * Handles the settings of the application, which are read from the config file at startup
+ * before any group is loaded. Settings which are not in the file keep their defaults.
+ */
+public class ConfigHandler {
+    private static final String CONFIG_FILE_PATH = "./data/config.txt";
+    private static final String COMMENT_PREFIX = "#";
+    private static final String KEY_VALUE_SEPARATOR = "=";
+
+    // Setting Keys
+    private static final String WRITE_BEHIND = "write-behind";
+    private static final String MAX_WRITE_DELAY = "max-write-delay";
+    private static final String JOURNAL = "journal";
+    private static final String CHECKPOINT_RECORDS = "checkpoint-records";
+    private static final String CHECKPOINT_BYTES = "checkpoint-bytes";
+    public static final String STORAGE_FORMAT = "storage-format";
+    private static final String CACHE_GROUPS = "cache-groups";
+    private static final String CACHE_BYTES = "cache-bytes";
+    private static final String PRELOAD_GROUPS = "preload-groups";
+    private static final String FAST_START = "fast-start";
+    private static final String SETTLEMENT_MODE = "settlement-mode";
+    private static final String SOLVER_MEMBERS = "solver-members";
+    private static final String COLUMNAR_STORE = "columnar-store";
+    private static final String VERIFY_LEDGER = "verify-ledger";
+
+    // Settlement Modes
+    private static final String GREEDY_MODE = "greedy";
+    private static final String MINIMUM_TRANSFERS_MODE = "minimum-transfers";
+    private static final String LARGEST_FIRST_MODE = "largest-first";
+
+    // Storage Formats
+    public static final String TEXT_FORMAT = "text";
+    public static final String BINARY_FORMAT = "binary";
+
+    /**
+     * Constructs a new ConfigHandler instance, applying the settings in the config file if it exists.
+     * Invalid lines are reported and ignored.
+     */
+    public ConfigHandler() {
+        StorageHandler.initDir();
+        Path configPath = Paths.get(CONFIG_FILE_PATH);
+        if (!Files.exists(configPath)) {
+            return;
+        }
+        try {
+            loadSettings(Files.readAllLines(configPath));
+        } catch (IOException e) {
+            LongAhException.printException(new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_READ));
+        }
+    }
+
+    /**
+     * Applies the settings in the lines of a config file, reporting and ignoring invalid lines.
+     *
+     * @param lines The lines of the config file
+     */
+    static void loadSettings(List<String> lines) {
+        for (String line : lines) {
+            String trimmedLine = line.trim();
+            if (trimmedLine.isEmpty() || trimmedLine.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            try {
+                String[] keyValue = trimmedLine.split(KEY_VALUE_SEPARATOR, 2);
+                if (keyValue.length < 2) {
+                    throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+                }
+                applySetting(keyValue[0].trim(), keyValue[1].trim());
+                Logging.logInfo("Setting applied: " + trimmedLine);
+            } catch (LongAhException e) {
+                LongAhException.printException(e);
+            }
+        }
+    }
+
+    /**
+     * Applies a setting.
+     *
+     * @param key The key of the setting
+     * @param value The value of the setting
+     * @throws LongAhException If the key is unknown or the value is invalid for the setting
+     */
+    static void applySetting(String key, String value) throws LongAhException {
+        switch (key) {
+        case WRITE_BEHIND:
+            StorageHandler.setWriteBehind(parseBoolean(value));
+            break;
+        case MAX_WRITE_DELAY:
+            StorageHandler.setMaxWriteDelay(parseNonNegative(value));
+            break;
+        case JOURNAL:
+            StorageHandler.setJournalMode(parseBoolean(value));
+            break;
+        case CHECKPOINT_RECORDS:
+            StorageHandler.setCheckpointLimits((int) Math.min(parsePositive(value), Integer.MAX_VALUE),
+                    StorageHandler.getCheckpointByteLimit());
+            break;
+        case CHECKPOINT_BYTES:
+            StorageHandler.setCheckpointLimits(StorageHandler.getCheckpointRecordLimit(), parsePositive(value));
+            break;
+        case STORAGE_FORMAT:
+            if (!value.equals(TEXT_FORMAT) && !value.equals(BINARY_FORMAT)) {
+                throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+            }
+            StorageHandler.setBinaryFormat(value.equals(BINARY_FORMAT));
+            break;
+        case CACHE_GROUPS:
+            GroupList.setCacheLimits((int) Math.min(parseNonNegative(value), Integer.MAX_VALUE),
+                    GroupList.getMaxLoadedBytes());
+            break;
+        case CACHE_BYTES:
+            GroupList.setCacheLimits(GroupList.getMaxLoadedGroups(), parseNonNegative(value));
+            break;
+        case PRELOAD_GROUPS:
+            GroupList.setPreloadGroups(parseBoolean(value));
+            break;
+        case FAST_START:
+            Group.setFastStart(parseBoolean(value));
+            break;
+        case SETTLEMENT_MODE:
+            MemberList.setSettlementMode(parseSettlementMode(value));
+            break;
+        case SOLVER_MEMBERS:
+            long memberLimit = parseNonNegative(value);
+            if (memberLimit > MinimumTransferSolver.MAX_MEMBER_LIMIT) {
+                throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+            }
+            MinimumTransferSolver.setMemberLimit((int) memberLimit);
+            break;
+        case COLUMNAR_STORE:
+            TransactionList.setColumnarStore(parseBoolean(value));
+            break;
+        case VERIFY_LEDGER:
+            Group.setLedgerVerification(parseBoolean(value));
+            break;
+        default:
+            throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+        }
+    }
+
+    /**
+     * Saves a setting in the config file, replacing the lines which set the same key or adding a
+     * line if there is none. Other lines are kept as they are.
+     *
+     * @param key The key of the setting
+     * @param value The value of the setting
+     * @throws LongAhException If the config file cannot be read or written
+     */
+    public static void saveSetting(String key, String value) throws LongAhException {
+        Path configPath = Paths.get(CONFIG_FILE_PATH);
+        String setting = key + KEY_VALUE_SEPARATOR + value;
+        try {
+            List<String> lines = new ArrayList<>();
+            boolean isReplaced = false;
+            if (Files.exists(configPath)) {
+                for (String line : Files.readAllLines(configPath)) {
+                    String[] keyValue = line.trim().split(KEY_VALUE_SEPARATOR, 2);
+                    if (line.trim().startsWith(COMMENT_PREFIX) || !keyValue[0].trim().equals(key)) {
+                        lines.add(line);
+                    } else if (!isReplaced) {
+                        lines.add(setting);
+                        isReplaced = true;
+                    }
+                }
+            }
+            if (!isReplaced) {
+                lines.add(setting);
+            }
+            Files.write(configPath, lines);
+        } catch (IOException e) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_WRITTEN);
+        }
+        Logging.logInfo("Setting saved: " + setting);
+    }
+
+    private static boolean parseBoolean(String value) throws LongAhException {
+        if (value.equals("true")) {
+            return true;
+        } else if (value.equals("false")) {
+            return false;
+        }
+        throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+    }
+
+    private static SettlementMode parseSettlementMode(String value) throws LongAhException {
+        switch (value) {
+        case GREEDY_MODE:
+            return SettlementMode.GREEDY;
+        case MINIMUM_TRANSFERS_MODE:
+            return SettlementMode.MINIMUM_TRANSFERS;
+        case LARGEST_FIRST_MODE:
+            return SettlementMode.LARGEST_FIRST;
+        default:
+            throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+        }
+    }
+
+    private static long parsePositive(String value) throws LongAhException {
+        long number = parseNonNegative(value);
+        if (number == 0) {
+            throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+        }
+        return number;
+    }
+
+    private static long parseNonNegative(String value) throws LongAhException {
+        try {
+            long number = Long.parseLong(value);
+            if (number < 0) {
+                throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new LongAhException(ExceptionMessage.INVALID_CONFIG_SETTING);
+        }
+    }
+}
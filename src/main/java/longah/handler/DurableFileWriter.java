@@ -0,0 +1,396 @@
+package longah.handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Replaces files atomically and durably. Each file is written to a temporary file next to it,
+ * which is forced to the storage device and then renamed over the file, so a crash leaves either
+ * the old or the new content. Writers from different threads which are still writing their
+ * temporary files when a batch is committed are waited for, within a short window, and committed
+ * together, so that the forces, renames and directory syncs of a batch are done in one pass. A
+ * writer with no other writer in flight commits at once.
+ * Files written in one call are replaced as a set: before the first rename, a commit marker
+ * listing the length and checksum of each temporary file is written to the directory. If a crash
+ * interrupts the renames, {@link #recover(Path)} completes them when the marker matches the
+ * temporary files left, so a crash leaves either all old or all new files of the set.
+ */
+public class DurableFileWriter {
+    public static final String TEMP_SUFFIX = ".new";
+    public static final String COMMIT_MARKER_FILE = "save.done";
+    private static final String MARKER_SEPARATOR = "\t";
+    // Longest time the first writer of a batch waits for other writers to join it
+    private static final long COMMIT_WINDOW_NANOS = 2_000_000;
+    private static final Object BATCH_LOCK = new Object();
+    private static Batch openBatch = null;
+    // Number of writers still writing their temporary files, which may join the open batch
+    private static int preparingWriters = 0;
+
+    /**
+     * Represents the files of all writers committed together.
+     */
+    private static class Batch {
+        private ArrayList<PendingFile> files = new ArrayList<>();
+        private boolean isDone = false;
+    }
+
+    /**
+     * Represents a temporary file waiting to replace its target file.
+     */
+    private static class PendingFile {
+        private Path target;
+        private Path temp;
+        private FileChannel channel;
+        private IOException failure;
+        private long length;
+        private long checksum;
+        // The files written in the same call if there are several, which are replaced together
+        private List<PendingFile> set = null;
+
+        PendingFile(Path target) {
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        }
+    }
+
+    /**
+     * Replaces the content of each file atomically, returning once the new content is durable.
+     *
+     * @param files The new content of each file
+     * @throws IOException If a file is not written
+     */
+    public static void write(Map<File, byte[]> files) throws IOException {
+        synchronized (BATCH_LOCK) {
+            preparingWriters++;
+        }
+        ArrayList<PendingFile> pendingFiles = new ArrayList<>();
+        try {
+            for (Map.Entry<File, byte[]> entry : files.entrySet()) {
+                PendingFile pendingFile = new PendingFile(entry.getKey().toPath());
+                pendingFiles.add(pendingFile);
+                pendingFile.channel = FileChannel.open(pendingFile.temp, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+                ByteBuffer buffer = ByteBuffer.wrap(entry.getValue());
+                while (buffer.hasRemaining()) {
+                    pendingFile.channel.write(buffer);
+                }
+                pendingFile.length = entry.getValue().length;
+                pendingFile.checksum = getChecksum(entry.getValue());
+            }
+        } catch (IOException e) {
+            for (PendingFile pendingFile : pendingFiles) {
+                discard(pendingFile);
+            }
+            synchronized (BATCH_LOCK) {
+                preparingWriters--;
+                BATCH_LOCK.notifyAll();
+            }
+            throw e;
+        }
+        if (pendingFiles.size() > 1) {
+            for (PendingFile pendingFile : pendingFiles) {
+                pendingFile.set = pendingFiles;
+            }
+        }
+
+        Batch batch;
+        boolean isLeader = false;
+        synchronized (BATCH_LOCK) {
+            if (openBatch == null) {
+                openBatch = new Batch();
+                isLeader = true;
+            }
+            batch = openBatch;
+            batch.files.addAll(pendingFiles);
+            preparingWriters--;
+            BATCH_LOCK.notifyAll();
+        }
+
+        if (isLeader) {
+            awaitPreparingWriters();
+            commit(batch);
+            synchronized (batch) {
+                batch.isDone = true;
+                batch.notifyAll();
+            }
+        } else {
+            awaitCommit(batch);
+        }
+
+        for (PendingFile pendingFile : pendingFiles) {
+            if (pendingFile.failure != null) {
+                throw pendingFile.failure;
+            }
+        }
+    }
+
+    /**
+     * Forces the temporary files of a batch, writes the commit markers of the sets of files, renames
+     * the files over their targets, then syncs each directory of the batch once so that the renames
+     * are durable. The markers are removed once their sets are replaced.
+     *
+     * @param batch The batch to commit
+     */
+    private static void commit(Batch batch) {
+        for (PendingFile pendingFile : batch.files) {
+            try {
+                pendingFile.channel.force(true);
+                pendingFile.channel.close();
+            } catch (IOException e) {
+                pendingFile.failure = e;
+                discard(pendingFile);
+            }
+        }
+
+        // A set is only replaced if all of its files are ready, and is marked in its directory
+        Map<Path, List<PendingFile>> markedFiles = new LinkedHashMap<>();
+        for (PendingFile pendingFile : batch.files) {
+            if (pendingFile.set == null || pendingFile.failure != null) {
+                continue;
+            }
+            IOException setFailure = getFailure(pendingFile.set);
+            if (setFailure != null) {
+                pendingFile.failure = setFailure;
+                discard(pendingFile);
+                continue;
+            }
+            markedFiles.computeIfAbsent(getDirectory(pendingFile), directory -> new ArrayList<>()).add(pendingFile);
+        }
+        for (Map.Entry<Path, List<PendingFile>> entry : markedFiles.entrySet()) {
+            try {
+                writeMarker(entry.getKey(), entry.getValue());
+            } catch (IOException e) {
+                for (PendingFile pendingFile : entry.getValue()) {
+                    pendingFile.failure = e;
+                    discard(pendingFile);
+                }
+            }
+        }
+
+        Set<Path> directories = new LinkedHashSet<>();
+        for (PendingFile pendingFile : batch.files) {
+            if (pendingFile.failure != null) {
+                continue;
+            }
+            try {
+                Files.move(pendingFile.temp, pendingFile.target, StandardCopyOption.ATOMIC_MOVE);
+                directories.add(getDirectory(pendingFile));
+            } catch (IOException e) {
+                pendingFile.failure = e;
+                if (pendingFile.set == null) {
+                    discard(pendingFile);
+                }
+                // The temporary file of a marked set is kept, so that recovery completes the set
+            }
+        }
+
+        for (Path directory : directories) {
+            syncDirectory(directory);
+        }
+        for (Map.Entry<Path, List<PendingFile>> entry : markedFiles.entrySet()) {
+            if (getFailure(entry.getValue()) != null) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(entry.getKey().resolve(COMMIT_MARKER_FILE));
+            } catch (IOException e) {
+                // A leftover marker is ignored by recovery once its temporary files are gone
+                Logging.logWarning("Commit marker in " + entry.getKey() + " not deleted.");
+            }
+        }
+    }
+
+    /**
+     * Completes the replacement of a set of files interrupted by a crash, if its commit marker
+     * matches the temporary files left in the directory. The marker is removed either way, while
+     * temporary files which are not moved are left for the caller to delete.
+     *
+     * @param directory The directory of the files
+     * @throws IOException If a temporary file is not moved or the marker is not deleted
+     */
+    public static void recover(Path directory) throws IOException {
+        Path marker = directory.resolve(COMMIT_MARKER_FILE);
+        if (!Files.exists(marker)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(marker, StandardCharsets.UTF_8);
+        if (isCommitted(directory, lines)) {
+            for (int i = 1; i < lines.size(); i++) {
+                String name = lines.get(i).split(MARKER_SEPARATOR)[0];
+                Path temp = directory.resolve(name + TEMP_SUFFIX);
+                if (Files.exists(temp)) {
+                    Files.move(temp, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+                    Logging.logInfo("Interrupted save of " + directory.resolve(name) + " completed.");
+                }
+            }
+            syncDirectory(directory);
+        }
+        Files.delete(marker);
+    }
+
+    /**
+     * Checks that a commit marker is complete, and that each temporary file it lists which is left
+     * has the length and checksum in the marker. A temporary file which is gone has already been
+     * renamed over its target.
+     *
+     * @param directory The directory of the files
+     * @param lines The lines of the marker
+     * @return True if the set of files in the marker can be completed, false otherwise
+     */
+    private static boolean isCommitted(Path directory, List<String> lines) {
+        try {
+            if (lines.isEmpty() || Integer.parseInt(lines.get(0)) != lines.size() - 1) {
+                return false;
+            }
+            for (int i = 1; i < lines.size(); i++) {
+                String[] fields = lines.get(i).split(MARKER_SEPARATOR);
+                Path temp = directory.resolve(fields[0] + TEMP_SUFFIX);
+                if (!Files.exists(temp)) {
+                    continue;
+                }
+                byte[] content = Files.readAllBytes(temp);
+                if (content.length != Long.parseLong(fields[1]) || getChecksum(content) != Long.parseLong(fields[2])) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the commit marker of the sets of files in a directory and makes it durable, starting
+     * with the number of files followed by the name, length and checksum of each file.
+     *
+     * @param directory The directory of the files
+     * @param pendingFiles The files of the sets in the directory
+     * @throws IOException If the marker is not written
+     */
+    private static void writeMarker(Path directory, List<PendingFile> pendingFiles) throws IOException {
+        StringBuilder content = new StringBuilder().append(pendingFiles.size()).append('\n');
+        for (PendingFile pendingFile : pendingFiles) {
+            content.append(pendingFile.target.getFileName()).append(MARKER_SEPARATOR)
+                    .append(pendingFile.length).append(MARKER_SEPARATOR)
+                    .append(pendingFile.checksum).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(COMMIT_MARKER_FILE), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        // The marker must be durable before any file of the sets is renamed
+        syncDirectory(directory);
+    }
+
+    /**
+     * Syncs a directory so that the files created, renamed or deleted in it are durable.
+     *
+     * @param directory The directory to sync
+     */
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened for syncing on some platforms, such as Windows
+        }
+    }
+
+    private static Path getDirectory(PendingFile pendingFile) {
+        return pendingFile.target.toAbsolutePath().getParent();
+    }
+
+    private static IOException getFailure(List<PendingFile> pendingFiles) {
+        for (PendingFile pendingFile : pendingFiles) {
+            if (pendingFile.failure != null) {
+                return pendingFile.failure;
+            }
+        }
+        return null;
+    }
+
+    private static long getChecksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    /**
+     * Waits for the writers still writing their temporary files to join the open batch, for at most
+     * the commit window, then closes the batch. A writer alone does not wait.
+     */
+    private static void awaitPreparingWriters() {
+        boolean isInterrupted = false;
+        synchronized (BATCH_LOCK) {
+            long deadline = System.nanoTime() + COMMIT_WINDOW_NANOS;
+            long remaining = COMMIT_WINDOW_NANOS;
+            while (preparingWriters > 0 && remaining > 0 && !isInterrupted) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(BATCH_LOCK, remaining);
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+            openBatch = null;
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the leader of a batch to commit it.
+     *
+     * @param batch The batch to wait for
+     */
+    private static void awaitCommit(Batch batch) {
+        boolean isInterrupted = false;
+        synchronized (batch) {
+            while (!batch.isDone) {
+                try {
+                    batch.wait();
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes and deletes the temporary file of a file which is not replaced.
+     *
+     * @param pendingFile The file which is not replaced
+     */
+    private static void discard(PendingFile pendingFile) {
+        try {
+            if (pendingFile.channel != null) {
+                pendingFile.channel.close();
+            }
+            Files.deleteIfExists(pendingFile.temp);
+        } catch (IOException e) {
+            Logging.logWarning("Temporary file " + pendingFile.temp + " not deleted.");
+        }
+    }
+}
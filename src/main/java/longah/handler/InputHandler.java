@@ -16,6 +16,7 @@ import longah.commands.find.FindBorrowerCommand;
 import longah.commands.find.FindCommand;
 import longah.commands.find.FindDebtCommand;
 import longah.commands.find.FindLenderCommand;
+import longah.commands.find.FindPairCommand;
 import longah.commands.find.FindTransactionCommand;
 import longah.commands.list.ListCommand;
 import longah.commands.list.ListDebtCommand;
@@ -23,10 +24,13 @@ import longah.commands.list.ListGroupsCommand;
 import longah.commands.list.ListMemberCommand;
 import longah.commands.list.ListTransactionCommand;
 import longah.commands.ClearCommand;
+import longah.commands.ConvertCommand;
 import longah.commands.SettleCommand;
 import longah.commands.ExitCommand;
 import longah.commands.FilterCommand;
 import longah.commands.PINCommand;
+import longah.commands.PageCommand;
+import longah.commands.QueryCommand;
 import longah.commands.HelpCommand;
 import longah.commands.SwitchCommand;
 import longah.commands.ChartCommand;
@@ -109,9 +113,21 @@ public class InputHandler {
             // Fallthrough
         case "fb":
             return new FindBorrowerCommand("find borrower", taskExpression);
+        case "findp":
+            // Fallthrough
+        case "fp":
+            return new FindPairCommand("find pair", taskExpression);
         
         case "filter":
             return new FilterCommand(commandString, taskExpression);
+        case "query":
+            return new QueryCommand(commandString, taskExpression);
+        case "next":
+            return new PageCommand(commandString, taskExpression);
+        case "prev":
+            // Fallthrough
+        case "previous":
+            return new PageCommand("prev", taskExpression);
         case "delete":
             return new DeleteCommand(commandString, taskExpression);
         case "deleteg":
@@ -156,6 +172,8 @@ public class InputHandler {
             return new ChartCommand(commandString, taskExpression);
         case "group":
             return new SwitchCommand(commandString, taskExpression);
+        case "convert":
+            return new ConvertCommand(commandString, taskExpression);
 
         case "close":
             // Fallthrough
@@ -0,0 +1,295 @@
+package longah.handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import longah.node.Member;
+import longah.node.Transaction;
+import longah.util.DateTime;
+import longah.util.MemberList;
+import longah.util.Subtransaction;
+import longah.util.TransactionList;
+import longah.exception.LongAhException;
+import longah.exception.ExceptionMessage;
+
+/**
+ * Loads the transactions data file by parsing its bytes directly, without creating a String for
+ * each line or field. Large files are memory-mapped, and members are looked up by the id parsed
+ * from each field in a table indexed by id, or in a map if the ids are too sparse for a table.
+ * Files in the legacy format, which refer to members by name, are not supported.
+ */
+public class MappedTransactionsLoader {
+    private static final byte SEPARATOR = 31;
+    // Files smaller than this are read into memory, as mapping them costs more than reading them
+    private static final long MAPPED_SIZE_THRESHOLD = 1 << 16;
+    // Mapped files cannot be replaced on Windows until the mapping is garbage collected
+    private static final boolean IS_MAPPING_SUPPORTED =
+            !System.getProperty("os.name", "").startsWith("Windows");
+    private static final int TIME_LENGTH = "dd-MM-yyyy HHmm".length();
+    // Ids are only sparse after members are deleted, so a table larger than this many slots per
+    // member means the ids are corrupted or very sparse, and a map is used instead
+    private static final int MAX_SLOTS_PER_MEMBER = 4;
+    private static final int MIN_TABLE_SIZE = 64;
+
+    private ByteBuffer buffer;
+    private Member[] membersById = null;
+    private HashMap<Integer, Member> sparseMembersById = null;
+    private boolean hasSkippedSubtransactions = false;
+
+    private MappedTransactionsLoader(ByteBuffer buffer, MemberList members) {
+        this.buffer = buffer;
+        long tableSize = 0;
+        for (Member member : members.getMembers()) {
+            tableSize = Math.max(tableSize, member.getId() + 1L);
+        }
+        long maxTableSize = Math.max(MIN_TABLE_SIZE, (long) members.getMemberListSize() * MAX_SLOTS_PER_MEMBER);
+        if (tableSize > maxTableSize) {
+            this.sparseMembersById = new HashMap<>();
+            for (Member member : members.getMembers()) {
+                this.sparseMembersById.put(member.getId(), member);
+            }
+            return;
+        }
+        this.membersById = new Member[(int) tableSize];
+        for (Member member : members.getMembers()) {
+            this.membersById[member.getId()] = member;
+        }
+    }
+
+    /**
+     * Loads the transactions in a transactions data file into the TransactionList object.
+     * Invalid subtransactions are skipped.
+     *
+     * @param file The transactions data file
+     * @param members The members of the group
+     * @param transactions The transaction list to add the transactions to
+     * @return If any subtransaction was skipped
+     * @throws LongAhException If the data file is not read or the content is invalid
+     */
+    public static boolean load(File file, MemberList members, TransactionList transactions)
+            throws LongAhException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_READ);
+            }
+            if (IS_MAPPING_SUPPORTED && size >= MAPPED_SIZE_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Read until the buffer is full
+                }
+                buffer.flip();
+            }
+        } catch (IOException e) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_READ);
+        }
+
+        MappedTransactionsLoader loader = new MappedTransactionsLoader(buffer, members);
+        int limit = buffer.limit();
+        int position = 0;
+        while (position < limit) {
+            int lineEnd = loader.indexOf((byte) '\n', position, limit);
+            int end = lineEnd;
+            if (end > position && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end > position) {
+                transactions.addTransaction(loader.parseTransaction(position, end));
+            }
+            position = lineEnd + 1;
+        }
+        return loader.hasSkippedSubtransactions;
+    }
+
+    /**
+     * Parses the transaction in a line of the data file.
+     *
+     * @param start The position of the start of the line
+     * @param end The position of the end of the line, excluding the line break
+     * @return The transaction parsed
+     * @throws LongAhException If the content is invalid
+     */
+    private Transaction parseTransaction(int start, int end) throws LongAhException {
+        int lenderEnd = indexOf(SEPARATOR, start, end);
+        Member lender = getMember(start, lenderEnd);
+        if (lenderEnd >= end) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+
+        int position = lenderEnd + 1;
+        DateTime transactionTime = null;
+        int timeEnd = indexOf(SEPARATOR, position, end);
+        if (indexOf((byte) '-', position, timeEnd) < timeEnd) {
+            transactionTime = parseTime(position, timeEnd);
+            position = timeEnd + 1;
+        }
+
+        ArrayList<Subtransaction> subtransactions = new ArrayList<>();
+        ByteSlice amount = new ByteSlice(this.buffer);
+        while (position < end) {
+            int borrowerEnd = indexOf(SEPARATOR, position, end);
+            if (borrowerEnd >= end) {
+                throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+            }
+            int amountEnd = indexOf(SEPARATOR, borrowerEnd + 1, end);
+            try {
+                Member borrower = getMember(position, borrowerEnd);
+                amount.set(borrowerEnd + 1, amountEnd);
+                subtransactions.add(StorageHandler.parseSubtransaction(borrower, amount, lender));
+            } catch (LongAhException e) {
+                // Skip the subtransaction if it is invalid
+                this.hasSkippedSubtransactions = true;
+            }
+            position = amountEnd + 1;
+        }
+        return new Transaction(lender, subtransactions, transactionTime);
+    }
+
+    /**
+     * Returns the member with the id in a field.
+     *
+     * @param start The position of the start of the field
+     * @param end The position of the end of the field
+     * @return The member with the id
+     * @throws LongAhException If the field is not an id or no member has the id
+     */
+    private Member getMember(int start, int end) throws LongAhException {
+        int id = parseNumber(start, end);
+        if (id < 0) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+        Member member = null;
+        if (this.sparseMembersById != null) {
+            member = this.sparseMembersById.get(id);
+        } else if (id < this.membersById.length) {
+            member = this.membersById[id];
+        }
+        if (member == null) {
+            throw new LongAhException(ExceptionMessage.MEMBER_NOT_FOUND);
+        }
+        return member;
+    }
+
+    /**
+     * Parses a time in the format dd-MM-yyyy HHmm.
+     *
+     * @param start The position of the start of the time
+     * @param end The position of the end of the time
+     * @return The time parsed
+     * @throws LongAhException If the time is invalid
+     */
+    private DateTime parseTime(int start, int end) throws LongAhException {
+        if (end - start != TIME_LENGTH || this.buffer.get(start + 2) != '-' || this.buffer.get(start + 5) != '-'
+                || this.buffer.get(start + 10) != ' ') {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+        int day = parseNumber(start, start + 2);
+        int month = parseNumber(start + 3, start + 5);
+        int year = parseNumber(start + 6, start + 10);
+        int hour = parseNumber(start + 11, start + 13);
+        int minute = parseNumber(start + 13, start + 15);
+        if (day < 0 || month < 0 || year < 0 || hour < 0 || minute < 0) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+        try {
+            return DateTime.of(year, month, day, hour, minute);
+        } catch (LongAhException e) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+    }
+
+    /**
+     * Parses a non-negative decimal number of at most 9 digits.
+     *
+     * @param start The position of the first digit
+     * @param end The position after the last digit
+     * @return The number parsed, or -1 if the range is not a number
+     */
+    private int parseNumber(int start, int end) {
+        if (end <= start || end - start > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = this.buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the position of the first occurrence of a byte in a range.
+     *
+     * @param value The byte to find
+     * @param start The start of the range
+     * @param end The end of the range
+     * @return The position of the byte, or the end of the range if it does not occur
+     */
+    private int indexOf(byte value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (this.buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Represents a range of ASCII bytes in a buffer as a character sequence, so that it can be
+     * parsed without being copied into a String.
+     */
+    private static class ByteSlice implements CharSequence {
+        private ByteBuffer buffer;
+        private int start;
+        private int end;
+
+        ByteSlice(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        ByteSlice(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            set(start, end);
+        }
+
+        void set(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return this.end - this.start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (this.buffer.get(this.start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteSlice(this.buffer, this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder value = new StringBuilder(length());
+            for (int i = 0; i < length(); i++) {
+                value.append(charAt(i));
+            }
+            return value.toString();
+        }
+    }
+}
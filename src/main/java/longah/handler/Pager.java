@@ -0,0 +1,183 @@
+package longah.handler;
+
+import longah.node.Group;
+import longah.util.Listing;
+import longah.exception.ExceptionMessage;
+import longah.exception.LongAhException;
+
+/**
+ * Displays listings of list, find and filter commands one page at a time. A command is paged when
+ * its expression has a pg/PAGE option, optionally with a sz/PAGE_SIZE option. The query of the last
+ * paged command is kept, so that the next and previous pages can be displayed by running the query
+ * again on the current data of the group and rendering only the rows of the page. Only the name of
+ * the group is kept, so that a group released from memory is not held by the pager, and the query
+ * runs on the group as reloaded.
+ */
+public class Pager {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    private static final String PAGE_PREFIX = "pg/";
+    private static final String PAGE_SIZE_PREFIX = "sz/";
+    private static int defaultPageSize = DEFAULT_PAGE_SIZE;
+
+    // The last paged query, which the next and previous commands navigate
+    private static Query lastQuery = null;
+    private static String lastGroupName = null;
+    private static int lastPage;
+    private static int lastPageSize;
+
+    private String expression;
+    private int page = 0;
+    private int pageSize;
+
+    /**
+     * Represents a query producing the listing of a command from the data of a group.
+     */
+    @FunctionalInterface
+    public interface Query {
+        /**
+         * Runs the query on a group.
+         *
+         * @param group The group to run the query on
+         * @return The listing of the query
+         * @throws LongAhException If the query finds nothing or is invalid
+         */
+        Listing run(Group group) throws LongAhException;
+    }
+
+    /**
+     * Constructs a pager from the expression of a command, taking out the page options.
+     *
+     * @param taskExpression The expression of the command
+     * @throws LongAhException If a page option is not a positive number
+     */
+    public Pager(String taskExpression) throws LongAhException {
+        this.pageSize = defaultPageSize;
+        if (!taskExpression.contains(PAGE_PREFIX) && !taskExpression.contains(PAGE_SIZE_PREFIX)) {
+            this.expression = taskExpression;
+            return;
+        }
+
+        boolean hasPageSize = false;
+        StringBuilder remaining = new StringBuilder();
+        for (String token : taskExpression.trim().split(" +")) {
+            if (token.startsWith(PAGE_PREFIX)) {
+                this.page = parsePositive(token.substring(PAGE_PREFIX.length()));
+            } else if (token.startsWith(PAGE_SIZE_PREFIX)) {
+                this.pageSize = parsePositive(token.substring(PAGE_SIZE_PREFIX.length()));
+                hasPageSize = true;
+            } else {
+                if (remaining.length() > 0) {
+                    remaining.append(' ');
+                }
+                remaining.append(token);
+            }
+        }
+        if (hasPageSize && this.page == 0) {
+            // A page size alone starts from the first page
+            this.page = 1;
+        }
+        this.expression = remaining.toString();
+    }
+
+    /**
+     * Sets the number of rows shown on a page when a command has no page size option.
+     *
+     * @param pageSize The default page size
+     */
+    public static void setDefaultPageSize(int pageSize) {
+        assert pageSize > 0 : "Page size must be positive";
+        defaultPageSize = pageSize;
+    }
+
+    /**
+     * Returns the expression of the command without the page options.
+     *
+     * @return The expression without the page options
+     */
+    public String getExpression() {
+        return this.expression;
+    }
+
+    /**
+     * Returns whether the command asked for a page.
+     *
+     * @return Whether the command is paged
+     */
+    public boolean isPaged() {
+        return this.page > 0;
+    }
+
+    /**
+     * Runs a query on a group and displays its listing, either whole or, if the command is paged,
+     * only the requested page. A paged query is kept for navigation.
+     *
+     * @param group The group to run the query on
+     * @param query The query of the command
+     * @throws LongAhException If the query fails or the page is out of range
+     */
+    public void show(Group group, Query query) throws LongAhException {
+        Listing listing = query.run(group);
+        if (!isPaged()) {
+            UI.showListing(listing);
+            return;
+        }
+        showPage(listing, this.page, this.pageSize);
+        lastQuery = query;
+        lastGroupName = group.getGroupName();
+        lastPage = this.page;
+        lastPageSize = this.pageSize;
+    }
+
+    /**
+     * Displays the page after or before the last page displayed, running the last paged query
+     * again on the current data of the group.
+     *
+     * @param group The active group
+     * @param offset The number of pages to move by, negative to move back
+     * @throws LongAhException If there is no paged query for the group or the page is out of range
+     */
+    public static void showAdjacentPage(Group group, int offset) throws LongAhException {
+        if (lastQuery == null || !group.getGroupName().equals(lastGroupName)) {
+            throw new LongAhException(ExceptionMessage.NO_PAGED_LISTING);
+        }
+        Listing listing = lastQuery.run(group);
+        showPage(listing, lastPage + offset, lastPageSize);
+        lastPage += offset;
+    }
+
+    /**
+     * Displays a page of a listing followed by the position of the page.
+     *
+     * @param listing The listing to display
+     * @param page The page to display, starting from 1
+     * @param pageSize The number of rows on a page
+     * @throws LongAhException If the page is out of range
+     */
+    private static void showPage(Listing listing, int page, int pageSize) throws LongAhException {
+        int rowCount = listing.getRowCount();
+        int pageCount = Math.max(1, (int) ((rowCount + (long) pageSize - 1) / pageSize));
+        if (page < 1 || page > pageCount) {
+            throw new LongAhException(ExceptionMessage.PAGE_OUT_OF_RANGE);
+        }
+        int fromRow = (int) Math.min((long) (page - 1) * pageSize, rowCount);
+        int toRow = (int) Math.min((long) fromRow + pageSize, rowCount);
+        UI.showListing(listing, fromRow, toRow);
+        String footer = "Page " + page + " of " + pageCount + " (" + rowCount + " in total).";
+        if (pageCount > 1) {
+            footer += " Use 'next' or 'prev' to view other pages.";
+        }
+        UI.showMessage(footer);
+    }
+
+    private static int parsePositive(String value) throws LongAhException {
+        try {
+            int number = Integer.parseInt(value);
+            if (number <= 0) {
+                throw new LongAhException(ExceptionMessage.INVALID_PAGE_OPTION);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new LongAhException(ExceptionMessage.INVALID_PAGE_OPTION);
+        }
+    }
+}
@@ -1,18 +1,40 @@
 package longah.handler;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.Scanner;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 import longah.node.Member;
+import longah.util.ColumnarTransactionStore;
 import longah.util.MemberList;
+import longah.util.Money;
 import longah.util.Subtransaction;
 import longah.node.Transaction;
 import longah.util.TransactionList;
+import longah.util.TransactionStore;
 import longah.exception.LongAhException;
 import longah.exception.ExceptionMessage;
 
@@ -20,19 +42,89 @@ import longah.exception.ExceptionMessage;
  * Storage Format
  * -----------
  * Members:
- * [Name]SEP[Balance]
+ * [Id]SEP[Name]SEP[Balance]
  * 
  * Transactions:
- * [Lender]SEP[Borrower1]SEP[Value]SEP...
+ * [LenderId]SEP[Time(opt)]SEP[BorrowerId1]SEP[Value]SEP...
+ *
+ * Files in the legacy format refer to members by name instead of id, and are
+ * rewritten in the current format when loaded.
+ *
+ * In binary format, members and transactions are instead saved together in
+ * group.bin as described in BinaryStorageFormat. The format of the data is
+ * detected when loading, and the data is converted if the format differs from
+ * the one selected.
+ *
+ * Journal:
+ * [Type]SEP[Fields]...
+ * M: [Id]SEP[Name]              (member added)
+ * R: [Id]SEP[Name]              (member renamed)
+ * D: [Id]                       (member deleted)
+ * A: [Transaction]              (transaction added)
+ * E: [Index]SEP[Transaction]    (transaction edited)
+ * X: [Index]                    (transaction deleted)
+ * C                             (transactions cleared)
+ * In journal mode, each change appends one record instead of rewriting the data
+ * files. The data files are the base snapshot which the journal is replayed on.
+ *
+ * Checkpoints:
+ * Once the journal is large enough, it is renamed to journal.old and the data is
+ * written in the background to members.tmp and transactions.tmp, or group.tmp in
+ * binary format. Creating the
+ * checkpoint.done marker commits the checkpoint, after which the temporary files
+ * replace the data files and journal.old is removed. When loading, an interrupted
+ * checkpoint is completed if the marker exists, and discarded otherwise, in which
+ * case journal.old is replayed before journal.txt.
  */
 public class StorageHandler {
-    // Constants
-    private static final double EPSILON = 1e-3; // Double Comparison Epsilon
-
     // ASCII Defined Separator
     private static final String SEPARATOR = String.valueOf(Character.toChars(31));
     private static final String MEMBERS_FILE_STRING = "members.txt";
     private static final String TRANSACTIONS_FILE_STRING = "transactions.txt";
+    private static final String BINARY_FILE_STRING = "group.bin";
+    private static final String BINARY_TEMP_FILE_STRING = "group.tmp";
+    private static final String JOURNAL_FILE_STRING = "journal.txt";
+    private static final String OLD_JOURNAL_FILE_STRING = "journal.old";
+    private static final String MEMBERS_TEMP_FILE_STRING = "members.tmp";
+    private static final String TRANSACTIONS_TEMP_FILE_STRING = "transactions.tmp";
+    private static final String CHECKPOINT_MARKER_FILE_STRING = "checkpoint.done";
+
+    // Journal Record Types
+    private static final String JOURNAL_ADD_MEMBER = "M";
+    private static final String JOURNAL_RENAME_MEMBER = "R";
+    private static final String JOURNAL_DELETE_MEMBER = "D";
+    private static final String JOURNAL_ADD_TRANSACTION = "A";
+    private static final String JOURNAL_EDIT_TRANSACTION = "E";
+    private static final String JOURNAL_DELETE_TRANSACTION = "X";
+    private static final String JOURNAL_CLEAR_TRANSACTIONS = "C";
+
+    private static boolean isJournalMode = false;
+    private static boolean isBinaryFormat = false;
+    private static boolean isWriteBehind = false;
+    private static boolean isShutdownFlushAdded = false;
+    // Maximum time in milliseconds between a change and its write-behind save
+    private static long maxWriteDelay = 1000;
+    private static final long SHUTDOWN_LOCK_TIMEOUT = 200;
+    // Held while the data of any group is changed, or read for a write-behind save
+    private static final ReentrantLock DATA_LOCK = new ReentrantLock();
+    private static final ScheduledExecutorService PERSISTENCE_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "LongAh-persistence");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final Set<StorageHandler> PENDING_HANDLERS = ConcurrentHashMap.newKeySet();
+    // Numbers of data files written, and of data files not written as they had no changes
+    private static final AtomicLong PERFORMED_WRITES = new AtomicLong();
+    private static final AtomicLong SKIPPED_WRITES = new AtomicLong();
+    // A checkpoint is started once the journal has either this many records or bytes
+    private static int checkpointRecordLimit = 1000;
+    private static long checkpointByteLimit = 1 << 20;
+    private static final ExecutorService CHECKPOINT_EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "LongAh-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     // Storage Directory Constants
     private String storageFolderPath = "./data";
@@ -40,11 +132,37 @@ public class StorageHandler {
     private String storageTransactionsFilePath;
     private File membersFile;
     private File transactionsFile;
+    private File binaryFile;
+    private File journalFile;
+    private File oldJournalFile;
+    private File membersTempFile;
+    private File transactionsTempFile;
+    private File binaryTempFile;
+    private File checkpointMarkerFile;
 
     // Objects for Storate
     private MemberList members;
     private TransactionList transactions;
-    private Scanner[] scanners = new Scanner[2];
+    private Scanner membersScanner;
+    private boolean isLegacyFormat = false;
+    private boolean hasSkippedSubtransactions = false;
+    private String groupName;
+    private int journalRecordCount = 0;
+    private long journalByteCount = 0;
+    // Kept open while changes are appended, and closed before the journal is renamed or deleted
+    private FileChannel journalChannel;
+    private Future<?> checkpointTask;
+    // Versions of the data for write-behind saves, counting the changes to the data
+    private long dataVersion = 0;
+    private volatile long savedVersion = 0;
+    // Versions of the members data, including balances, and of the transactions data, counting
+    // the changes to each, so that only changed data files are written
+    private long membersVersion = 0;
+    private long transactionsVersion = 0;
+    private volatile long savedMembersVersion = 0;
+    private volatile long savedTransactionsVersion = 0;
+    private ScheduledFuture<?> pendingSave;
+    private boolean isDeleted = false;
 
     /**
      * Initializes a new StorageHandler instance.
@@ -67,32 +185,149 @@ public class StorageHandler {
         this.storageTransactionsFilePath = this.storageFolderPath + "/" + TRANSACTIONS_FILE_STRING;
         this.membersFile = new File(this.storageMembersFilePath);
         this.transactionsFile = new File(this.storageTransactionsFilePath);
-
-        try {
-            membersFile.createNewFile();
-            transactionsFile.createNewFile();
-        } catch (IOException e) {
-            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_CREATED);
-        }
-
+        this.binaryFile = new File(this.storageFolderPath + "/" + BINARY_FILE_STRING);
+        this.journalFile = new File(this.storageFolderPath + "/" + JOURNAL_FILE_STRING);
+        this.oldJournalFile = new File(this.storageFolderPath + "/" + OLD_JOURNAL_FILE_STRING);
+        this.membersTempFile = new File(this.storageFolderPath + "/" + MEMBERS_TEMP_FILE_STRING);
+        this.transactionsTempFile = new File(this.storageFolderPath + "/" + TRANSACTIONS_TEMP_FILE_STRING);
+        this.binaryTempFile = new File(this.storageFolderPath + "/" + BINARY_TEMP_FILE_STRING);
+        this.checkpointMarkerFile = new File(this.storageFolderPath + "/" + CHECKPOINT_MARKER_FILE_STRING);
+        this.groupName = groupName;
+        recoverCheckpoint();
         this.members = members;
         this.transactions = transactions;
-        initStorageScanners();
 
         // Load data from data files into MemberList and TransactionList objects
-        loadAllData();
+        boolean isBinaryData = this.binaryFile.exists();
+        if (isBinaryData) {
+            loadBinaryData();
+        } else {
+            try {
+                membersFile.createNewFile();
+                transactionsFile.createNewFile();
+            } catch (IOException e) {
+                throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_CREATED);
+            }
+            initStorageScanners();
+            loadAllData();
+        }
         Logging.logInfo("Data loaded from storage.");
+        int replayedCount = replayJournal();
+        if (replayedCount > 0) {
+            Logging.logInfo(replayedCount + " journal records of group " + groupName + " replayed.");
+        }
+        if (this.isLegacyFormat) {
+            saveAllData();
+            Logging.logInfo("Data of group " + groupName + " migrated to member ids.");
+        } else if (replayedCount > 0 && (!isJournalMode || this.oldJournalFile.exists())) {
+            // Fold the journals into the data files if changes are no longer journaled or
+            // a checkpoint was interrupted
+            saveAllData();
+        } else if (isBinaryData != isBinaryFormat) {
+            saveAllData();
+            Logging.logInfo("Data of group " + groupName + " converted to " + (isBinaryFormat ? "binary" : "text")
+                    + " format.");
+        } else if (isCheckpointDue()) {
+            startCheckpoint();
+        }
+    }
+
+    /**
+     * Sets whether changes are appended to the journal of each group instead of rewriting its data files.
+     *
+     * @param isEnabled Whether journal mode is enabled
+     */
+    public static void setJournalMode(boolean isEnabled) {
+        isJournalMode = isEnabled;
+    }
+
+    public static boolean isJournalMode() {
+        return isJournalMode;
+    }
+
+    /**
+     * Sets whether the data of each group is saved in the binary format instead of the text format.
+     * Data in the other format is converted when loaded.
+     *
+     * @param isEnabled Whether binary format is enabled
+     */
+    public static void setBinaryFormat(boolean isEnabled) {
+        isBinaryFormat = isEnabled;
+    }
+
+    public static boolean isBinaryFormat() {
+        return isBinaryFormat;
+    }
+
+    /**
+     * Sets whether changes are saved in the background instead of before the command returns.
+     * Changes made within the maximum write delay are saved together in one write.
+     *
+     * @param isEnabled Whether write-behind saving is enabled
+     */
+    public static void setWriteBehind(boolean isEnabled) {
+        isWriteBehind = isEnabled;
+        if (isEnabled && !isShutdownFlushAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(StorageHandler::flushAllOnShutdown));
+            isShutdownFlushAdded = true;
+        }
+    }
+
+    /**
+     * Sets the maximum time between a change and its write-behind save.
+     *
+     * @param delay The maximum delay in milliseconds
+     */
+    public static void setMaxWriteDelay(long delay) {
+        maxWriteDelay = Math.max(0, delay);
+    }
+
+    public static boolean isWriteBehind() {
+        return isWriteBehind;
+    }
+
+    public static long getMaxWriteDelay() {
+        return maxWriteDelay;
+    }
+
+    /**
+     * Returns the lock which is held while the data of any group is changed, so that write-behind
+     * saves do not read data in the middle of a change.
+     *
+     * @return The data lock
+     */
+    public static Lock getDataLock() {
+        return DATA_LOCK;
+    }
+
+    /**
+     * Sets the size of the journal at which a checkpoint is started.
+     *
+     * @param recordLimit The number of records in the journal
+     * @param byteLimit The number of bytes in the journal
+     */
+    public static void setCheckpointLimits(int recordLimit, long byteLimit) {
+        checkpointRecordLimit = Math.max(1, recordLimit);
+        checkpointByteLimit = Math.max(1, byteLimit);
+    }
+
+    public static int getCheckpointRecordLimit() {
+        return checkpointRecordLimit;
+    }
+
+    public static long getCheckpointByteLimit() {
+        return checkpointByteLimit;
     }
 
     /**
-     * Initializes the storage scanner to read data files.
+     * Initializes the storage scanner to read the members data file. The transactions data file is
+     * only read with a scanner if it is in the legacy format.
      * 
-     * @throws LongAhException If the data files are not found
+     * @throws LongAhException If the data file is not found
      */
     public void initStorageScanners() throws LongAhException {
         try {
-            this.scanners[0] = new Scanner(this.membersFile);
-            this.scanners[1] = new Scanner(this.transactionsFile);
+            this.membersScanner = new Scanner(this.membersFile);
         } catch (FileNotFoundException e) {
             throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_FOUND);
         }
@@ -111,7 +346,7 @@ public class StorageHandler {
      * @throws LongAhException If the data file is not read or the content is invalid
      */
     public void loadMembersData() throws LongAhException {
-        Scanner sc = this.scanners[0];
+        Scanner sc = this.membersScanner;
         while (sc.hasNextLine()) {
             try {
                 String data = sc.nextLine();
@@ -120,12 +355,22 @@ public class StorageHandler {
                 }
 
                 String[] memberData = data.split(SEPARATOR);
-                assert memberData.length == 2 : "Member data should have 2 parts.";
+                if (memberData.length == 2) {
+                    // Legacy format without member ids
+                    this.isLegacyFormat = true;
+                    this.members.addMemberCents(memberData[0], Money.parseCents(memberData[1]));
+                    continue;
+                }
+                assert memberData.length == 3 : "Member data should have 3 parts.";
 
-                String name = memberData[0];
-                double balance = Double.parseDouble(memberData[1]);
-                this.members.addMember(name, balance);
-            } catch (LongAhException | NumberFormatException e) {
+                int id = Integer.parseInt(memberData[0]);
+                if (id < 0) {
+                    throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+                }
+                String name = memberData[1];
+                long balance = Money.parseCents(memberData[2]);
+                this.members.addMemberCents(id, name, balance);
+            } catch (LongAhException | ArrayIndexOutOfBoundsException | NumberFormatException e) {
                 throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
             } 
         }
@@ -133,89 +378,135 @@ public class StorageHandler {
 
     /**
      * Loads the transactions data from the data file into the TransactionList object.
+     * Files in the current format are parsed directly from their bytes.
      * 
      * @throws LongAhException If the data file is not read or the content is invalid
      */
     public void loadTransactionsData() throws LongAhException {
-        Scanner sc = this.scanners[1];
-        boolean isError = false;
-        while (sc.hasNextLine()) {
-            try {
-                String data = sc.nextLine();
-                if (data.equals("")) {
-                    continue;
-                }
-
-                String[] transactionData = data.split(SEPARATOR);
-                String lenderName = transactionData[0];
-                String transactionTime = null;
-                Member lender = members.getMember(lenderName);
-                Transaction transaction;
-                ArrayList<Subtransaction> subtransactions = new ArrayList<>();
-                int startOfSubtransactions = 1;
-
-                if (transactionData[1].contains("-")) {
-                    transactionTime = transactionData[1];
-                    startOfSubtransactions = 2;
-                }
-
-                for (int i = startOfSubtransactions; i < transactionData.length; i += 2) {
-                    try {
-                        Subtransaction subtransaction = parseSubtransaction(transactionData[i],
-                                transactionData[i + 1], lender, members);
-                        subtransactions.add(subtransaction);
-                    } catch (LongAhException e) {
-                        // Skip the subtransaction if it is invalid
-                        isError = true;
+        if (this.isLegacyFormat) {
+            try (Scanner sc = new Scanner(this.transactionsFile)) {
+                while (sc.hasNextLine()) {
+                    String data = sc.nextLine();
+                    if (data.equals("")) {
                         continue;
                     }
+                    this.transactions.addTransaction(parseTransaction(data));
                 }
+            } catch (FileNotFoundException e) {
+                throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_FOUND);
+            }
+        } else if (MappedTransactionsLoader.load(this.transactionsFile, this.members, this.transactions)) {
+            this.hasSkippedSubtransactions = true;
+        }
+
+        boolean checksum = checkTransactions(members);
+        if (!checksum) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_CORRUPTED);
+        }
+    }
+
+    /**
+     * Returns if invalid subtransactions were skipped when the data was loaded. They are reported
+     * by the caller, as groups may be loaded on background threads.
+     *
+     * @return If any subtransaction was skipped
+     */
+    public boolean hasSkippedSubtransactions() {
+        return this.hasSkippedSubtransactions;
+    }
 
-                if (startOfSubtransactions == 1) {
-                    transaction = new Transaction(lender, subtransactions, members);
-                } else {
-                    transactionTime = transactionData[1];
-                    transaction = new Transaction(lender, subtransactions, members, transactionTime);
+    /**
+     * Parses a transaction in the storage format into a Transaction object.
+     * Invalid subtransactions are skipped.
+     *
+     * @param data The transaction in the storage format
+     * @return The Transaction object parsed
+     * @throws LongAhException If the content is invalid
+     */
+    private Transaction parseTransaction(String data) throws LongAhException {
+        try {
+            String[] transactionData = data.split(SEPARATOR);
+            Member lender = getStoredMember(transactionData[0]);
+            ArrayList<Subtransaction> subtransactions = new ArrayList<>();
+            int startOfSubtransactions = 1;
+
+            if (transactionData[1].contains("-")) {
+                startOfSubtransactions = 2;
+            }
+
+            for (int i = startOfSubtransactions; i < transactionData.length; i += 2) {
+                try {
+                    Member borrower = getStoredMember(transactionData[i]);
+                    Subtransaction subtransaction = parseSubtransaction(borrower,
+                            transactionData[i + 1], lender);
+                    subtransactions.add(subtransaction);
+                } catch (LongAhException e) {
+                    // Skip the subtransaction if it is invalid
+                    this.hasSkippedSubtransactions = true;
                 }
-                this.transactions.addTransaction(transaction);
+            }
 
-            } catch (LongAhException | NumberFormatException e) {
-                throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+            if (startOfSubtransactions == 1) {
+                return new Transaction(lender, subtransactions, members);
             }
+            return new Transaction(lender, subtransactions, members, transactionData[1]);
+        } catch (LongAhException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
         }
+    }
 
-        boolean checksum = checkTransactions(members);
-        if (!checksum) {
+    /**
+     * Loads the members and transactions data from the binary data file into the MemberList and
+     * TransactionList objects.
+     *
+     * @throws LongAhException If the data file is not read or the content is invalid
+     */
+    public void loadBinaryData() throws LongAhException {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(this.binaryFile.toPath());
+        } catch (IOException e) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_READ);
+        }
+        BinaryStorageFormat.decode(data, this.members, this.transactions);
+        if (!checkTransactions(this.members)) {
             throw new LongAhException(ExceptionMessage.STORAGE_FILE_CORRUPTED);
         }
-        if (isError) {
-            UI.showMessage("Some transactions are invalid and have been skipped.");
+    }
+
+    /**
+     * Returns the member referred to in the transactions data file.
+     *
+     * @param reference The id of the member, or the name of the member in the legacy format
+     * @return The member referred to
+     * @throws LongAhException If the member does not exist
+     * @throws NumberFormatException If the id is not a number
+     */
+    private Member getStoredMember(String reference) throws LongAhException {
+        if (this.isLegacyFormat) {
+            return this.members.getMember(reference);
         }
+        return this.members.getMemberById(Integer.parseInt(reference));
     }
 
     /**
      * Parses the subtransaction data from the data file into a Subtransaction object.
      * 
-     * @param borrowerName The name of the borrower in the subtransaction
+     * @param borrower The borrower in the subtransaction
      * @param value The amount borrowed in the subtransaction
      * @param lender The lender in the subtransaction
-     * @param members The MemberList object to reference the members in the subtransaction
      * @return The Subtransaction object parsed from the data file
      * @throws LongAhException If the data file is not read or the content is invalid
      */
-    public static Subtransaction parseSubtransaction(String borrowerName, String value,
-            Member lender, MemberList members) throws LongAhException{
+    public static Subtransaction parseSubtransaction(Member borrower, CharSequence value,
+            Member lender) throws LongAhException{
         try {
-            Member borrower = members.getMember(borrowerName);
-            double amount = Double.parseDouble(value);
+            // Exception is thrown if the amount borrowed is not a number, has more than 2dp or overflows
+            long amount = Money.parseCents(value);
 
             if (borrower.equals(lender)) {
                 throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_FORMAT);
             }
-            // Exception is thrown if the amount borrowed has more than 2dp
-            if (BigDecimal.valueOf(amount).scale() > 2) {
-                throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
-            }
             // Exception is thrown if the amount borrowed is not positive
             if (amount <= 0) {
                 throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
@@ -223,7 +514,7 @@ public class StorageHandler {
 
             return new Subtransaction(lender, borrower, amount);
           
-        } catch (NumberFormatException | LongAhException e) {
+        } catch (LongAhException e) {
             throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
         }
     }
@@ -238,14 +529,11 @@ public class StorageHandler {
         if (members.getMemberListSize() == 0) {
             return true;
         }
-        double total = 0.0;
+        long total = 0;
         for (Member member : members.getMembers()) {
-            total += member.getBalance();
+            total += member.getBalanceCents();
         }
-        if (Math.abs(total) < EPSILON) {
-            return true;
-        }
-        return false;
+        return total == 0;
     }
 
     /**
@@ -254,12 +542,13 @@ public class StorageHandler {
      * @throws LongAhException If the data files are not read or the content is invalid
      */
     public void loadAllData() throws LongAhException {
-        loadMembersData();
+        try {
+            loadMembersData();
+        } finally {
+            // Close the scanner after reading the data
+            this.membersScanner.close();
+        }
         loadTransactionsData();
-
-        // Close the scanners after reading the data
-        this.scanners[0].close();
-        this.scanners[1].close();
     }
 
     /**
@@ -268,16 +557,13 @@ public class StorageHandler {
      * @throws LongAhException If the data file is not written
      */
     public void saveMembersData() throws LongAhException {
-        try {
-            FileWriter fw = new FileWriter(this.membersFile);
-            for (Member member : this.members.getMembers()) {
-                String data = member.toStorageString(SEPARATOR);
-                fw.write(data + "\n");
-            }
-            fw.close();
-        } catch (IOException e) {
-            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_WRITTEN);
+        if (isBinaryFormat) {
+            saveBinaryData();
+            return;
         }
+        long version = this.membersVersion;
+        writeFiles(Map.of(this.membersFile, getMembersStorageString(this.members).getBytes()));
+        this.savedMembersVersion = version;
     }
 
     /**
@@ -286,16 +572,81 @@ public class StorageHandler {
      * @throws LongAhException If the data file is not written
      */
     public void saveTransactionsData() throws LongAhException {
+        if (isBinaryFormat) {
+            saveBinaryData();
+            return;
+        }
+        long version = this.transactionsVersion;
+        writeFiles(Map.of(this.transactionsFile, getTransactionsStorageString(this.transactions.getStore()).getBytes()));
+        this.savedTransactionsVersion = version;
+    }
+
+    /**
+     * Saves the members and transactions data into the binary data file.
+     *
+     * @throws LongAhException If the data file is not written
+     */
+    public void saveBinaryData() throws LongAhException {
+        long savingMembersVersion = this.membersVersion;
+        long savingTransactionsVersion = this.transactionsVersion;
+        writeFiles(Map.of(this.binaryFile, BinaryStorageFormat.encode(this.members, this.transactions)));
+        this.savedMembersVersion = savingMembersVersion;
+        this.savedTransactionsVersion = savingTransactionsVersion;
+    }
+
+    /**
+     * Replaces the content of data files atomically, so that a crash while saving leaves either
+     * the old or the new content.
+     *
+     * @param files The new content of each data file
+     * @throws LongAhException If a data file is not written
+     */
+    private static void writeFiles(Map<File, byte[]> files) throws LongAhException {
         try {
-            FileWriter fw = new FileWriter(this.transactionsFile);
-            for (Transaction transaction : this.transactions.getTransactions()) {
-                String data = transaction.toStorageString(SEPARATOR);
-                fw.write(data + "\n");
-            }
-            fw.close();
+            DurableFileWriter.write(files);
         } catch (IOException e) {
             throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_WRITTEN);
         }
+        PERFORMED_WRITES.addAndGet(files.size());
+    }
+
+    /**
+     * Returns the numbers of data files written, and of data files not written as they had no
+     * changes since they were last saved.
+     *
+     * @return The write statistics of all groups
+     */
+    public static String getWriteStatistics() {
+        return "Data files written: " + PERFORMED_WRITES.get() + ", skipped as unchanged: "
+                + SKIPPED_WRITES.get();
+    }
+
+    /**
+     * Returns the members data from a MemberList object in the storage format.
+     *
+     * @param members The members to save
+     * @return The content of the members data file
+     */
+    private static String getMembersStorageString(MemberList members) {
+        StringBuilder data = new StringBuilder();
+        for (Member member : members.getMembers()) {
+            data.append(member.toStorageString(SEPARATOR)).append("\n");
+        }
+        return data.toString();
+    }
+
+    /**
+     * Returns the transactions data from a transaction store in the storage format.
+     *
+     * @param store The transactions to save
+     * @return The content of the transactions data file
+     */
+    private static String getTransactionsStorageString(TransactionStore store) {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < store.size(); i++) {
+            data.append(store.get(i).toStorageString(SEPARATOR)).append("\n");
+        }
+        return data.toString();
     }
 
     /**
@@ -304,8 +655,750 @@ public class StorageHandler {
      * @throws LongAhException If the data files are not written
      */
     public void saveAllData() throws LongAhException {
-        saveMembersData();
-        saveTransactionsData();
+        waitForCheckpoint();
+        synchronized (this) {
+            long savingMembersVersion = this.membersVersion;
+            long savingTransactionsVersion = this.transactionsVersion;
+            writeFiles(encodeData(this.members, this.transactions.getStore(), false));
+            this.savedMembersVersion = savingMembersVersion;
+            this.savedTransactionsVersion = savingTransactionsVersion;
+            if (isBinaryFormat) {
+                deleteFile(this.membersFile);
+                deleteFile(this.transactionsFile);
+            } else {
+                deleteFile(this.binaryFile);
+            }
+            // Pending write-behind saves of older data are no longer needed
+            this.savedVersion = this.dataVersion;
+        }
+        // The data files now include all journaled changes
+        closeJournal();
+        deleteFile(this.journalFile);
+        deleteFile(this.oldJournalFile);
+        this.journalRecordCount = 0;
+        this.journalByteCount = 0;
+    }
+
+    /**
+     * Saves a member added to the MemberList object.
+     *
+     * @param member The member added
+     * @throws LongAhException If the data file is not written
+     */
+    public void saveAddedMember(Member member) throws LongAhException {
+        if (!isJournalMode) {
+            saveChange(true);
+            return;
+        }
+        appendJournal(JOURNAL_ADD_MEMBER + SEPARATOR + member.getId() + SEPARATOR + member.getName());
+    }
+
+    /**
+     * Saves the new name of a member in the MemberList object.
+     *
+     * @param member The member renamed
+     * @throws LongAhException If the data file is not written
+     */
+    public void saveRenamedMember(Member member) throws LongAhException {
+        if (!isJournalMode) {
+            saveChange(true);
+            return;
+        }
+        appendJournal(JOURNAL_RENAME_MEMBER + SEPARATOR + member.getId() + SEPARATOR + member.getName());
+    }
+
+    /**
+     * Saves the deletion of a member from the MemberList and TransactionList objects.
+     *
+     * @param member The member deleted
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveDeletedMember(Member member) throws LongAhException {
+        if (!isJournalMode) {
+            saveChange(false);
+            return;
+        }
+        appendJournal(JOURNAL_DELETE_MEMBER + SEPARATOR + member.getId());
+    }
+
+    /**
+     * Saves a transaction appended to the TransactionList object.
+     *
+     * @param transaction The transaction added
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveAddedTransaction(Transaction transaction) throws LongAhException {
+        if (!isJournalMode) {
+            saveChange(false);
+            return;
+        }
+        appendJournal(JOURNAL_ADD_TRANSACTION + SEPARATOR + transaction.toStorageString(SEPARATOR));
+    }
+
+    /**
+     * Saves a transaction edited in the TransactionList object.
+     *
+     * @param index The 0-based index of the transaction
+     * @param transaction The transaction after the edit
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveEditedTransaction(int index, Transaction transaction) throws LongAhException {
+        if (!isJournalMode) {
+            saveChange(false);
+            return;
+        }
+        appendJournal(JOURNAL_EDIT_TRANSACTION + SEPARATOR + index + SEPARATOR
+                + transaction.toStorageString(SEPARATOR));
+    }
+
+    /**
+     * Saves the deletion of a transaction from the TransactionList object.
+     *
+     * @param index The 0-based index of the transaction
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveDeletedTransaction(int index) throws LongAhException {
+        if (!isJournalMode) {
+            saveChange(false);
+            return;
+        }
+        appendJournal(JOURNAL_DELETE_TRANSACTION + SEPARATOR + index);
+    }
+
+    /**
+     * Saves the clearing of all transactions from the TransactionList object.
+     *
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveClearedTransactions() throws LongAhException {
+        if (!isJournalMode) {
+            saveChange(false);
+            return;
+        }
+        appendJournal(JOURNAL_CLEAR_TRANSACTIONS);
+    }
+
+    /**
+     * Saves a change to the data files, in the background if write-behind saving is enabled.
+     * Only the data files with changes since they were last saved are written.
+     *
+     * @param isMembersOnly If only the members data changed
+     * @throws LongAhException If the data files are not written
+     */
+    private void saveChange(boolean isMembersOnly) throws LongAhException {
+        DATA_LOCK.lock();
+        try {
+            this.membersVersion++;
+            if (!isMembersOnly) {
+                this.transactionsVersion++;
+            }
+        } finally {
+            DATA_LOCK.unlock();
+        }
+        if (isWriteBehind) {
+            scheduleSave();
+            return;
+        }
+        waitForCheckpoint();
+        synchronized (this) {
+            long savingMembersVersion = this.membersVersion;
+            long savingTransactionsVersion = this.transactionsVersion;
+            Map<File, byte[]> data = captureChangedData();
+            if (!data.isEmpty()) {
+                writeFiles(data);
+            }
+            this.savedMembersVersion = savingMembersVersion;
+            this.savedTransactionsVersion = savingTransactionsVersion;
+        }
+    }
+
+    /**
+     * Marks the data as changed and schedules a write-behind save if none is pending, so that
+     * later changes before the save are included in the same write.
+     */
+    private void scheduleSave() {
+        DATA_LOCK.lock();
+        try {
+            this.dataVersion++;
+            PENDING_HANDLERS.add(this);
+            if (this.pendingSave == null) {
+                this.pendingSave = PERSISTENCE_EXECUTOR.schedule(this::saveInBackground, maxWriteDelay,
+                        TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            DATA_LOCK.unlock();
+        }
+    }
+
+    private void saveInBackground() {
+        try {
+            flush();
+        } catch (LongAhException e) {
+            Logging.logWarning("Write-behind save of group " + this.groupName + " failed.");
+        }
+    }
+
+    /**
+     * Writes any changes which are waiting for a write-behind save to the data files.
+     *
+     * @throws LongAhException If the data files are not written
+     */
+    public void flush() throws LongAhException {
+        flush(false);
+    }
+
+    /**
+     * Writes any changes which are waiting for a write-behind save to the data files.
+     * At shutdown, the command loop no longer changes data, so the data is read even if the lock
+     * cannot be acquired, as the loop may hold it while exiting.
+     *
+     * @param isShutdown If the application is shutting down
+     * @throws LongAhException If the data files are not written
+     */
+    private void flush(boolean isShutdown) throws LongAhException {
+        Map<File, byte[]> data;
+        long version;
+        long savingMembersVersion;
+        long savingTransactionsVersion;
+        boolean isLocked = lockData(isShutdown);
+        try {
+            if (this.pendingSave != null) {
+                this.pendingSave.cancel(false);
+                this.pendingSave = null;
+            }
+            if (this.dataVersion == this.savedVersion) {
+                PENDING_HANDLERS.remove(this);
+                return;
+            }
+            data = captureChangedData();
+            version = this.dataVersion;
+            savingMembersVersion = this.membersVersion;
+            savingTransactionsVersion = this.transactionsVersion;
+        } finally {
+            if (isLocked) {
+                DATA_LOCK.unlock();
+            }
+        }
+        writeData(data, version, savingMembersVersion, savingTransactionsVersion);
+
+        isLocked = lockData(isShutdown);
+        try {
+            if (this.dataVersion == this.savedVersion) {
+                PENDING_HANDLERS.remove(this);
+            }
+        } finally {
+            if (isLocked) {
+                DATA_LOCK.unlock();
+            }
+        }
+    }
+
+    /**
+     * Acquires the data lock, giving up after a timeout at shutdown.
+     *
+     * @param isShutdown If the application is shutting down
+     * @return If the lock was acquired
+     */
+    private static boolean lockData(boolean isShutdown) {
+        if (!isShutdown) {
+            DATA_LOCK.lock();
+            return true;
+        }
+        try {
+            return DATA_LOCK.tryLock(SHUTDOWN_LOCK_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Writes data captured for a write-behind save, unless newer data has already been written.
+     *
+     * @param data The content of each changed data file
+     * @param version The version of the data
+     * @param savingMembersVersion The version of the members data captured
+     * @param savingTransactionsVersion The version of the transactions data captured
+     * @throws LongAhException If the data files are not written
+     */
+    private synchronized void writeData(Map<File, byte[]> data, long version, long savingMembersVersion,
+            long savingTransactionsVersion) throws LongAhException {
+        if (this.isDeleted || version <= this.savedVersion) {
+            return;
+        }
+        if (!data.isEmpty()) {
+            writeFiles(data);
+        }
+        this.savedVersion = version;
+        this.savedMembersVersion = savingMembersVersion;
+        this.savedTransactionsVersion = savingTransactionsVersion;
+    }
+
+    /**
+     * Returns if the data has changes which are waiting for a write-behind save.
+     *
+     * @return If the data has unsaved changes
+     */
+    public boolean hasUnsavedChanges() {
+        DATA_LOCK.lock();
+        try {
+            return this.dataVersion != this.savedVersion;
+        } finally {
+            DATA_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Writes any unsaved changes and waits for a running checkpoint, so that the data files are
+     * complete before the data of the group is released from memory.
+     *
+     * @throws LongAhException If the data files are not written
+     */
+    public void close() throws LongAhException {
+        flush();
+        waitForCheckpoint();
+        closeJournal();
+    }
+
+    /**
+     * Writes the changes of all groups which are waiting for a write-behind save.
+     *
+     * @throws LongAhException If the data files of a group are not written
+     */
+    public static void flushAll() throws LongAhException {
+        for (StorageHandler handler : new ArrayList<>(PENDING_HANDLERS)) {
+            handler.flush();
+        }
+    }
+
+    private static void flushAllOnShutdown() {
+        for (StorageHandler handler : new ArrayList<>(PENDING_HANDLERS)) {
+            try {
+                handler.flush(true);
+            } catch (LongAhException e) {
+                Logging.logWarning("Data of group " + handler.groupName + " not saved at exit.");
+            }
+        }
+    }
+
+    /**
+     * Returns the current data of the data files with changes since they were last saved,
+     * counting the data files skipped as unchanged.
+     *
+     * @return The content of each changed data file
+     */
+    private Map<File, byte[]> captureChangedData() {
+        Map<File, byte[]> data = new LinkedHashMap<>();
+        boolean isMembersChanged = this.membersVersion != this.savedMembersVersion;
+        boolean isTransactionsChanged = this.transactionsVersion != this.savedTransactionsVersion;
+        if (isBinaryFormat) {
+            if (isMembersChanged || isTransactionsChanged) {
+                data.put(this.binaryFile, BinaryStorageFormat.encode(this.members, this.transactions));
+            } else {
+                SKIPPED_WRITES.incrementAndGet();
+            }
+            return data;
+        }
+        if (isMembersChanged) {
+            data.put(this.membersFile, getMembersStorageString(this.members).getBytes());
+        } else {
+            SKIPPED_WRITES.incrementAndGet();
+        }
+        if (isTransactionsChanged) {
+            data.put(this.transactionsFile, getTransactionsStorageString(this.transactions.getStore()).getBytes());
+        } else {
+            SKIPPED_WRITES.incrementAndGet();
+        }
+        return data;
+    }
+
+    /**
+     * Returns data in the selected format.
+     *
+     * @param members The members to save
+     * @param store The transactions to save
+     * @param isTemporary If the data is for the temporary files of a checkpoint
+     * @return The content of each data file
+     */
+    private Map<File, byte[]> encodeData(MemberList members, TransactionStore store, boolean isTemporary) {
+        Map<File, byte[]> data = new LinkedHashMap<>();
+        if (isBinaryFormat) {
+            data.put(isTemporary ? this.binaryTempFile : this.binaryFile, BinaryStorageFormat.encode(members, store));
+        } else {
+            data.put(isTemporary ? this.membersTempFile : this.membersFile,
+                    getMembersStorageString(members).getBytes());
+            data.put(isTemporary ? this.transactionsTempFile : this.transactionsFile,
+                    getTransactionsStorageString(store).getBytes());
+        }
+        return data;
+    }
+
+    /**
+     * Returns a copy of the members, which later changes to the members do not affect.
+     *
+     * @return The copy of the members
+     * @throws LongAhException If a member cannot be copied
+     */
+    private MemberList copyMembers() throws LongAhException {
+        MemberList copy = new MemberList();
+        for (Member member : this.members.getMembers()) {
+            copy.addMemberCents(member.getId(), member.getName(), member.getBalanceCents());
+        }
+        return copy;
+    }
+
+    /**
+     * Appends a record to the journal file.
+     *
+     * @param record The record to append
+     * @throws LongAhException If the journal file is not written
+     */
+    private void appendJournal(String record) throws LongAhException {
+        byte[] bytes = (record + "\n").getBytes();
+        try {
+            if (this.journalChannel == null) {
+                boolean isNewJournal = !this.journalFile.exists();
+                this.journalChannel = FileChannel.open(this.journalFile.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                if (isNewJournal) {
+                    DurableFileWriter.syncDirectory(new File(this.storageFolderPath).toPath());
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                this.journalChannel.write(buffer);
+            }
+            // The change is durable once its record is forced to the storage device
+            this.journalChannel.force(false);
+        } catch (IOException e) {
+            closeJournal();
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_WRITTEN);
+        }
+        this.journalRecordCount++;
+        this.journalByteCount += bytes.length;
+        if (isCheckpointDue()) {
+            startCheckpoint();
+        }
+    }
+
+    /**
+     * Closes the journal file if it is open.
+     */
+    private void closeJournal() {
+        if (this.journalChannel == null) {
+            return;
+        }
+        try {
+            this.journalChannel.close();
+        } catch (IOException e) {
+            Logging.logWarning("Journal of group " + this.groupName + " not closed.");
+        }
+        this.journalChannel = null;
+    }
+
+    /**
+     * Returns if the journal is large enough for a checkpoint and no checkpoint is running.
+     *
+     * @return If a checkpoint should be started
+     */
+    private boolean isCheckpointDue() {
+        if (!isJournalMode || (this.checkpointTask != null && !this.checkpointTask.isDone())) {
+            return false;
+        }
+        return this.journalRecordCount >= checkpointRecordLimit || this.journalByteCount >= checkpointByteLimit;
+    }
+
+    /**
+     * Starts a checkpoint which writes the current data into the data files in the background.
+     * The data is copied and the journal is rotated before returning, so that later records are
+     * appended to a new journal, while the copy is encoded and written in the background. If an
+     * earlier checkpoint failed, its journal is kept and the journal is folded into it instead,
+     * so that this checkpoint includes the changes of both.
+     *
+     * @throws LongAhException If the data cannot be copied
+     */
+    private void startCheckpoint() throws LongAhException {
+        MemberList membersCopy = copyMembers();
+        TransactionStore transactionsCopy = ColumnarTransactionStore.copyOf(this.transactions.getStore());
+        closeJournal();
+        try {
+            if (this.checkpointMarkerFile.exists()) {
+                // An earlier checkpoint was committed but its files were not moved
+                completeCheckpoint();
+            }
+            if (this.oldJournalFile.exists()) {
+                foldJournals();
+                Logging.logInfo("Checkpoint of group " + this.groupName + " retried after an earlier failure.");
+            } else if (this.journalFile.exists()) {
+                Files.move(this.journalFile.toPath(), this.oldJournalFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            Logging.logWarning("Journal of group " + this.groupName + " could not be rotated.");
+            return;
+        }
+        this.journalRecordCount = 0;
+        this.journalByteCount = 0;
+        this.checkpointTask = CHECKPOINT_EXECUTOR.submit(() -> {
+            try {
+                writeCheckpoint(encodeData(membersCopy, transactionsCopy, true));
+                Logging.logInfo("Checkpoint of group " + this.groupName + " written.");
+            } catch (IOException e) {
+                // The journal is kept in journal.old and included in the next checkpoint
+                Logging.logWarning("Checkpoint of group " + this.groupName + " failed.");
+            }
+        });
+    }
+
+    /**
+     * Appends the records of the journal to the journal of an earlier checkpoint which failed, and
+     * empties the journal. Both files are replaced as one set, so that a crash leaves either both
+     * journals or the folded one, and no record is replayed twice.
+     *
+     * @throws IOException If a journal is not read or written
+     */
+    private void foldJournals() throws IOException {
+        byte[] oldRecords = Files.readAllBytes(this.oldJournalFile.toPath());
+        byte[] records = this.journalFile.exists() ? Files.readAllBytes(this.journalFile.toPath()) : new byte[0];
+        byte[] folded = Arrays.copyOf(oldRecords, oldRecords.length + records.length);
+        System.arraycopy(records, 0, folded, oldRecords.length, records.length);
+        Map<File, byte[]> files = new LinkedHashMap<>();
+        files.put(this.oldJournalFile, folded);
+        files.put(this.journalFile, new byte[0]);
+        DurableFileWriter.write(files);
+    }
+
+    /**
+     * Writes a checkpoint and switches the data files to it.
+     *
+     * @param snapshot The content of each temporary file of the checkpoint
+     * @throws IOException If a file is not written
+     */
+    private void writeCheckpoint(Map<File, byte[]> snapshot) throws IOException {
+        for (Map.Entry<File, byte[]> entry : snapshot.entrySet()) {
+            writeSynced(entry.getKey(), entry.getValue());
+        }
+        // The checkpoint is committed once the marker exists
+        writeSynced(this.checkpointMarkerFile, new byte[0]);
+        completeCheckpoint();
+    }
+
+    /**
+     * Replaces the data files with the temporary files of a committed checkpoint, then removes
+     * the journal included in the checkpoint and the marker.
+     *
+     * @throws IOException If a file is not moved or deleted
+     */
+    private void completeCheckpoint() throws IOException {
+        if (this.membersTempFile.exists()) {
+            Files.move(this.membersTempFile.toPath(), this.membersFile.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        if (this.transactionsTempFile.exists()) {
+            Files.move(this.transactionsTempFile.toPath(), this.transactionsFile.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        if (this.binaryTempFile.exists()) {
+            Files.move(this.binaryTempFile.toPath(), this.binaryFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.deleteIfExists(this.oldJournalFile.toPath());
+        Files.deleteIfExists(this.checkpointMarkerFile.toPath());
+    }
+
+    /**
+     * Completes a committed checkpoint or save, or discards an uncommitted one which was interrupted.
+     *
+     * @throws LongAhException If the files of the checkpoint are not moved or deleted
+     */
+    private void recoverCheckpoint() throws LongAhException {
+        try {
+            if (this.checkpointMarkerFile.exists()) {
+                completeCheckpoint();
+                Logging.logInfo("Interrupted checkpoint of group " + this.groupName + " completed.");
+            } else {
+                Files.deleteIfExists(this.membersTempFile.toPath());
+                Files.deleteIfExists(this.transactionsTempFile.toPath());
+                Files.deleteIfExists(this.binaryTempFile.toPath());
+            }
+            // Saves of several data files interrupted while renaming are completed if committed,
+            // and temporary files of other interrupted saves are removed
+            DurableFileWriter.recover(new File(this.storageFolderPath).toPath());
+            for (File file : new File[] {this.membersFile, this.transactionsFile, this.binaryFile}) {
+                Files.deleteIfExists(new File(file.getPath() + DurableFileWriter.TEMP_SUFFIX).toPath());
+            }
+        } catch (IOException e) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_WRITTEN);
+        }
+    }
+
+    /**
+     * Waits for the running checkpoint, if any, to finish.
+     */
+    public void waitForCheckpoint() {
+        if (this.checkpointTask == null) {
+            return;
+        }
+        try {
+            this.checkpointTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Logging.logWarning("Checkpoint of group " + this.groupName + " failed.");
+        }
+    }
+
+    /**
+     * Writes a file and forces its content to the storage device.
+     *
+     * @param file The file to write
+     * @param data The content of the file
+     * @throws IOException If the file is not written
+     */
+    private static void writeSynced(File file, byte[] data) throws IOException {
+        FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(data);
+            fos.getFD().sync();
+        } finally {
+            fos.close();
+        }
+    }
+
+    /**
+     * Deletes a file if it exists.
+     *
+     * @param file The file to delete
+     * @throws LongAhException If the file is not deleted
+     */
+    private static void deleteFile(File file) throws LongAhException {
+        if (file.exists() && !file.delete()) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_WRITTEN);
+        }
+    }
+
+    /**
+     * Replays the records of the journal files on the data loaded from the data files, and
+     * recomputes the balances of the members if any record is replayed. The journal of an
+     * uncommitted checkpoint is replayed before the current journal.
+     *
+     * @return The number of records replayed
+     * @throws LongAhException If a journal file is not read or a record is invalid
+     */
+    public int replayJournal() throws LongAhException {
+        int replayedCount = replayJournal(this.oldJournalFile) + replayJournal(this.journalFile);
+        if (replayedCount > 0) {
+            this.members.updateMembersBalance(this.transactions);
+        }
+        this.journalRecordCount = replayedCount;
+        this.journalByteCount = this.oldJournalFile.length() + this.journalFile.length();
+        return replayedCount;
+    }
+
+    /**
+     * Replays the records of a journal file on the MemberList and TransactionList objects.
+     * An incomplete last record, as left by an interrupted append, is ignored.
+     *
+     * @param file The journal file
+     * @return The number of records replayed
+     * @throws LongAhException If the journal file is not read or a record is invalid
+     */
+    private int replayJournal(File file) throws LongAhException {
+        if (!file.exists()) {
+            return 0;
+        }
+        ArrayList<String> records = new ArrayList<>();
+        try {
+            Scanner sc = new Scanner(file);
+            while (sc.hasNextLine()) {
+                String record = sc.nextLine();
+                if (!record.equals("")) {
+                    records.add(record);
+                }
+            }
+            sc.close();
+        } catch (FileNotFoundException e) {
+            throw new LongAhException(ExceptionMessage.STORAGE_FILE_NOT_READ);
+        }
+
+        int replayedCount = 0;
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                replayRecord(records.get(i));
+                replayedCount++;
+            } catch (LongAhException e) {
+                if (i < records.size() - 1) {
+                    throw e;
+                }
+                Logging.logWarning("Incomplete journal record ignored.");
+            }
+        }
+        return replayedCount;
+    }
+
+    /**
+     * Applies a journal record to the MemberList and TransactionList objects.
+     *
+     * @param record The journal record
+     * @throws LongAhException If the record is invalid
+     */
+    private void replayRecord(String record) throws LongAhException {
+        String[] recordData = record.split(SEPARATOR, 3);
+        TransactionStore store = this.transactions.getStore();
+        try {
+            switch (recordData[0]) {
+            case JOURNAL_ADD_MEMBER:
+                this.members.addMemberCents(Integer.parseInt(recordData[1]), recordData[2], 0);
+                break;
+            case JOURNAL_RENAME_MEMBER:
+                Member renamedMember = this.members.getMemberById(Integer.parseInt(recordData[1]));
+                this.members.editMemberName(renamedMember.getName(), recordData[2]);
+                break;
+            case JOURNAL_DELETE_MEMBER:
+                Member deletedMember = this.members.getMemberById(Integer.parseInt(recordData[1]));
+                store.deleteMember(deletedMember);
+                this.members.removeMember(deletedMember);
+                break;
+            case JOURNAL_ADD_TRANSACTION:
+                store.add(parseTransaction(record.split(SEPARATOR, 2)[1]));
+                break;
+            case JOURNAL_EDIT_TRANSACTION:
+                store.set(Integer.parseInt(recordData[1]), parseTransaction(recordData[2]));
+                break;
+            case JOURNAL_DELETE_TRANSACTION:
+                store.remove(Integer.parseInt(recordData[1]));
+                break;
+            case JOURNAL_CLEAR_TRANSACTIONS:
+                store.clear();
+                break;
+            default:
+                throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new LongAhException(ExceptionMessage.INVALID_STORAGE_CONTENT);
+        }
+    }
+
+    /**
+     * Deletes all data files of the group and its directory.
+     *
+     * @throws LongAhException If a file or the directory is not deleted
+     */
+    public void deleteAllData() throws LongAhException {
+        waitForCheckpoint();
+        synchronized (this) {
+            this.isDeleted = true;
+        }
+        PENDING_HANDLERS.remove(this);
+        closeJournal();
+        File[] dataFiles = {this.membersFile, this.transactionsFile, this.binaryFile, this.journalFile,
+            this.oldJournalFile};
+        try {
+            for (File file : dataFiles) {
+                Files.deleteIfExists(file.toPath());
+            }
+            Files.deleteIfExists(new File(this.storageFolderPath).toPath());
+        } catch (IOException e) {
+            throw new LongAhException(ExceptionMessage.IO_EXCEPTION);
+        }
     }
 
     /**
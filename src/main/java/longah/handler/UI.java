@@ -1,12 +1,21 @@
 package longah.handler;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Scanner;
 
+import longah.exception.ExceptionMessage;
+import longah.exception.LongAhException;
+import longah.util.Listing;
+
 /**
  * The UI class handles user interaction by displaying messages and reading user input.
  */
 public class UI {
     private static final String SEPARATOR = "____________________________________________________________";
+    private static final int LISTING_BUFFER_SIZE = 1 << 16;
     private static Scanner scanner = new Scanner(System.in);
 
     // @@author haowern98
@@ -78,6 +87,38 @@ public class UI {
         }
     }
 
+    /**
+     * Displays a listing by streaming its rows to the standard output through a buffer,
+     * without building the whole printout as a String.
+     *
+     * @param listing The listing to display.
+     * @throws LongAhException If the listing cannot be written.
+     */
+    public static void showListing(Listing listing) throws LongAhException {
+        showListing(listing, 0, listing.getRowCount());
+    }
+
+    /**
+     * Displays the heading of a listing and its rows in a range, streaming them to the standard
+     * output through a buffer. Rows outside the range are not formatted.
+     *
+     * @param listing The listing to display.
+     * @param fromRow The position of the first row to display, inclusive.
+     * @param toRow The position of the last row to display, exclusive.
+     * @throws LongAhException If the listing cannot be written.
+     */
+    public static void showListing(Listing listing, int fromRow, int toRow) throws LongAhException {
+        // The writer is not closed, as closing it would close the standard output
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out), LISTING_BUFFER_SIZE);
+        try {
+            listing.render(writer, fromRow, toRow);
+            writer.write(System.lineSeparator());
+            writer.flush();
+        } catch (IOException e) {
+            throw new LongAhException(ExceptionMessage.IO_EXCEPTION);
+        }
+    }
+
     /**
      * Checks if there is another line of input.
      * Used for text ui testing.
@@ -1,10 +1,23 @@
 package longah.node;
 
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
 
+import longah.util.Listing;
 import longah.util.MemberList;
+import longah.util.Money;
+import longah.util.PairwiseLedger;
+import longah.util.SettlementMode;
 import longah.util.Subtransaction;
 import longah.util.TransactionList;
+import longah.util.TransactionStore;
 import longah.handler.Logging;
 import longah.handler.NameHandler;
 import longah.handler.StorageHandler;
@@ -13,11 +26,34 @@ import longah.exception.LongAhException;
 import longah.exception.ExceptionMessage;
 
 public class Group {
+    // Approximate heap sizes in bytes used to estimate the memory used by a group
+    private static final long GROUP_BASE_SIZE = 1024;
+    private static final long MEMBER_SIZE = 96;
+    private static final long TRANSACTION_SIZE = 64;
+    private static final long SUBTRANSACTION_SIZE = 48;
+    private static final ExecutorService VERIFICATION_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "LongAh-verification");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static boolean isLedgerVerified = false;
+    private static boolean isFastStart = false;
+
     private MemberList members;
     private TransactionList transactions;
     private StorageHandler storage;
     private String groupName;
+    private SettlementMode settlementMode = MemberList.getSettlementMode();
     private ArrayList<Subtransaction> transactionSolution = new ArrayList<>();
+    private PairwiseLedger pairwiseLedger = new PairwiseLedger();
+    // The pairwise ledger is only rebuilt when first read if the group was loaded with fast start
+    private boolean isPairwiseLedgerBuilt = false;
+    private Future<?> balanceVerification;
+    // Set once the group is released or deleted, so that a pending verification does not save stale data
+    private volatile boolean isClosed = false;
+    // The solution is only computed when read after the balances of the group have changed
+    private boolean isSolutionStale = true;
+    private long ledgerVersion = 0;
 
     /**
      * Constructs a new Group instance with an empty member list and transaction list.
@@ -31,7 +67,76 @@ public class Group {
         this.members = new MemberList();
         this.transactions = new TransactionList();
         this.storage = new StorageHandler(this.members, this.transactions, this.groupName);
-        updateTransactionSolution();
+        if (isFastStart) {
+            markLedgerChanged();
+            this.balanceVerification = VERIFICATION_EXECUTOR.submit(this::verifyStoredBalances);
+        } else {
+            updateTransactionSolution();
+        }
+    }
+
+    /**
+     * Enables or disables fast start, where groups are loaded with the balances in storage instead
+     * of replaying all transactions, and the balances are verified against a full replay in the background.
+     *
+     * @param isEnabled Whether groups should be loaded with the balances in storage
+     */
+    public static void setFastStart(boolean isEnabled) {
+        isFastStart = isEnabled;
+    }
+
+    public static boolean isFastStart() {
+        return isFastStart;
+    }
+
+    /**
+     * Verifies the balances loaded from storage against a full replay of the transactions, and
+     * rebuilds and saves the balances on a mismatch. The data lock is held so that no command
+     * changes the group during the verification. Nothing is done if the group was closed or deleted
+     * before the verification ran, as its storage may since belong to a reloaded copy of the group.
+     */
+    private void verifyStoredBalances() {
+        Lock dataLock = StorageHandler.getDataLock();
+        dataLock.lock();
+        try {
+            if (this.isClosed) {
+                Logging.logInfo("Verification of group " + this.groupName + " skipped as the group is closed.");
+                return;
+            }
+            if (this.members.verifyMembersBalance(this.transactions)) {
+                getPairwiseLedger();
+                Logging.logInfo("Stored balances of group " + this.groupName + " verified.");
+                return;
+            }
+            Logging.logWarning("Stored balances of group " + this.groupName
+                    + " do not match a full replay. Rebuilding balances.");
+            updateTransactionSolution();
+            saveAllData();
+        } catch (LongAhException e) {
+            Logging.logWarning("Balances of group " + this.groupName + " could not be repaired.");
+        } finally {
+            dataLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the background verification of the balances loaded with fast start to finish.
+     * This must not be called while holding the data lock, which the verification acquires.
+     */
+    public void awaitBalanceVerification() {
+        if (this.balanceVerification == null) {
+            return;
+        }
+        try {
+            this.balanceVerification.get();
+        } catch (CancellationException e) {
+            // The group was closed before the verification started
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Logging.logWarning("Balance verification of group " + this.groupName + " failed.");
+        }
     }
 
     /**
@@ -89,14 +194,178 @@ public class Group {
     }
 
     /**
-     * Update the transaction solution of the group based on the debts and credits of the members.
+     * Update the balances of the members based on all transactions of the group.
+     * The transaction solution is marked stale and recomputed when next read.
      *
-     * @throws LongAhException If the transaction solution cannot be updated
+     * @throws LongAhException If the balances cannot be updated
      */
     public void updateTransactionSolution() throws LongAhException {
         this.members.updateMembersBalance(this.transactions);
-        this.transactionSolution = this.members.solveTransactions();
-        Logging.logInfo("Transaction solution updated.");
+        this.pairwiseLedger.rebuild(this.transactions);
+        this.isPairwiseLedgerBuilt = true;
+        markLedgerChanged();
+    }
+
+    /**
+     * Marks the transaction solution as stale and advances the ledger version.
+     */
+    private void markLedgerChanged() {
+        this.ledgerVersion++;
+        this.isSolutionStale = true;
+    }
+
+    /**
+     * Returns the pairwise ledger of the group, rebuilding it from all transactions if it has not
+     * been built since the group was loaded.
+     *
+     * @return The pairwise ledger of the group
+     */
+    private PairwiseLedger getPairwiseLedger() {
+        if (!this.isPairwiseLedgerBuilt) {
+            this.pairwiseLedger.rebuild(this.transactions);
+            this.isPairwiseLedgerBuilt = true;
+        }
+        return this.pairwiseLedger;
+    }
+
+    /**
+     * Returns the version of the ledger of the group. The version changes whenever the balances or the
+     * settlement mode of the group change, so a solution cached at one version is still current while the version is unchanged.
+     *
+     * @return The version of the ledger of the group
+     */
+    public long getLedgerVersion() {
+        return this.ledgerVersion;
+    }
+
+    /**
+     * Returns the transaction solution of the group, solving the balances first if the solution is stale.
+     *
+     * @return The list of subtransactions needed to solve the debts of the group
+     * @throws LongAhException If the transaction solution cannot be computed
+     */
+    public ArrayList<Subtransaction> getTransactionSolution() throws LongAhException {
+        if (this.isSolutionStale) {
+            this.transactionSolution = this.members.solveTransactions(this.settlementMode);
+            this.isSolutionStale = false;
+            Logging.logInfo("Transaction solution updated for ledger version " + this.ledgerVersion + ".");
+        }
+        return this.transactionSolution;
+    }
+
+    /**
+     * Sets the strategy used to solve the debts of the group.
+     * The ledger version is advanced, so the transaction solution is recomputed when next read.
+     *
+     * @param settlementMode The settlement strategy to use
+     */
+    public void setSettlementMode(SettlementMode settlementMode) {
+        this.settlementMode = settlementMode;
+        markLedgerChanged();
+    }
+
+    /**
+     * Returns the strategy used to solve the debts of the group.
+     *
+     * @return The settlement strategy of the group
+     */
+    public SettlementMode getSettlementMode() {
+        return this.settlementMode;
+    }
+
+    /**
+     * Enables or disables the verification of incremental balance updates against a full replay.
+     *
+     * @param isEnabled Whether incremental balance updates should be verified
+     */
+    public static void setLedgerVerification(boolean isEnabled) {
+        isLedgerVerified = isEnabled;
+    }
+
+    /**
+     * Returns whether incremental balance updates are verified against a full replay.
+     *
+     * @return Whether incremental balance updates are verified
+     */
+    public static boolean isLedgerVerified() {
+        return isLedgerVerified;
+    }
+
+    /**
+     * Applies the balance effect of a newly added transaction and updates the transaction solution.
+     *
+     * @param transaction The transaction added to the group
+     * @throws LongAhException If the transaction causes a balance overflow
+     */
+    public void applyTransaction(Transaction transaction) throws LongAhException {
+        this.members.applyTransactionBalance(transaction);
+        this.pairwiseLedger.applyTransaction(transaction);
+        updateIncrementalSolution();
+    }
+
+    /**
+     * Reverts the balance effect of a removed transaction and updates the transaction solution.
+     *
+     * @param transaction The transaction removed from the group
+     * @throws LongAhException If the transaction solution cannot be updated
+     */
+    public void revertTransaction(Transaction transaction) throws LongAhException {
+        this.members.revertTransactionBalance(transaction);
+        this.pairwiseLedger.revertTransaction(transaction);
+        updateIncrementalSolution();
+    }
+
+    /**
+     * Replaces the balance effect of an edited transaction and updates the transaction solution.
+     * The balance effect of the old transaction is restored if the new transaction cannot be applied.
+     *
+     * @param oldTransaction The transaction before the edit
+     * @param newTransaction The transaction after the edit
+     * @throws LongAhException If the new transaction causes a balance overflow
+     */
+    public void replaceTransaction(Transaction oldTransaction, Transaction newTransaction)
+            throws LongAhException {
+        this.members.revertTransactionBalance(oldTransaction);
+        try {
+            this.members.applyTransactionBalance(newTransaction);
+        } catch (LongAhException e) {
+            this.members.applyTransactionBalance(oldTransaction);
+            throw e;
+        }
+        this.pairwiseLedger.revertTransaction(oldTransaction);
+        this.pairwiseLedger.applyTransaction(newTransaction);
+        updateIncrementalSolution();
+    }
+
+    /**
+     * Reverts the balance effect of subtransactions removed from the group and updates the transaction solution.
+     *
+     * @param subtransactions The subtransactions removed from the group
+     * @throws LongAhException If the transaction solution cannot be updated
+     */
+    public void revertSubtransactions(ArrayList<Subtransaction> subtransactions) throws LongAhException {
+        for (Subtransaction subtransaction : subtransactions) {
+            this.members.revertSubtransactionBalance(subtransaction);
+            this.pairwiseLedger.revertSubtransaction(subtransaction);
+        }
+        updateIncrementalSolution();
+    }
+
+    /**
+     * Marks the transaction solution as stale after an incremental balance update.
+     * If ledger verification is enabled, the balances are first checked against a full replay
+     * and rebuilt from the replay on a mismatch.
+     *
+     * @throws LongAhException If the balances cannot be rebuilt
+     */
+    private void updateIncrementalSolution() throws LongAhException {
+        if (isLedgerVerified && !this.members.verifyMembersBalance(this.transactions)) {
+            Logging.logWarning("Incremental balances of group " + this.groupName
+                    + " do not match a full replay. Rebuilding balances.");
+            updateTransactionSolution();
+            return;
+        }
+        markLedgerChanged();
     }
 
     /**
@@ -106,24 +375,23 @@ public class Group {
      */
     public void settleUp(String borrowerName) throws LongAhException {
         Member borrower = this.members.getMember(borrowerName);
-        if (borrower.getBalance() == 0) {
+        if (borrower.getBalanceCents() == 0) {
             throw new LongAhException(ExceptionMessage.NO_DEBTS_FOUND);
         }
 
         String transactionExpression = borrowerName;
-        for (Subtransaction subtransaction : this.transactionSolution) {
+        for (Subtransaction subtransaction : getTransactionSolution()) {
             Member subBorrower = subtransaction.getBorrower();
             if (borrower == subBorrower) {
                 Member lender = subtransaction.getLender();
-                double amountRepaid = subtransaction.getAmount();
+                String amountRepaid = Money.toShortString(subtransaction.getAmountCents());
                 transactionExpression += " p/" + lender.getName() + " a/" + amountRepaid;
                 UI.showMessage(borrowerName + " has repaid " + lender.getName() + " $" + amountRepaid);
             }
         }
         UI.printEmptyLine();
-        this.transactions.addTransaction(transactionExpression, this.members);
-        updateTransactionSolution();
-        assert this.members.getMember(borrowerName).getBalance() == 0 : "Borrower should have no more debts.";
+        this.transactions.addTransaction(transactionExpression, this.members, this);
+        assert this.members.getMemberBalanceCents(borrowerName) == 0 : "Borrower should have no more debts.";
         UI.showMessage(borrowerName + " has no more debts!");
     }
 
@@ -154,6 +422,151 @@ public class Group {
         this.storage.saveAllData();
     }
 
+    /**
+     * Writes any changes of the group which are waiting to be saved in the background.
+     *
+     * @throws LongAhException If the data files are not written
+     */
+    public void flushData() throws LongAhException {
+        this.storage.flush();
+    }
+
+    /**
+     * Returns if invalid transactions were skipped when the data of the group was loaded.
+     *
+     * @return If any transaction was skipped
+     */
+    public boolean hasSkippedTransactions() {
+        return this.storage.hasSkippedSubtransactions();
+    }
+
+    /**
+     * Returns if the group has changes which are not yet written to storage.
+     *
+     * @return If the group has unsaved changes
+     */
+    public boolean hasUnsavedChanges() {
+        return this.storage.hasUnsavedChanges();
+    }
+
+    /**
+     * Writes any unsaved changes of the group to storage before the group is released from memory.
+     * A pending verification of the balances is cancelled, or skipped if it has already started, without
+     * waiting for it, as the group may be closed while the data lock is held.
+     *
+     * @throws LongAhException If the data files are not written
+     */
+    public void closeStorage() throws LongAhException {
+        cancelBalanceVerification();
+        this.storage.close();
+    }
+
+    /**
+     * Returns a rough estimate of the heap memory used by the members and transactions of the group.
+     *
+     * @return The estimated size in bytes
+     */
+    public long getEstimatedSize() {
+        long size = GROUP_BASE_SIZE;
+        for (Member member : this.members.getMembers()) {
+            size += MEMBER_SIZE + 2L * member.getName().length();
+        }
+        TransactionStore store = this.transactions.getStore();
+        for (int i = 0; i < store.size(); i++) {
+            size += TRANSACTION_SIZE + SUBTRANSACTION_SIZE * store.getSubtransactionCount(i);
+        }
+        return size;
+    }
+
+    /**
+     * Deletes all data of the group from storage.
+     *
+     * @throws LongAhException If the data files are not deleted
+     */
+    public void deleteAllData() throws LongAhException {
+        cancelBalanceVerification();
+        this.storage.deleteAllData();
+    }
+
+    /**
+     * Marks the group as closed and cancels the verification of its balances if it has not started.
+     */
+    private void cancelBalanceVerification() {
+        this.isClosed = true;
+        if (this.balanceVerification != null) {
+            this.balanceVerification.cancel(false);
+        }
+    }
+
+    /**
+     * Saves a member added to the group into storage.
+     *
+     * @param member The member added
+     * @throws LongAhException If the data file is not written
+     */
+    public void saveAddedMember(Member member) throws LongAhException {
+        this.storage.saveAddedMember(member);
+    }
+
+    /**
+     * Saves the new name of a member of the group into storage.
+     *
+     * @param member The member renamed
+     * @throws LongAhException If the data file is not written
+     */
+    public void saveRenamedMember(Member member) throws LongAhException {
+        this.storage.saveRenamedMember(member);
+    }
+
+    /**
+     * Saves the deletion of a member from the group into storage.
+     *
+     * @param member The member deleted
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveDeletedMember(Member member) throws LongAhException {
+        this.storage.saveDeletedMember(member);
+    }
+
+    /**
+     * Saves the transaction last added to the group into storage.
+     *
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveAddedTransaction() throws LongAhException {
+        TransactionStore store = this.transactions.getStore();
+        this.storage.saveAddedTransaction(store.get(store.size() - 1));
+    }
+
+    /**
+     * Saves an edited transaction of the group into storage.
+     *
+     * @param index The 0-based index of the transaction
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveEditedTransaction(int index) throws LongAhException {
+        this.storage.saveEditedTransaction(index, this.transactions.getStore().get(index));
+    }
+
+    /**
+     * Saves the deletion of a transaction from the group into storage.
+     *
+     * @param index The 0-based index of the transaction
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveDeletedTransaction(int index) throws LongAhException {
+        this.storage.saveDeletedTransaction(index);
+    }
+
+    /**
+     * Saves the clearing of all transactions of the group into storage.
+     *
+     * @throws LongAhException If the data files are not written
+     */
+    public void saveClearedTransactions() throws LongAhException {
+        this.storage.saveClearedTransactions();
+    }
+
     /**
      * Returns a string representation of the solution to all debts in the group.
      *
@@ -161,15 +574,22 @@ public class Group {
      * @throws LongAhException If there are no debts to be solved
      */
     public String listDebts() throws LongAhException {
-        if (this.transactionSolution.isEmpty()) {
-            throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
-        }
+        return getDebtListing().toString();
+    }
 
-        String solution = "Best Way to Solve Debts:\n";
-        for (Subtransaction subtransaction : this.transactionSolution) {
-            solution += subtransaction.toString() + "\n";
+    /**
+     * Returns a listing of the solution to all debts in the group.
+     *
+     * @return The listing of the solution to all debts in the group
+     * @throws LongAhException If there are no debts to be solved
+     */
+    public Listing getDebtListing() throws LongAhException {
+        ArrayList<Subtransaction> solution = getTransactionSolution();
+        if (solution.isEmpty()) {
+            throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
         }
-        return solution.trim();
+        return new Listing("Best Way to Solve Debts:", solution.size(),
+                (out, row) -> out.append(solution.get(row).toString()));
     }
 
     /**
@@ -179,17 +599,98 @@ public class Group {
      * @throws LongAhException If there are no members in the group
      */
     public String listIndivDebt(String name) throws LongAhException {
-        double balance = members.getMemberBalance(name);
+        return getIndivDebtListing(name).toString();
+    }
+
+    /**
+     * Returns a listing of the solution to the debt of the specified member in the group.
+     *
+     * @param name The name of the member
+     * @return The listing of the solution to the debt of the member
+     * @throws LongAhException If the member is not found or has no debt
+     */
+    public Listing getIndivDebtListing(String name) throws LongAhException {
+        long balance = members.getMemberBalanceCents(name);
         if (balance == 0) {
             throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
         }
 
-        String output = "";
-        for (Subtransaction subtransaction : this.transactionSolution) {
+        ArrayList<Subtransaction> involved = new ArrayList<>();
+        for (Subtransaction subtransaction : getTransactionSolution()) {
             if (subtransaction.isInvolved(name)) {
-                output += subtransaction.toString() + "\n";
+                involved.add(subtransaction);
             }
         }
-        return output.trim();
+        return new Listing(null, involved.size(), (out, row) -> out.append(involved.get(row).toString()));
+    }
+
+    /**
+     * Returns the net amount owed directly between two members before simplification.
+     *
+     * @param name The name of the first member
+     * @param otherName The name of the second member
+     * @return The direct debt between the two members
+     * @throws LongAhException If either member is not found or there is no direct debt between them
+     */
+    public String listPairDebt(String name, String otherName) throws LongAhException {
+        Member member = this.members.getMember(name);
+        Member other = this.members.getMember(otherName);
+        long netAmount = getPairwiseLedger().getNetCents(member, other);
+        if (netAmount == 0) {
+            throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
+        }
+        return formatPairDebt(member, other, netAmount);
+    }
+
+    /**
+     * Returns the net amounts owed directly between a member and each of the other members
+     * before simplification.
+     *
+     * @param name The name of the member
+     * @return The direct debts of the member
+     * @throws LongAhException If the member is not found or has no direct debts
+     */
+    public String listPairDebts(String name) throws LongAhException {
+        return getPairDebtListing(name).toString();
+    }
+
+    /**
+     * Returns a listing of the net amounts owed directly between a member and each of the other
+     * members before simplification, in order of member id.
+     *
+     * @param name The name of the member
+     * @return The listing of the direct debts of the member
+     * @throws LongAhException If the member is not found or has no direct debts
+     */
+    public Listing getPairDebtListing(String name) throws LongAhException {
+        Member member = this.members.getMember(name);
+        Map<Integer, Long> counterparts = getPairwiseLedger().getCounterparts(member);
+        if (counterparts.isEmpty()) {
+            throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
+        }
+
+        ArrayList<Member> others = new ArrayList<>();
+        ArrayList<Long> netAmounts = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : new TreeMap<>(counterparts).entrySet()) {
+            others.add(this.members.getMemberById(entry.getKey()));
+            netAmounts.add(entry.getValue());
+        }
+        return new Listing("Direct debts of " + name + " before simplification:", others.size(),
+                (out, row) -> out.append(formatPairDebt(member, others.get(row), netAmounts.get(row))));
+    }
+
+    /**
+     * Returns a string representation of a direct debt between two members.
+     *
+     * @param member The member who is owed a positive net amount
+     * @param other The member who owes a positive net amount
+     * @param netAmount The net amount in cents the other member owes the member
+     * @return The direct debt between the two members
+     */
+    private String formatPairDebt(Member member, Member other, long netAmount) {
+        if (netAmount > 0) {
+            return other.getName() + " owes " + member.getName() + " $" + Money.toString(netAmount);
+        }
+        return member.getName() + " owes " + other.getName() + " $" + Money.toString(-netAmount);
     }
 }
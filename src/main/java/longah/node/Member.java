@@ -2,14 +2,19 @@ package longah.node;
 
 import longah.exception.LongAhException;
 import longah.handler.NameHandler;
+import longah.util.Money;
 import longah.exception.ExceptionMessage;
 
 /**
  * Represents a member in the LongAh application.
  */
 public class Member {    
+    // Id of members which have not been added to a group
+    public static final int NO_ID = -1;
+
+    private int id = NO_ID;
     private String name;
-    private double balance;
+    private long balance; // In cents
 
     /**
      * Constructs a new Member instance with the given name and zero balance.
@@ -20,7 +25,7 @@ public class Member {
     public Member(String name) throws LongAhException {
         NameHandler.checkMemberNameValidity(name);
         this.name = name;
-        this.balance = 0.0;
+        this.balance = 0;
     }
 
     /**
@@ -34,7 +39,7 @@ public class Member {
     public Member(String name, double balance) throws LongAhException {
         NameHandler.checkMemberNameValidity(name);
         this.name = name;
-        this.balance = balance;
+        this.balance = Money.toCents(balance);
     }
 
     /**
@@ -57,10 +62,24 @@ public class Member {
         if (amount <= 0) {
             throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
         }
-        if (this.balance + amount == Double.POSITIVE_INFINITY) {
+        addToBalanceCents(Money.toCents(amount));
+    }
+
+    /**
+     * Adds the specified amount in cents to the member's balance.
+     *
+     * @param cents The amount in cents to add to the balance.
+     * @throws LongAhException If the amount is not positive or the balance overflows.
+     */
+    public synchronized void addToBalanceCents(long cents) throws LongAhException {
+        if (cents <= 0) {
+            throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
+        }
+        try {
+            this.balance = Math.addExact(this.balance, cents);
+        } catch (ArithmeticException e) {
             throw new LongAhException(ExceptionMessage.BALANCE_OVERFLOW);
         }
-        this.balance += amount;
     }
 
     /**
@@ -72,21 +91,54 @@ public class Member {
         if (amount <= 0) {
             throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
         }
-        if (this.balance - amount == Double.NEGATIVE_INFINITY) {
+        subtractFromBalanceCents(Money.toCents(amount));
+    }
+
+    /**
+     * Subtracts the specified amount in cents from the member's balance.
+     *
+     * @param cents The amount in cents to subtract from the balance.
+     * @throws LongAhException If the amount is not positive or the balance overflows.
+     */
+    public synchronized void subtractFromBalanceCents(long cents) throws LongAhException {
+        if (cents <= 0) {
+            throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
+        }
+        try {
+            this.balance = Math.subtractExact(this.balance, cents);
+        } catch (ArithmeticException e) {
             throw new LongAhException(ExceptionMessage.BALANCE_OVERFLOW);
         }
-        this.balance -= amount;
     }
 
     /**
      * Gets the current balance of the member.
      *
-     * @return The balance of the member.
+     * @return The balance of the member in dollars.
      */
     public double getBalance() {
+        return Money.toDollars(this.balance);
+    }
+
+    /**
+     * Gets the current balance of the member in cents.
+     *
+     * @return The balance of the member in cents.
+     */
+    public long getBalanceCents() {
         return this.balance;
     }
 
+    /**
+     * Sets the balance of the member in cents.
+     * Used for storage methods.
+     *
+     * @param cents The balance of the member in cents.
+     */
+    public void setBalanceCents(long cents) {
+        this.balance = cents;
+    }
+
     /**
      * Returns a string representation of the member, including name and balance.
      *
@@ -94,27 +146,40 @@ public class Member {
      */
     @Override
     public String toString() {
-        double rounded = (double)Math.round(this.balance * 100) / 100;
-        String roundedString = String.format("%.2f", rounded);
-
         if (this.balance >= 0) {
-            return this.name + ": $" + roundedString;
+            return this.name + ": $" + Money.toString(this.balance);
         }
-        // Remove the negative sign
-        roundedString = roundedString.substring(1);
-        return (this.name + ": -$" + roundedString).trim();
+        // Move the negative sign in front of the dollar sign
+        return this.name + ": -$" + Money.toString(-this.balance);
     }
 
     /**
      * Returns a string representation of the member for storage.
      * 
-     * @param delimiter The delimiter to separate the name and balance.
+     * @param delimiter The delimiter to separate the id, name and balance.
      * @return A string representation of the member for storage.
      */
     public String toStorageString(String delimiter) {
-        double rounded = (double)Math.round(this.balance * 100) / 100;
-        String roundedString = String.format("%.2f", rounded);
-        return this.name + delimiter + roundedString;
+        return this.id + delimiter + this.name + delimiter + Money.toString(this.balance);
+    }
+
+    /**
+     * Gets the id of the member within its group.
+     * The id stays the same when the member is renamed.
+     *
+     * @return The id of the member, or {@link #NO_ID} if it has not been added to a group.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Sets the id of the member within its group.
+     *
+     * @param id The id of the member.
+     */
+    public void setId(int id) {
+        this.id = id;
     }
 
     /**
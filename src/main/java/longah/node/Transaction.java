@@ -1,10 +1,12 @@
 package longah.node;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 
 import longah.util.DateTime;
 import longah.util.MemberList;
+import longah.util.Money;
 import longah.exception.LongAhException;
 import longah.exception.ExceptionMessage;
 import longah.util.Subtransaction;
@@ -61,6 +63,20 @@ public class Transaction {
         }
     }
 
+    /**
+     * Constructs a new Transaction instance from the contents of a transaction store.
+     * The contents are trusted as they were validated when the transaction was first created.
+     *
+     * @param lender The member who lent the money in the transaction.
+     * @param subtransactions The list of subtransactions in the transaction.
+     * @param transactionTime The time of the transaction, or null if it has no time.
+     */
+    public Transaction(Member lender, ArrayList<Subtransaction> subtransactions, DateTime transactionTime) {
+        this.lender = lender;
+        this.subtransactions = subtransactions;
+        this.transactionTime = transactionTime;
+    }
+
     /**
      * Parses the user input to create a transaction.
      *
@@ -139,7 +155,6 @@ public class Transaction {
         String borrowerName = splitBorrower[0].trim();
         // Exception is thrown if the borrower does not exist in the group
         Member borrower = memberList.getMember(borrowerName);
-        Double amountBorrowed;
 
         // Exception is thrown if the borrower is the same as the lender
         if (borrower.equals(lender)) {
@@ -147,20 +162,8 @@ public class Transaction {
         }
         assert !borrower.equals(lender) : "Lender cannot borrow from themselves.";
         
-        try {
-            amountBorrowed = Double.parseDouble(splitBorrower[1].trim());
-        } catch (NumberFormatException e) {
-            throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
-        }
-
-        // Exception is thrown if the amount borrowed has more than 2dp
-        try {
-            if (BigDecimal.valueOf(amountBorrowed).scale() > 2) {
-                throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
-            }
-        } catch (NumberFormatException e) {
-            throw new LongAhException(ExceptionMessage.BALANCE_OVERFLOW);
-        }
+        // Exception is thrown if the amount borrowed is not a number, has more than 2dp or overflows
+        long amountBorrowed = Money.parseCents(splitBorrower[1].trim());
 
         // Exception is thrown if the amount borrowed is not positive
         if (amountBorrowed <= 0) {
@@ -231,32 +234,46 @@ public class Transaction {
      */
     @Override
     public String toString() {
-        String lender = "Lender: " + this.lender.getName() + "\n";
-        String time = "";
+        StringBuilder output = new StringBuilder();
+        try {
+            appendTo(output);
+        } catch (IOException e) {
+            // Appending to a StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes the printout of the transaction to an output, without a trailing line break.
+     *
+     * @param out The output to write to
+     * @throws IOException If the output cannot be written to
+     */
+    public void appendTo(Appendable out) throws IOException {
+        out.append("Lender: ").append(this.lender.getName());
         if (this.haveTime()) {
             assert transactionTime != null : "Invalid printouts for transactions without a transaction time";
-            time = "Transaction time: " + this.transactionTime + "\n";
+            out.append("\nTransaction time: ").append(this.transactionTime.toString());
         }
-        String borrower = "";
         int borrowerNo = 1;
         for (Subtransaction subtransaction : subtransactions) {
-            Member member = subtransaction.getBorrower();
-            double amount = subtransaction.getAmount();
-            borrower += String.format("Borrower %d: %s Owed amount: $%,.2f\n",
-                    borrowerNo, member.getName(), amount);
+            out.append("\nBorrower ").append(Integer.toString(borrowerNo)).append(": ")
+                    .append(subtransaction.getBorrower().getName()).append(" Owed amount: $");
+            Money.append(out, subtransaction.getAmountCents(), true);
             borrowerNo++;
         }
-        return (lender + time + borrower).trim();
     }
 
     /**
      * Returns a string representation of the transaction for storage.
+     * Members are referred to by their ids so that renaming a member does not change the transaction.
      * 
      * @param delimiter The delimiter to separate the lender and borrowers.
      * @return a string representation of the transaction for storage
      */
     public String toStorageString(String delimiter) {
-        String lender = this.lender.getName();
+        String lender = String.valueOf(this.lender.getId());
         String borrower = "";
         String time = "";
         if (this.haveTime()) {
@@ -264,9 +281,9 @@ public class Transaction {
             time = delimiter + transactionTime.toStorageString();
         }
         for (Subtransaction subtransaction : this.subtransactions) {
-            String borrowerName = subtransaction.getBorrower().getName();
-            double amount = subtransaction.getAmount();
-            borrower += delimiter + borrowerName + delimiter + amount;
+            int borrowerId = subtransaction.getBorrower().getId();
+            long amount = subtransaction.getAmountCents();
+            borrower += delimiter + borrowerId + delimiter + Money.toShortString(amount);
         }
         return lender + time + borrower;
     }
@@ -306,7 +323,7 @@ public class Transaction {
         }
 
         // Delete subtransaction if member is borrower
-        for (int i = 0; i < subtransactions.size(); i++) {
+        for (int i = subtransactions.size() - 1; i >= 0; i--) {
             Subtransaction subtransaction = subtransactions.get(i);
             if (subtransaction.getBorrower().equals(member)) {
                 subtransactions.remove(i);
@@ -0,0 +1,314 @@
+package longah.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import longah.node.Member;
+import longah.node.Transaction;
+
+/**
+ * Represents a transaction store which holds transactions as columns of primitive arrays.
+ * Each transaction takes one entry in the lender, time and subtransaction start columns, and each
+ * borrower takes one entry in the borrower and amount columns. Members are stored as ids into a
+ * member table. {@link Transaction} objects are only created when a transaction is read through
+ * {@link #get(int)} or {@link #toList()}, and changes to them are not reflected in the store.
+ */
+public class ColumnarTransactionStore implements TransactionStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Transaction columns, where the borrowers of transaction i are at [subStarts[i], subStarts[i + 1])
+    private int size = 0;
+    private int[] lenders = new int[INITIAL_CAPACITY];
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int[] subStarts = new int[INITIAL_CAPACITY + 1];
+
+    // Subtransaction columns
+    private int subCount = 0;
+    private int[] borrowers = new int[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+
+    private ArrayList<Member> memberTable = new ArrayList<>();
+    private IdentityHashMap<Member, Integer> memberIds = new IdentityHashMap<>();
+
+    /**
+     * Returns a copy of the transactions in a store, read through its primitive accessors without
+     * creating {@link Transaction} objects. Members are shared with the store, but later changes to
+     * the store are not reflected in the copy.
+     *
+     * @param store The store to copy.
+     * @return The copy of the store.
+     */
+    public static ColumnarTransactionStore copyOf(TransactionStore store) {
+        ColumnarTransactionStore copy = new ColumnarTransactionStore();
+        copy.ensureCapacity(store.size());
+        for (int i = 0; i < store.size(); i++) {
+            int subtransactionCount = store.getSubtransactionCount(i);
+            copy.ensureSubCapacity(copy.subCount + subtransactionCount);
+            copy.lenders[i] = copy.getMemberId(store.getLender(i));
+            copy.times[i] = store.getTimeMinutes(i);
+            for (int j = 0; j < subtransactionCount; j++) {
+                copy.borrowers[copy.subCount] = copy.getMemberId(store.getBorrower(i, j));
+                copy.amounts[copy.subCount] = store.getAmountCents(i, j);
+                copy.subCount++;
+            }
+            copy.subStarts[i + 1] = copy.subCount;
+        }
+        copy.size = store.size();
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a new transaction object with the contents of the transaction at the given position.
+     *
+     * @param index The position of the transaction.
+     * @return The transaction at the position.
+     */
+    @Override
+    public Transaction get(int index) {
+        checkIndex(index);
+        ArrayList<Subtransaction> subtransactions = new ArrayList<>(getSubtransactionCount(index));
+        Member lender = getLender(index);
+        for (int i = this.subStarts[index]; i < this.subStarts[index + 1]; i++) {
+            subtransactions.add(new Subtransaction(lender, this.memberTable.get(this.borrowers[i]), this.amounts[i]));
+        }
+        long time = this.times[index];
+        DateTime transactionTime = time == NO_TIME ? null : DateTime.fromEpochMinutes(time);
+        return new Transaction(lender, subtransactions, transactionTime);
+    }
+
+    @Override
+    public void add(Transaction transaction) {
+        ensureCapacity(this.size + 1);
+        this.subStarts[this.size] = this.subCount;
+        this.subStarts[this.size + 1] = this.subCount;
+        this.size++;
+        writeTransaction(this.size - 1, transaction);
+    }
+
+    @Override
+    public Transaction set(int index, Transaction transaction) {
+        Transaction oldTransaction = get(index);
+        writeTransaction(index, transaction);
+        return oldTransaction;
+    }
+
+    @Override
+    public Transaction remove(int index) {
+        Transaction oldTransaction = get(index);
+        int start = this.subStarts[index];
+        int removedCount = this.subStarts[index + 1] - start;
+        System.arraycopy(this.borrowers, start + removedCount, this.borrowers, start,
+                this.subCount - start - removedCount);
+        System.arraycopy(this.amounts, start + removedCount, this.amounts, start,
+                this.subCount - start - removedCount);
+        System.arraycopy(this.lenders, index + 1, this.lenders, index, this.size - index - 1);
+        System.arraycopy(this.times, index + 1, this.times, index, this.size - index - 1);
+        for (int i = index; i < this.size; i++) {
+            this.subStarts[i] = this.subStarts[i + 1] - removedCount;
+        }
+        this.size--;
+        this.subCount -= removedCount;
+        return oldTransaction;
+    }
+
+    @Override
+    public void clear() {
+        this.size = 0;
+        this.subCount = 0;
+        this.memberTable.clear();
+        this.memberIds.clear();
+    }
+
+    /**
+     * Removes a member from all transactions in a single compacting pass over the columns.
+     *
+     * @param member The member to remove.
+     * @return The subtransactions removed from the store.
+     */
+    @Override
+    public ArrayList<Subtransaction> deleteMember(Member member) {
+        ArrayList<Subtransaction> removedSubtransactions = new ArrayList<>();
+        Integer memberId = this.memberIds.get(member);
+        if (memberId == null) {
+            return removedSubtransactions;
+        }
+
+        int keptCount = 0;
+        int keptSubCount = 0;
+        int start = 0;
+        for (int i = 0; i < this.size; i++) {
+            int end = this.subStarts[i + 1];
+            boolean isLender = this.lenders[i] == memberId;
+            int keptStart = keptSubCount;
+            for (int j = start; j < end; j++) {
+                if (isLender || this.borrowers[j] == memberId) {
+                    removedSubtransactions.add(new Subtransaction(this.memberTable.get(this.lenders[i]),
+                            this.memberTable.get(this.borrowers[j]), this.amounts[j]));
+                } else {
+                    this.borrowers[keptSubCount] = this.borrowers[j];
+                    this.amounts[keptSubCount] = this.amounts[j];
+                    keptSubCount++;
+                }
+            }
+            start = end;
+
+            // Transactions without borrowers left are discarded
+            if (keptSubCount > keptStart) {
+                this.lenders[keptCount] = this.lenders[i];
+                this.times[keptCount] = this.times[i];
+                this.subStarts[keptCount] = keptStart;
+                keptCount++;
+            }
+        }
+        this.size = keptCount;
+        this.subCount = keptSubCount;
+        this.subStarts[this.size] = this.subCount;
+        return removedSubtransactions;
+    }
+
+    /**
+     * Returns new transaction objects with the contents of all transactions in the store.
+     *
+     * @return The list of transactions.
+     */
+    @Override
+    public ArrayList<Transaction> toList() {
+        ArrayList<Transaction> transactions = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            transactions.add(get(i));
+        }
+        return transactions;
+    }
+
+    @Override
+    public Member getLender(int index) {
+        checkIndex(index);
+        return this.memberTable.get(this.lenders[index]);
+    }
+
+    @Override
+    public long getTimeMinutes(int index) {
+        checkIndex(index);
+        return this.times[index];
+    }
+
+    @Override
+    public int getSubtransactionCount(int index) {
+        checkIndex(index);
+        return this.subStarts[index + 1] - this.subStarts[index];
+    }
+
+    @Override
+    public Member getBorrower(int index, int subIndex) {
+        return this.memberTable.get(this.borrowers[getSubPosition(index, subIndex)]);
+    }
+
+    @Override
+    public long getAmountCents(int index, int subIndex) {
+        return this.amounts[getSubPosition(index, subIndex)];
+    }
+
+    /**
+     * Returns the position of a subtransaction in the subtransaction columns.
+     *
+     * @param index The position of the transaction.
+     * @param subIndex The position of the subtransaction within the transaction.
+     * @return The position in the subtransaction columns.
+     */
+    private int getSubPosition(int index, int subIndex) {
+        if (subIndex < 0 || subIndex >= getSubtransactionCount(index)) {
+            throw new IndexOutOfBoundsException("Subtransaction index: " + subIndex);
+        }
+        return this.subStarts[index] + subIndex;
+    }
+
+    /**
+     * Writes the contents of a transaction into an existing position, shifting the subtransactions of
+     * later transactions if the number of borrowers changes.
+     *
+     * @param index The position of the transaction.
+     * @param transaction The transaction to write.
+     */
+    private void writeTransaction(int index, Transaction transaction) {
+        ArrayList<Subtransaction> subtransactions = transaction.getSubtransactions();
+        int start = this.subStarts[index];
+        int end = this.subStarts[index + 1];
+        int shift = subtransactions.size() - (end - start);
+        if (shift != 0) {
+            ensureSubCapacity(this.subCount + shift);
+            System.arraycopy(this.borrowers, end, this.borrowers, end + shift, this.subCount - end);
+            System.arraycopy(this.amounts, end, this.amounts, end + shift, this.subCount - end);
+            for (int i = index + 1; i <= this.size; i++) {
+                this.subStarts[i] += shift;
+            }
+            this.subCount += shift;
+        }
+
+        this.lenders[index] = getMemberId(transaction.getLender());
+        this.times[index] = transaction.haveTime()
+                ? transaction.getTransactionTime().toEpochMinutes()
+                : NO_TIME;
+        for (int i = 0; i < subtransactions.size(); i++) {
+            Subtransaction subtransaction = subtransactions.get(i);
+            this.borrowers[start + i] = getMemberId(subtransaction.getBorrower());
+            this.amounts[start + i] = subtransaction.getAmountCents();
+        }
+    }
+
+    /**
+     * Returns the id of a member in the member table, adding the member if it is not in the table.
+     *
+     * @param member The member to look up.
+     * @return The id of the member.
+     */
+    private int getMemberId(Member member) {
+        Integer memberId = this.memberIds.get(member);
+        if (memberId == null) {
+            memberId = this.memberTable.size();
+            this.memberTable.add(member);
+            this.memberIds.put(member, memberId);
+        }
+        return memberId;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Transaction index: " + index);
+        }
+    }
+
+    /**
+     * Grows the transaction columns to hold at least the given number of transactions.
+     *
+     * @param capacity The number of transactions to hold.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.lenders.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, this.lenders.length * 2);
+        this.lenders = Arrays.copyOf(this.lenders, newCapacity);
+        this.times = Arrays.copyOf(this.times, newCapacity);
+        this.subStarts = Arrays.copyOf(this.subStarts, newCapacity + 1);
+    }
+
+    /**
+     * Grows the subtransaction columns to hold at least the given number of subtransactions.
+     *
+     * @param capacity The number of subtransactions to hold.
+     */
+    private void ensureSubCapacity(int capacity) {
+        if (capacity <= this.borrowers.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, this.borrowers.length * 2);
+        this.borrowers = Arrays.copyOf(this.borrowers, newCapacity);
+        this.amounts = Arrays.copyOf(this.amounts, newCapacity);
+    }
+}
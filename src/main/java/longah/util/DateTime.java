@@ -3,7 +3,9 @@ package longah.util;
 import longah.exception.ExceptionMessage;
 import longah.exception.LongAhException;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
@@ -12,6 +14,8 @@ import java.time.format.DateTimeParseException;
  */
 public class DateTime {
     //@@author FeathersRe
+    // Formatters are immutable, so one is shared instead of parsing the pattern on every printout
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm");
     private LocalDateTime dateTime;
 
     /**
@@ -22,8 +26,7 @@ public class DateTime {
      */
     public DateTime(String dateTimeExpression) throws LongAhException {
         try {
-            this.dateTime = LocalDateTime.parse(dateTimeExpression.trim(),
-                    DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm"));
+            this.dateTime = LocalDateTime.parse(dateTimeExpression.trim(), FORMATTER);
         } catch (DateTimeParseException e) {
             throw new LongAhException(ExceptionMessage.INVALID_TIME_FORMAT);
         }
@@ -32,6 +35,60 @@ public class DateTime {
         }
     }
 
+    /**
+     * Constructs a new DateTime object from an existing date time. Used for date times which were
+     * already validated when first parsed.
+     *
+     * @param dateTime The date time to wrap
+     */
+    private DateTime(LocalDateTime dateTime) {
+        this.dateTime = dateTime;
+    }
+
+    /**
+     * Returns the DateTime object for the given fields, validated as when parsed from an expression.
+     *
+     * @param year The year
+     * @param month The month of the year, from 1 to 12
+     * @param day The day of the month
+     * @param hour The hour of the day
+     * @param minute The minute of the hour
+     * @return The DateTime object representing the given fields
+     * @throws LongAhException If the fields are not a valid date time or the date time is in the future
+     */
+    public static DateTime of(int year, int month, int day, int hour, int minute) throws LongAhException {
+        DateTime dateTime;
+        try {
+            dateTime = new DateTime(LocalDateTime.of(year, month, day, hour, minute));
+        } catch (DateTimeException e) {
+            throw new LongAhException(ExceptionMessage.INVALID_TIME_FORMAT);
+        }
+        if (dateTime.isFuture()) {
+            throw new LongAhException(ExceptionMessage.INVALID_TIME_INPUT);
+        }
+        return dateTime;
+    }
+
+    /**
+     * Returns the DateTime object for the given number of minutes since the epoch.
+     *
+     * @param epochMinutes The number of minutes since 01-01-1970 0000
+     * @return The DateTime object representing the given minute
+     */
+    public static DateTime fromEpochMinutes(long epochMinutes) {
+        return new DateTime(LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC));
+    }
+
+    /**
+     * Returns the number of minutes since the epoch of the date time. As date times are entered to
+     * the minute, comparing the minutes of two date times is equivalent to comparing the date times.
+     *
+     * @return The number of minutes since 01-01-1970 0000
+     */
+    public long toEpochMinutes() {
+        return this.dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
     /**
      * Getter method to get the dateTime object associated with the current object instance. Currently used within the
      * class only.
@@ -88,7 +145,7 @@ public class DateTime {
       * @return A string representation of the date time object suitable for storage
      */
     public String toStorageString() {
-        return this.dateTime.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm"));
+        return this.dateTime.format(FORMATTER);
     }
 
     /**
@@ -98,7 +155,7 @@ public class DateTime {
      */
     @Override
     public String toString() {
-        return this.dateTime.format(DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm"));
+        return this.dateTime.format(FORMATTER);
     }
 
 }
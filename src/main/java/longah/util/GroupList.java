@@ -1,24 +1,48 @@
 package longah.util;
 
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
 
 import longah.exception.ExceptionMessage;
 import longah.exception.LongAhException;
+import longah.handler.Logging;
+import longah.handler.NameHandler;
 import longah.handler.StorageHandler;
 import longah.handler.UI;
 import longah.node.Group;
 
 /**
  * Represents a list of groups in the LongAh application.
+ * Only the names of the groups are read at startup. The data of a group is loaded from storage
+ * when the group is first accessed. If cache limits are set, the least recently used groups are
+ * written to storage and released from memory once the loaded groups exceed the limits, and are
+ * loaded again when next accessed.
  */
 public class GroupList {
     private static final String GROUP_LIST_FILE_PATH = "./data/groupList.txt";
+    private static final String GROUP_DIR_PATH = "./data/";
     private static Group activeGroup = null;
-    private static ArrayList<Group> groupList = new ArrayList<>();
+    private static ArrayList<String> groupNames = new ArrayList<>();
+    // Loaded groups in order of access, from the least to the most recently used
+    private static LinkedHashMap<String, Group> loadedGroups = new LinkedHashMap<>(16, 0.75f, true);
+    // Limits of the group cache, where 0 means no limit
+    private static int maxLoadedGroups = 0;
+    private static long maxLoadedBytes = 0;
+    private static long cacheHits = 0;
+    private static long cacheMisses = 0;
+    private static long cacheEvictions = 0;
+    private static boolean isPreloadEnabled = false;
 
     /**
      * Constructor for GroupList.
@@ -27,14 +51,27 @@ public class GroupList {
      */
     public GroupList() throws LongAhException {
         StorageHandler.initDir();
-        if (!Files.exists(Paths.get(GROUP_LIST_FILE_PATH)) || groupList == null) {
+        if (!Files.exists(Paths.get(GROUP_LIST_FILE_PATH)) || groupNames == null) {
             createGroup();
         } else {
             loadGroupList();
-            getGroupList();
+            if (isPreloadEnabled) {
+                loadAllGroups();
+            }
+            // Groups which cannot be loaded are dropped, as they were when all groups were loaded at startup
+            while (activeGroup == null && !groupNames.isEmpty()) {
+                try {
+                    activeGroup = getGroup(groupNames.get(0));
+                } catch (LongAhException e) {
+                    showLoadFailure(groupNames.remove(0));
+                }
+            }
+            if (activeGroup == null) {
+                createGroup();
+                return;
+            }
             UI.showMessage("Defaulting to the first group.");
-            UI.showMessage("You are now managing: " + groupList.get(0).getGroupName());
-            activeGroup = groupList.get(0);
+            UI.showMessage("You are now managing: " + activeGroup.getGroupName());
         }
     }
 
@@ -48,11 +85,16 @@ public class GroupList {
     }
 
     /**
-     * Switches the active group to the specified group.
+     * Switches the active group to the specified group, after saving any pending changes of
+     * the previous active group.
      *
      * @param newGroup The new group to switch to.
+     * @throws LongAhException If the data of the previous active group is not saved.
      */
-    public static void switchActiveGroup(Group newGroup) {
+    public static void switchActiveGroup(Group newGroup) throws LongAhException {
+        if (activeGroup != null && activeGroup != newGroup) {
+            activeGroup.flushData();
+        }
         activeGroup = newGroup;
     }
 
@@ -61,28 +103,37 @@ public class GroupList {
      * If there is no group, prompt user to create a new group.
      */
     public static void createGroup() throws LongAhException {
-        if (groupList.isEmpty()) {
+        if (groupNames.isEmpty()) {
             UI.showMessage("No groups found. Please give a name for your first group or enter " + 
                     "'exit' or 'close' to exit LongAh.");
             String groupName = UI.getUserInput();
             if (groupName.equals("exit") || groupName.equals("close")) {
                 UI.exit();
             }
-            Group newGroup = new Group(groupName);
-            groupList.add(newGroup);
+            // The data lock is only taken after the name is entered
+            Lock dataLock = StorageHandler.getDataLock();
+            dataLock.lock();
             try {
-                Files.write(Paths.get(GROUP_LIST_FILE_PATH), groupName.getBytes());
-            } catch (IOException e) {
-                UI.showMessage(ExceptionMessage.STORAGE_FILE_CORRUPTED.getMessage());
+                Group newGroup = new Group(groupName);
+                showLoadWarnings(newGroup);
+                groupNames.add(groupName);
+                loadedGroups.put(groupName, newGroup);
+                try {
+                    Files.write(Paths.get(GROUP_LIST_FILE_PATH), groupName.getBytes());
+                } catch (IOException e) {
+                    UI.showMessage(ExceptionMessage.STORAGE_FILE_CORRUPTED.getMessage());
+                }
+                activeGroup = newGroup;
+            } finally {
+                dataLock.unlock();
             }
-            activeGroup = newGroup;
             UI.showMessage("Created group: " + groupName);
             UI.showMessage("You are now managing: " + activeGroup.getGroupName());
         }
     }
 
     /**
-     * Loads the group list from the file.
+     * Loads the names of the groups from the file, without loading the data of the groups.
      * 
      * @throws LongAhException If an I/O exception occurs.
      */
@@ -99,13 +150,102 @@ public class GroupList {
 
         for (String groupName : data) {
             try {
-                groupList.add(new Group(groupName));
+                NameHandler.checkGroupNameValidity(groupName);
+                groupNames.add(groupName);
             } catch (LongAhException e) {
                 UI.showMessage(ExceptionMessage.STORAGE_FILE_CORRUPTED.getMessage());
             }
         }
     }
 
+    /**
+     * Sets whether the data of all groups is loaded at startup instead of on first access.
+     *
+     * @param isEnabled Whether all groups are loaded at startup.
+     */
+    public static void setPreloadGroups(boolean isEnabled) {
+        isPreloadEnabled = isEnabled;
+    }
+
+    public static boolean isPreloadGroups() {
+        return isPreloadEnabled;
+    }
+
+    /**
+     * Loads the data of all groups which are not loaded, loading the groups concurrently on a
+     * pool of at most one thread per processor. Groups are added in the order of the group list,
+     * and groups which cannot be loaded are reported in that order and removed from the list.
+     *
+     * @throws LongAhException If loading is interrupted.
+     */
+    public static void loadAllGroups() throws LongAhException {
+        ArrayList<String> unloadedNames = new ArrayList<>();
+        for (String groupName : groupNames) {
+            if (!loadedGroups.containsKey(groupName)) {
+                unloadedNames.add(groupName);
+            }
+        }
+        if (unloadedNames.isEmpty()) {
+            return;
+        }
+
+        int threadCount = Math.min(unloadedNames.size(), Runtime.getRuntime().availableProcessors());
+        int loadedCount = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "LongAh-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            ArrayList<Future<Group>> loadingGroups = new ArrayList<>();
+            for (String groupName : unloadedNames) {
+                loadingGroups.add(executor.submit(() -> new Group(groupName)));
+            }
+            for (int i = 0; i < unloadedNames.size(); i++) {
+                String groupName = unloadedNames.get(i);
+                // Results are taken in list order, so that messages do not depend on the loader threads
+                try {
+                    Group group = loadingGroups.get(i).get();
+                    loadedGroups.put(groupName, group);
+                    showLoadWarnings(group);
+                    loadedCount++;
+                    cacheMisses++;
+                } catch (ExecutionException e) {
+                    showLoadFailure(groupName);
+                    groupNames.remove(groupName);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LongAhException(ExceptionMessage.IO_EXCEPTION);
+        } finally {
+            executor.shutdownNow();
+        }
+        Logging.logInfo(loadedCount + " groups loaded on " + threadCount + " threads.");
+        evictGroups(null);
+    }
+
+    /**
+     * Displays the warnings from loading the data of a group.
+     *
+     * @param group The group loaded.
+     */
+    private static void showLoadWarnings(Group group) {
+        if (group.hasSkippedTransactions()) {
+            UI.showMessage("Some transactions of group " + group.getGroupName() + " are invalid and have been skipped.");
+        }
+    }
+
+    /**
+     * Displays that the data of a group could not be loaded.
+     *
+     * @param groupName The name of the group.
+     */
+    private static void showLoadFailure(String groupName) {
+        Logging.logWarning("Group " + groupName + " could not be loaded.");
+        UI.showMessage("Group " + groupName + ": " + ExceptionMessage.STORAGE_FILE_CORRUPTED.getMessage());
+    }
+
     /**
      * Returns the group list.
      *
@@ -114,21 +254,17 @@ public class GroupList {
      */
     public static String getGroupList() throws LongAhException {
         // did not use exceptions here as I want to return an empty string
-        if (groupList.isEmpty()) {
+        if (groupNames.isEmpty()) {
             return "Group list is empty.";
         }
-        try {
-            int index = 1;
-            String[] data = new String(Files.readAllBytes(Paths.get(GROUP_LIST_FILE_PATH))).split("\n");
-            String groupListString = "";
-            for (String groupName : data) {
-                groupListString += index + ". "  + groupName + "\n";
-                index++;
-            }
-            return groupListString;
-        } catch (IOException e) {
-            throw new LongAhException(ExceptionMessage.IO_EXCEPTION);
+        // Groups excluded while loading are only removed from the file when it is next saved
+        int index = 1;
+        String groupListString = "";
+        for (String groupName : groupNames) {
+            groupListString += index + ". "  + groupName + "\n";
+            index++;
         }
+        return groupListString;
     }
 
     /**
@@ -141,7 +277,10 @@ public class GroupList {
         if (isGroup(group.getGroupName())) {
             throw new LongAhException(ExceptionMessage.DUPLICATE_GROUP);
         }
-        groupList.add(group);
+        showLoadWarnings(group);
+        groupNames.add(group.getGroupName());
+        loadedGroups.put(group.getGroupName(), group);
+        evictGroups(group);
         saveGroupList();
         UI.showMessage("Added group: " + group.getGroupName());
     }
@@ -156,51 +295,206 @@ public class GroupList {
         if (!GroupList.isGroup(groupName)) {
             throw new LongAhException(ExceptionMessage.GROUP_NOT_FOUND);
         }
-        Group group = getGroup(groupName);
-        groupList.remove(group);
-        saveGroupList();
-        UI.showMessage("Remaining groups:");
-        UI.showMessage(getGroupList());
-        // delete the group folder
+        // The data lock is released before a new group is created, which waits for user input
+        Lock dataLock = StorageHandler.getDataLock();
+        dataLock.lock();
         try {
-            Files.deleteIfExists(Paths.get("./data/" + groupName + "/members.txt"));
-            Files.deleteIfExists(Paths.get("./data/" + groupName + "/transactions.txt"));
-            Files.deleteIfExists(Paths.get("./data/" + groupName));
-        } catch (IOException e) {
-            throw new LongAhException(ExceptionMessage.IO_EXCEPTION);
+            Group group = loadedGroups.remove(groupName);
+            groupNames.remove(groupName);
+            saveGroupList();
+            UI.showMessage("Remaining groups:");
+            UI.showMessage(getGroupList());
+            // delete the group folder, without loading the group if it is not loaded
+            if (group != null) {
+                group.deleteAllData();
+            } else {
+                StorageHandler.deleteDir(new File(GROUP_DIR_PATH + groupName));
+            }
+            if (!groupNames.isEmpty() && activeGroup.getGroupName().equals(groupName)) {
+                activeGroup = getGroup(groupNames.get(0));
+                UI.showMessage("You have deleted the active group that you were managing.");
+                UI.showMessage("Defaulting back to the first group in the list.");
+                UI.showMessage("You are now managing: " + activeGroup.getGroupName());
+                return;
+            }
+        } finally {
+            dataLock.unlock();
         }
+        UI.showMessage("Deleted group: " + groupName);
         // if there is only group that was left is deleted
-        if (groupList.isEmpty()) {
-            UI.showMessage("Deleted group: " + groupName);
+        if (groupNames.isEmpty()) {
             createGroup();
-        } else if (activeGroup.getGroupName().equals(groupName)) {
-            activeGroup = groupList.get(0);
-            UI.showMessage("You have deleted the active group that you were managing.");
-            UI.showMessage("Defaulting back to the first group in the list.");
-            UI.showMessage("You are now managing: " + activeGroup.getGroupName());
-        } else {
-            UI.showMessage("Deleted group: " + groupName);
         }
     }
 
 
     /**
-     * Returns the group with a specified name.
+     * Returns the group with a specified name, loading its data from storage if it is not loaded.
      * 
      * @param name The name of the group.
      * @return The group with a specified name.
+     * @throws LongAhException If the group is not found or its data cannot be loaded.
      */
     public static Group getGroup(String name) throws LongAhException {
-        for (Group group : groupList) {
-            if (group.getGroupName().equals(name)) {
-                return group;
+        if (!isGroup(name)) {
+            throw new LongAhException(ExceptionMessage.GROUP_NOT_FOUND);
+        }
+        Group group = loadedGroups.get(name);
+        if (group != null) {
+            cacheHits++;
+            return group;
+        }
+        cacheMisses++;
+        group = new Group(name);
+        loadedGroups.put(name, group);
+        Logging.logInfo("Group " + name + " loaded from storage.");
+        showLoadWarnings(group);
+        evictGroups(group);
+        return group;
+    }
+
+    /**
+     * Saves the data of all groups in the storage format currently selected. Loaded groups are
+     * saved again, and the other groups are converted as they are loaded. Groups which cannot be
+     * loaded are skipped and keep their data as it is.
+     *
+     * @return The number of groups saved in the selected format.
+     */
+    public static int convertAllGroups() {
+        int convertedCount = 0;
+        for (String groupName : new ArrayList<>(groupNames)) {
+            try {
+                Group group = loadedGroups.get(groupName);
+                if (group != null) {
+                    group.saveAllData();
+                } else {
+                    getGroup(groupName);
+                }
+                convertedCount++;
+            } catch (LongAhException e) {
+                Logging.logWarning("Group " + groupName + " could not be converted.");
+            }
+        }
+        return convertedCount;
+    }
+
+    /**
+     * Sets the limits of the loaded groups, beyond which the least recently used groups are
+     * released from memory. A limit of 0 disables that limit.
+     *
+     * @param maxGroups The maximum number of loaded groups.
+     * @param maxBytes The maximum estimated memory used by the loaded groups in bytes.
+     */
+    public static void setCacheLimits(int maxGroups, long maxBytes) {
+        maxLoadedGroups = maxGroups;
+        maxLoadedBytes = maxBytes;
+    }
+
+    public static int getMaxLoadedGroups() {
+        return maxLoadedGroups;
+    }
+
+    public static long getMaxLoadedBytes() {
+        return maxLoadedBytes;
+    }
+
+    /**
+     * Checks if any limit of the loaded groups is set.
+     *
+     * @return True if the loaded groups are limited, false otherwise.
+     */
+    public static boolean isCacheLimited() {
+        return maxLoadedGroups > 0 || maxLoadedBytes > 0;
+    }
+
+    /**
+     * Returns the number of accesses to loaded groups, accesses which loaded a group from storage
+     * and groups released from memory.
+     *
+     * @return The statistics of the group cache.
+     */
+    public static String getCacheStatistics() {
+        return "Group cache: " + loadedGroups.size() + " loaded, " + cacheHits + " hits, " + cacheMisses
+                + " misses, " + cacheEvictions + " evictions";
+    }
+
+    /**
+     * Releases the least recently used groups from memory until the loaded groups are within the
+     * cache limits. Unsaved changes of a group are written to storage before it is released, and
+     * the active group and the group just accessed are never released.
+     *
+     * @param accessedGroup The group just accessed.
+     */
+    private static void evictGroups(Group accessedGroup) {
+        if (!isCacheLimited()) {
+            return;
+        }
+        long loadedBytes = 0;
+        if (maxLoadedBytes > 0) {
+            for (Group group : loadedGroups.values()) {
+                loadedBytes += group.getEstimatedSize();
+            }
+        }
+        Iterator<Group> iterator = loadedGroups.values().iterator();
+        while (isOverCacheLimits(loadedBytes) && iterator.hasNext()) {
+            Group group = iterator.next();
+            if (group == activeGroup || group == accessedGroup) {
+                continue;
+            }
+            try {
+                if (group.hasUnsavedChanges()) {
+                    Logging.logInfo("Writing unsaved changes of group " + group.getGroupName() + " before eviction.");
+                }
+                group.closeStorage();
+            } catch (LongAhException e) {
+                Logging.logWarning("Group " + group.getGroupName() + " not evicted as its data is not saved.");
+                continue;
             }
+            if (maxLoadedBytes > 0) {
+                loadedBytes -= group.getEstimatedSize();
+            }
+            iterator.remove();
+            cacheEvictions++;
+            Logging.logInfo("Group " + group.getGroupName() + " evicted from memory. " + getCacheStatistics());
         }
-        throw new LongAhException(ExceptionMessage.GROUP_NOT_FOUND);
+    }
+
+    /**
+     * Checks if the loaded groups exceed any cache limit.
+     *
+     * @param loadedBytes The estimated memory used by the loaded groups in bytes.
+     * @return True if a limit is exceeded, false otherwise.
+     */
+    private static boolean isOverCacheLimits(long loadedBytes) {
+        return (maxLoadedGroups > 0 && loadedGroups.size() > maxLoadedGroups)
+                || (maxLoadedBytes > 0 && loadedBytes > maxLoadedBytes);
+    }
+
+    /**
+     * Checks if the data of a group has been loaded from storage.
+     *
+     * @param groupName The name of the group.
+     * @return True if the group is loaded, false otherwise.
+     */
+    public static boolean isGroupLoaded(String groupName) {
+        return loadedGroups.containsKey(groupName);
+    }
+
+    /**
+     * Removes all groups from memory and resets the statistics of the group cache, without changing
+     * the data in storage. Used for testing.
+     */
+    static void clearLoadedState() {
+        activeGroup = null;
+        groupNames.clear();
+        loadedGroups.clear();
+        cacheHits = 0;
+        cacheMisses = 0;
+        cacheEvictions = 0;
     }
 
     public static boolean isEmpty() {
-        return groupList.isEmpty();
+        return groupNames.isEmpty();
     }
 
     /**
@@ -209,7 +503,7 @@ public class GroupList {
      * @return The size of the group list.
      */
     public int getSize() {
-        return groupList.size();
+        return groupNames.size();
     }
 
     /**
@@ -219,12 +513,7 @@ public class GroupList {
      * @return True if the group is in the list, false otherwise.
      */
     public static boolean isGroup(String groupName) {
-        for (Group group : groupList) {
-            if (group.getGroupName().equals(groupName)) {
-                return true;
-            }
-        }
-        return false;
+        return groupNames.contains(groupName);
     }
 
     /**
@@ -235,8 +524,8 @@ public class GroupList {
     public static void saveGroupList() throws LongAhException {
         try {
             FileWriter writer = new FileWriter(GROUP_LIST_FILE_PATH);
-            for (Group group : groupList) {
-                writer.write(group.getGroupName() + "\n");
+            for (String groupName : groupNames) {
+                writer.write(groupName + "\n");
             }
             writer.close();
         } catch (IOException e) {
@@ -0,0 +1,436 @@
+package longah.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import longah.node.Member;
+import longah.node.Transaction;
+
+/**
+ * Represents a transaction store which keeps indexes of the positions of the transactions on top of
+ * another store. For each member, the sorted positions of the transactions it lent and of the
+ * transactions it borrowed in are kept, so that the transactions of a member can be found in
+ * O(matches) without scanning all transactions. The positions of the transactions with a time are
+ * also kept in a map sorted by time, so that the transactions in a time range can be found in
+ * O(log n + matches).
+ * The indexes are updated on every change made through the store. Each transaction is indexed by
+ * the slot it was added in, which is its position until an earlier transaction is removed. Slots
+ * are converted to positions through a Fenwick tree of the occupied slots, so that removing a
+ * transaction only updates the entries of its own members and time instead of every entry. The
+ * slots are renumbered once half of them are empty.
+ */
+public class IndexedTransactionStore implements TransactionStore {
+    private static final int MIN_SLOT_CAPACITY = 16;
+
+    private TransactionStore transactions;
+    private IdentityHashMap<Member, ArrayList<Integer>> lenderSlots = new IdentityHashMap<>();
+    private IdentityHashMap<Member, ArrayList<Integer>> borrowerSlots = new IdentityHashMap<>();
+    private TreeMap<Long, ArrayList<Integer>> timeSlots = new TreeMap<>();
+    // Time of the transaction in each slot when it was indexed
+    private ArrayList<Long> indexedTimes = new ArrayList<>();
+    // Fenwick tree counting the occupied slots, indexed from 1
+    private int[] occupiedSlotTree = new int[MIN_SLOT_CAPACITY + 1];
+    private BitSet emptySlots = new BitSet();
+    private int slotCount = 0;
+    private int emptySlotCount = 0;
+
+    /**
+     * Constructs an indexed store on top of a store, indexing the transactions already in it.
+     *
+     * @param transactions The store holding the transactions.
+     */
+    public IndexedTransactionStore(TransactionStore transactions) {
+        this.transactions = transactions;
+        rebuildIndex();
+    }
+
+    /**
+     * Returns the positions of the transactions lent by a member.
+     *
+     * @param member The member to find.
+     * @return An unmodifiable list of the positions in ascending order.
+     */
+    public List<Integer> getLenderPositions(Member member) {
+        return toPositions(this.lenderSlots.get(member));
+    }
+
+    /**
+     * Returns the positions of the transactions in which a member is a borrower.
+     *
+     * @param member The member to find.
+     * @return An unmodifiable list of the positions in ascending order.
+     */
+    public List<Integer> getBorrowerPositions(Member member) {
+        return toPositions(this.borrowerSlots.get(member));
+    }
+
+    /**
+     * Returns the positions of the transactions in which a member is the lender or a borrower.
+     *
+     * @param member The member to find.
+     * @return A list of the positions in ascending order.
+     */
+    public List<Integer> getInvolvedPositions(Member member) {
+        List<Integer> lent = getLenderPositions(member);
+        List<Integer> borrowed = getBorrowerPositions(member);
+        ArrayList<Integer> positions = new ArrayList<>(lent.size() + borrowed.size());
+        int i = 0;
+        int j = 0;
+        while (i < lent.size() || j < borrowed.size()) {
+            if (j == borrowed.size() || (i < lent.size() && lent.get(i) < borrowed.get(j))) {
+                positions.add(lent.get(i++));
+            } else if (i == lent.size() || borrowed.get(j) < lent.get(i)) {
+                positions.add(borrowed.get(j++));
+            } else {
+                positions.add(lent.get(i++));
+                j++;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the positions of the transactions with a time within a range. Transactions without a
+     * time are never included.
+     *
+     * @param fromMinutes The earliest time in epoch minutes, inclusive.
+     * @param toMinutes The latest time in epoch minutes, inclusive.
+     * @return A list of the positions in ascending order.
+     */
+    public List<Integer> getPositionsInTimeRange(long fromMinutes, long toMinutes) {
+        ArrayList<Integer> slots = new ArrayList<>();
+        if (fromMinutes > toMinutes) {
+            return slots;
+        }
+        for (ArrayList<Integer> timeSlot : this.timeSlots.subMap(fromMinutes, true, toMinutes, true).values()) {
+            slots.addAll(timeSlot);
+        }
+        // Transactions are not necessarily added in order of time
+        Collections.sort(slots);
+        if (this.emptySlotCount > 0) {
+            // Positions are in the same order as slots
+            slots.replaceAll(this::getPosition);
+        }
+        return slots;
+    }
+
+    /**
+     * Counts the transactions with a time within a range, stopping once the count exceeds a limit.
+     * Used to compare the selectivity of the time index with other indexes without collecting the
+     * positions.
+     *
+     * @param fromMinutes The earliest time in epoch minutes, inclusive.
+     * @param toMinutes The latest time in epoch minutes, inclusive.
+     * @param limit The count after which counting stops.
+     * @return The number of transactions in the range, or a number above the limit.
+     */
+    public int countPositionsInTimeRange(long fromMinutes, long toMinutes, int limit) {
+        if (fromMinutes > toMinutes) {
+            return 0;
+        }
+        int count = 0;
+        for (ArrayList<Integer> timeSlot : this.timeSlots.subMap(fromMinutes, true, toMinutes, true).values()) {
+            count += timeSlot.size();
+            if (count > limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return this.transactions.size();
+    }
+
+    @Override
+    public Transaction get(int index) {
+        return this.transactions.get(index);
+    }
+
+    @Override
+    public void add(Transaction transaction) {
+        this.transactions.add(transaction);
+        indexTransaction(addSlot(), this.transactions.size() - 1);
+    }
+
+    /**
+     * Replaces the transaction at a position. The replaced transaction is unindexed through its own
+     * lender, borrowers and time.
+     */
+    @Override
+    public Transaction set(int index, Transaction transaction) {
+        int slot = getSlot(index);
+        Transaction oldTransaction = this.transactions.set(index, transaction);
+        unindexTransaction(oldTransaction, slot);
+        indexTransaction(slot, index);
+        return oldTransaction;
+    }
+
+    /**
+     * Removes the transaction at a position, leaving its slot empty so that the entries of other
+     * transactions are not changed.
+     */
+    @Override
+    public Transaction remove(int index) {
+        int slot = getSlot(index);
+        Transaction removedTransaction = this.transactions.remove(index);
+        unindexTransaction(removedTransaction, slot);
+        this.emptySlots.set(slot);
+        this.emptySlotCount++;
+        updateOccupiedSlots(slot, -1);
+        if (this.emptySlotCount > this.slotCount / 2) {
+            rebuildIndex();
+        }
+        return removedTransaction;
+    }
+
+    @Override
+    public void clear() {
+        this.transactions.clear();
+        rebuildIndex();
+    }
+
+    /**
+     * Deletes a member from all transactions and rebuilds the index, as the positions of all
+     * transactions after the first one removed change.
+     */
+    @Override
+    public ArrayList<Subtransaction> deleteMember(Member member) {
+        ArrayList<Subtransaction> removedSubtransactions = this.transactions.deleteMember(member);
+        rebuildIndex();
+        return removedSubtransactions;
+    }
+
+    /**
+     * Returns a copy of the list of transactions. Changes to the list are not reflected in the store,
+     * so that every change goes through the index.
+     *
+     * @return The list of transactions.
+     */
+    @Override
+    public ArrayList<Transaction> toList() {
+        return new ArrayList<>(this.transactions.toList());
+    }
+
+    @Override
+    public Member getLender(int index) {
+        return this.transactions.getLender(index);
+    }
+
+    @Override
+    public long getTimeMinutes(int index) {
+        return this.transactions.getTimeMinutes(index);
+    }
+
+    @Override
+    public int getSubtransactionCount(int index) {
+        return this.transactions.getSubtransactionCount(index);
+    }
+
+    @Override
+    public Member getBorrower(int index, int subIndex) {
+        return this.transactions.getBorrower(index, subIndex);
+    }
+
+    @Override
+    public long getAmountCents(int index, int subIndex) {
+        return this.transactions.getAmountCents(index, subIndex);
+    }
+
+    /**
+     * Rebuilds the index from all transactions in the store, with the slot of each transaction
+     * set to its position.
+     */
+    private void rebuildIndex() {
+        this.lenderSlots.clear();
+        this.borrowerSlots.clear();
+        this.timeSlots.clear();
+        this.indexedTimes.clear();
+        this.emptySlots.clear();
+        this.slotCount = 0;
+        this.emptySlotCount = 0;
+        this.occupiedSlotTree = new int[MIN_SLOT_CAPACITY + 1];
+        for (int i = 0; i < this.transactions.size(); i++) {
+            indexTransaction(addSlot(), i);
+        }
+    }
+
+    /**
+     * Adds the slot of a transaction to the entries of its lender, its borrowers and its time.
+     *
+     * @param slot The slot of the transaction.
+     * @param index The position of the transaction.
+     */
+    private void indexTransaction(int slot, int index) {
+        insertSlot(this.lenderSlots, this.transactions.getLender(index), slot);
+        for (int i = 0; i < this.transactions.getSubtransactionCount(index); i++) {
+            insertSlot(this.borrowerSlots, this.transactions.getBorrower(index, i), slot);
+        }
+        long time = this.transactions.getTimeMinutes(index);
+        if (slot == this.indexedTimes.size()) {
+            this.indexedTimes.add(time);
+        } else {
+            this.indexedTimes.set(slot, time);
+        }
+        if (time != NO_TIME) {
+            insertSlot(this.timeSlots, time, slot);
+        }
+    }
+
+    /**
+     * Removes the slot of a transaction from the entries of its lender, its borrowers and the time
+     * it was indexed with.
+     *
+     * @param transaction The transaction.
+     * @param slot The slot of the transaction.
+     */
+    private void unindexTransaction(Transaction transaction, int slot) {
+        removeFromEntry(this.lenderSlots, transaction.getLender(), slot);
+        for (Subtransaction subtransaction : transaction.getSubtransactions()) {
+            removeFromEntry(this.borrowerSlots, subtransaction.getBorrower(), slot);
+        }
+        removeFromEntry(this.timeSlots, this.indexedTimes.get(slot), slot);
+    }
+
+    /**
+     * Inserts a slot into the sorted entry of a key, unless it is already in the entry.
+     *
+     * @param index The index to insert into.
+     * @param key The key of the entry.
+     * @param slot The slot to insert.
+     */
+    private static <K> void insertSlot(Map<K, ArrayList<Integer>> index, K key, int slot) {
+        ArrayList<Integer> slots = index.computeIfAbsent(key, entryKey -> new ArrayList<>());
+        // Transactions are usually appended, so the slot usually belongs at the end
+        if (slots.isEmpty() || slots.get(slots.size() - 1) < slot) {
+            slots.add(slot);
+            return;
+        }
+        int insertionPoint = Collections.binarySearch(slots, slot);
+        if (insertionPoint < 0) {
+            slots.add(-insertionPoint - 1, slot);
+        }
+    }
+
+    /**
+     * Removes a slot from the entry of a key, removing the entry if it is left empty.
+     *
+     * @param index The index to remove from.
+     * @param key The key of the entry.
+     * @param slot The slot to remove.
+     */
+    private static <K> void removeFromEntry(Map<K, ArrayList<Integer>> index, K key, int slot) {
+        ArrayList<Integer> slots = index.get(key);
+        if (slots == null) {
+            return;
+        }
+        int found = Collections.binarySearch(slots, slot);
+        if (found >= 0) {
+            slots.remove(found);
+        }
+        if (slots.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Returns the positions of the transactions in an entry.
+     *
+     * @param slots The slots in the entry, or null if there is no entry.
+     * @return An unmodifiable list of the positions in ascending order.
+     */
+    private List<Integer> toPositions(ArrayList<Integer> slots) {
+        if (slots == null) {
+            return Collections.emptyList();
+        }
+        if (this.emptySlotCount == 0) {
+            // Every slot is its position until a transaction is removed
+            return Collections.unmodifiableList(slots);
+        }
+        ArrayList<Integer> positions = new ArrayList<>(slots.size());
+        for (int slot : slots) {
+            positions.add(getPosition(slot));
+        }
+        return Collections.unmodifiableList(positions);
+    }
+
+    /**
+     * Adds an occupied slot after the last slot, growing the Fenwick tree if it is full.
+     *
+     * @return The slot added.
+     */
+    private int addSlot() {
+        int capacity = this.occupiedSlotTree.length - 1;
+        if (this.slotCount == capacity) {
+            // Build the larger tree in O(capacity) from the empty slots
+            int[] tree = new int[capacity * 2 + 1];
+            for (int i = 1; i <= capacity * 2; i++) {
+                if (i <= this.slotCount && !this.emptySlots.get(i - 1)) {
+                    tree[i]++;
+                }
+                int parent = i + (i & -i);
+                if (parent <= capacity * 2) {
+                    tree[parent] += tree[i];
+                }
+            }
+            this.occupiedSlotTree = tree;
+        }
+        int slot = this.slotCount++;
+        updateOccupiedSlots(slot, 1);
+        return slot;
+    }
+
+    private void updateOccupiedSlots(int slot, int delta) {
+        for (int i = slot + 1; i < this.occupiedSlotTree.length; i += i & -i) {
+            this.occupiedSlotTree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the position of the transaction in an occupied slot, which is the number of occupied
+     * slots before it.
+     *
+     * @param slot The slot of the transaction.
+     * @return The position of the transaction.
+     */
+    private int getPosition(int slot) {
+        if (this.emptySlotCount == 0) {
+            return slot;
+        }
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += this.occupiedSlotTree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Returns the slot of the transaction at a position, which is the occupied slot with that many
+     * occupied slots before it.
+     *
+     * @param index The position of the transaction.
+     * @return The slot of the transaction.
+     */
+    private int getSlot(int index) {
+        if (this.emptySlotCount == 0) {
+            return index;
+        }
+        int node = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(this.occupiedSlotTree.length - 1); step > 0; step >>= 1) {
+            int next = node + step;
+            if (next < this.occupiedSlotTree.length && this.occupiedSlotTree[next] < remaining) {
+                node = next;
+                remaining -= this.occupiedSlotTree[next];
+            }
+        }
+        // The node is the last slot, counted from 1, with fewer occupied slots than required
+        return node;
+    }
+}
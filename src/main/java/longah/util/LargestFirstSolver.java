@@ -0,0 +1,152 @@
+package longah.util;
+
+import java.util.ArrayList;
+
+import longah.node.Member;
+
+/**
+ * Solves the balances of a group by repeatedly matching the largest creditor with the largest debtor.
+ * Creditors and debtors are kept in two primitive max-heaps of balances in cents, so the solution
+ * does not depend on the order of the member list and runs in O(n log n) without allocating
+ * anything per step other than the resulting subtransactions.
+ */
+public class LargestFirstSolver {
+    /**
+     * Finds the list of subtransactions needed to solve the balances of the given members.
+     *
+     * @param members The members of the group.
+     * @return The list of subtransactions needed to solve the balances of the members.
+     */
+    public static ArrayList<Subtransaction> solve(ArrayList<Member> members) {
+        int size = members.size();
+        MaxHeap creditors = new MaxHeap(size);
+        MaxHeap debtors = new MaxHeap(size);
+        for (int i = 0; i < size; i++) {
+            long balance = members.get(i).getBalanceCents();
+            if (balance > 0) {
+                creditors.add(balance, i);
+            } else if (balance < 0) {
+                debtors.add(-balance, i);
+            }
+        }
+        creditors.heapify();
+        debtors.heapify();
+
+        ArrayList<Subtransaction> subtransactions = new ArrayList<>(Math.max(0, size - 1));
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            long credit = creditors.peekValue();
+            long debt = debtors.peekValue();
+            long amount = Math.min(credit, debt);
+            Member lender = members.get(creditors.peekId());
+            Member borrower = members.get(debtors.peekId());
+            subtransactions.add(new Subtransaction(lender, borrower, amount));
+            creditors.reduceTop(amount);
+            debtors.reduceTop(amount);
+        }
+        return subtransactions;
+    }
+
+    /**
+     * Represents a binary max-heap of balances in cents, each tagged with a member index.
+     * Ties are broken by the lower member index to keep the solution deterministic.
+     */
+    private static class MaxHeap {
+        private final long[] values;
+        private final int[] ids;
+        private int size = 0;
+
+        /**
+         * Constructs a new empty heap with the given capacity.
+         *
+         * @param capacity The maximum number of entries in the heap.
+         */
+        MaxHeap(int capacity) {
+            this.values = new long[capacity];
+            this.ids = new int[capacity];
+        }
+
+        /**
+         * Appends an entry without restoring the heap order. {@link #heapify()} must be called
+         * after all entries are added.
+         *
+         * @param value The balance in cents.
+         * @param id The index of the member.
+         */
+        void add(long value, int id) {
+            this.values[this.size] = value;
+            this.ids[this.size] = id;
+            this.size++;
+        }
+
+        /**
+         * Restores the heap order of all entries in linear time.
+         */
+        void heapify() {
+            for (int i = this.size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        long peekValue() {
+            return this.values[0];
+        }
+
+        int peekId() {
+            return this.ids[0];
+        }
+
+        /**
+         * Reduces the largest balance by the given amount, removing it if it reaches zero.
+         *
+         * @param amount The amount to reduce the largest balance by.
+         */
+        void reduceTop(long amount) {
+            this.values[0] -= amount;
+            if (this.values[0] == 0) {
+                this.size--;
+                this.values[0] = this.values[this.size];
+                this.ids[0] = this.ids[this.size];
+            }
+            siftDown(0);
+        }
+
+        /**
+         * Moves the entry at the given position down until the heap order is restored.
+         *
+         * @param index The position of the entry.
+         */
+        private void siftDown(int index) {
+            long value = this.values[index];
+            int id = this.ids[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= this.size) {
+                    break;
+                }
+                if (child + 1 < this.size && isAbove(child + 1, child)) {
+                    child++;
+                }
+                if (!isAbove(this.values[child], this.ids[child], value, id)) {
+                    break;
+                }
+                this.values[index] = this.values[child];
+                this.ids[index] = this.ids[child];
+                index = child;
+            }
+            this.values[index] = value;
+            this.ids[index] = id;
+        }
+
+        private boolean isAbove(int first, int second) {
+            return isAbove(this.values[first], this.ids[first], this.values[second], this.ids[second]);
+        }
+
+        private boolean isAbove(long firstValue, int firstId, long secondValue, int secondId) {
+            return firstValue > secondValue || (firstValue == secondValue && firstId < secondId);
+        }
+    }
+}
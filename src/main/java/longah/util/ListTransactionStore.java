@@ -0,0 +1,103 @@
+package longah.util;
+
+import java.util.ArrayList;
+
+import longah.node.Member;
+import longah.node.Transaction;
+
+/**
+ * Represents a transaction store which holds each transaction as a {@link Transaction} object.
+ */
+public class ListTransactionStore implements TransactionStore {
+    private ArrayList<Transaction> transactions = new ArrayList<>();
+
+    @Override
+    public int size() {
+        return this.transactions.size();
+    }
+
+    @Override
+    public Transaction get(int index) {
+        return this.transactions.get(index);
+    }
+
+    @Override
+    public void add(Transaction transaction) {
+        this.transactions.add(transaction);
+    }
+
+    @Override
+    public Transaction set(int index, Transaction transaction) {
+        return this.transactions.set(index, transaction);
+    }
+
+    @Override
+    public Transaction remove(int index) {
+        return this.transactions.remove(index);
+    }
+
+    @Override
+    public void clear() {
+        this.transactions.clear();
+    }
+
+    @Override
+    public ArrayList<Subtransaction> deleteMember(Member member) {
+        ArrayList<Subtransaction> removedSubtransactions = new ArrayList<>();
+        int size = transactions.size();
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = transactions.get(i);
+            for (Subtransaction subtransaction : transaction.getSubtransactions()) {
+                if (subtransaction.getLender().equals(member) || subtransaction.getBorrower().equals(member)) {
+                    removedSubtransactions.add(subtransaction);
+                }
+            }
+            boolean isDiscard = transaction.deleteMember(member);
+            if (isDiscard) {
+                transactions.remove(i);
+                size--;
+                i--;
+            }
+        }
+        return removedSubtransactions;
+    }
+
+    /**
+     * Returns the backing list of transactions. Changes to the list are reflected in the store.
+     *
+     * @return The list of transactions.
+     */
+    @Override
+    public ArrayList<Transaction> toList() {
+        return this.transactions;
+    }
+
+    @Override
+    public Member getLender(int index) {
+        return this.transactions.get(index).getLender();
+    }
+
+    @Override
+    public long getTimeMinutes(int index) {
+        Transaction transaction = this.transactions.get(index);
+        if (!transaction.haveTime()) {
+            return NO_TIME;
+        }
+        return transaction.getTransactionTime().toEpochMinutes();
+    }
+
+    @Override
+    public int getSubtransactionCount(int index) {
+        return this.transactions.get(index).getSubtransactions().size();
+    }
+
+    @Override
+    public Member getBorrower(int index, int subIndex) {
+        return this.transactions.get(index).getSubtransactions().get(subIndex).getBorrower();
+    }
+
+    @Override
+    public long getAmountCents(int index, int subIndex) {
+        return this.transactions.get(index).getSubtransactions().get(subIndex).getAmountCents();
+    }
+}
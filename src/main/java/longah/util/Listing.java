@@ -0,0 +1,103 @@
+package longah.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Represents a printout made of an optional heading followed by rows, one after another.
+ * Rows are written on demand straight into an output, so a printout takes time linear in its
+ * length and rows which are not written, such as those outside a page, are never formatted.
+ */
+public class Listing {
+    private String heading;
+    private int rowCount;
+    private RowWriter rowWriter;
+
+    /**
+     * Represents a writer of the row at a position of a listing.
+     */
+    @FunctionalInterface
+    public interface RowWriter {
+        /**
+         * Writes a row without a trailing line break.
+         *
+         * @param out The output to write to
+         * @param row The position of the row, starting from 0
+         * @throws IOException If the output cannot be written to
+         */
+        void appendRow(Appendable out, int row) throws IOException;
+    }
+
+    /**
+     * Constructs a listing.
+     *
+     * @param heading The heading written before the rows, or null if there is no heading
+     * @param rowCount The number of rows
+     * @param rowWriter The writer of each row
+     */
+    public Listing(String heading, int rowCount, RowWriter rowWriter) {
+        this.heading = heading;
+        this.rowCount = rowCount;
+        this.rowWriter = rowWriter;
+    }
+
+    /**
+     * Returns the number of rows in the listing.
+     *
+     * @return The number of rows
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Writes the heading and all rows, separated by line breaks, without a trailing line break.
+     *
+     * @param out The output to write to
+     * @throws IOException If the output cannot be written to
+     */
+    public void render(Appendable out) throws IOException {
+        render(out, 0, this.rowCount);
+    }
+
+    /**
+     * Writes the heading and the rows in a range, separated by line breaks, without a trailing
+     * line break. Rows outside the range are not formatted.
+     *
+     * @param out The output to write to
+     * @param fromRow The position of the first row to write, inclusive
+     * @param toRow The position of the last row to write, exclusive
+     * @throws IOException If the output cannot be written to
+     */
+    public void render(Appendable out, int fromRow, int toRow) throws IOException {
+        boolean isFirstLine = true;
+        if (this.heading != null) {
+            out.append(this.heading);
+            isFirstLine = false;
+        }
+        for (int i = Math.max(fromRow, 0); i < Math.min(toRow, this.rowCount); i++) {
+            if (!isFirstLine) {
+                out.append('\n');
+            }
+            this.rowWriter.appendRow(out, i);
+            isFirstLine = false;
+        }
+    }
+
+    /**
+     * Returns the whole listing as a String, as produced by {@link #render(Appendable)}.
+     *
+     * @return The printout of the listing
+     */
+    @Override
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        try {
+            render(output);
+        } catch (IOException e) {
+            // Appending to a StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+}
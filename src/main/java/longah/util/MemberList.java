@@ -1,6 +1,8 @@
 package longah.util;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 
 import longah.handler.UI;
 import longah.node.Member;
@@ -12,13 +14,21 @@ import longah.exception.ExceptionMessage;
  * Represents a list of group members.
  */
 public class MemberList {
+    private static SettlementMode settlementMode = SettlementMode.GREEDY;
+
+    // Members in insertion order, indexed by name and by id for constant time lookups
     private ArrayList<Member> members;
+    private HashMap<String, Member> memberIndex;
+    private HashMap<Integer, Member> memberIdIndex;
+    private int nextMemberId = 0;
 
     /**
      * Constructs a new GroupList instance.
      */
     public MemberList() {
         this.members = new ArrayList<>();
+        this.memberIndex = new HashMap<>();
+        this.memberIdIndex = new HashMap<>();
     }
 
     /**
@@ -28,10 +38,10 @@ public class MemberList {
      * @throws LongAhException If the member already exists in the group.
      */
     public void addMember(Member member) throws LongAhException {
-        if (isMember(member)) {
+        if (isMember(member.getName())) {
             throw new LongAhException(ExceptionMessage.DUPLICATE_MEMBER);
         }
-        this.members.add(member);
+        indexMember(member);
     }
 
     /**
@@ -44,7 +54,7 @@ public class MemberList {
         if (isMember(name)) {
             throw new LongAhException(ExceptionMessage.DUPLICATE_MEMBER);
         }
-        this.members.add(new Member(name));
+        indexMember(new Member(name));
         UI.showMessage("Added member: " + name);
     }
 
@@ -60,7 +70,62 @@ public class MemberList {
         if (isMember(name)) {
             throw new LongAhException(ExceptionMessage.DUPLICATE_MEMBER);
         }
-        this.members.add(new Member(name, balance));
+        indexMember(new Member(name, balance));
+    }
+
+    /**
+     * Adds a member to the group with the specified name and balance in cents.
+     * For use in storage only.
+     *
+     * @param name The name of the member to add.
+     * @param balanceCents The balance of the member to add, in cents.
+     * @throws LongAhException If the member already exists in the group.
+     */
+    public void addMemberCents(String name, long balanceCents) throws LongAhException {
+        if (isMember(name)) {
+            throw new LongAhException(ExceptionMessage.DUPLICATE_MEMBER);
+        }
+        Member member = new Member(name);
+        member.setBalanceCents(balanceCents);
+        indexMember(member);
+    }
+
+    /**
+     * Adds a member to the group with the specified id, name and balance in cents.
+     * For use in storage only.
+     *
+     * @param id The id of the member to add.
+     * @param name The name of the member to add.
+     * @param balanceCents The balance of the member to add, in cents.
+     * @throws LongAhException If the member or the id already exists in the group.
+     */
+    public void addMemberCents(int id, String name, long balanceCents) throws LongAhException {
+        if (isMember(name)) {
+            throw new LongAhException(ExceptionMessage.DUPLICATE_MEMBER);
+        }
+        Member member = new Member(name);
+        member.setBalanceCents(balanceCents);
+        member.setId(id);
+        indexMember(member);
+    }
+
+    /**
+     * Appends a member to the list and the name and id indexes.
+     * Members without an id are given the next unused id of the group.
+     *
+     * @param member The member to add.
+     * @throws LongAhException If the id of the member already exists in the group.
+     */
+    private void indexMember(Member member) throws LongAhException {
+        if (member.getId() == Member.NO_ID) {
+            member.setId(this.nextMemberId);
+        } else if (this.memberIdIndex.containsKey(member.getId())) {
+            throw new LongAhException(ExceptionMessage.DUPLICATE_MEMBER);
+        }
+        this.nextMemberId = Math.max(this.nextMemberId, member.getId() + 1);
+        this.members.add(member);
+        this.memberIndex.put(member.getName(), member);
+        this.memberIdIndex.put(member.getId(), member);
     }
 
     /**
@@ -70,16 +135,7 @@ public class MemberList {
      * @return True if the member is in the group, false otherwise.
      */
     public boolean isMember(String name) {
-        if (this.members.isEmpty()) {
-            return false;
-        }
-
-        for (Member member : this.members) {
-            if (member.getName().equals(name)) {
-                return true;
-            }
-        }
-        return false;
+        return this.memberIndex.containsKey(name);
     }
 
     /**
@@ -89,7 +145,7 @@ public class MemberList {
      * @return True if the member is in the group, false otherwise.
      */
     public boolean isMember(Member member) {
-        return this.members.contains(member);
+        return member != null && this.memberIndex.get(member.getName()) == member;
     }
 
     /**
@@ -100,12 +156,26 @@ public class MemberList {
      * @throws LongAhException If the member does not exist in the group.
      */
     public Member getMember(String name) throws LongAhException {
-        for (Member member : members) {
-            if (member.getName().equals(name)) {
-                return member;
-            }
+        Member member = this.memberIndex.get(name);
+        if (member == null) {
+            throw new LongAhException(ExceptionMessage.MEMBER_NOT_FOUND);
         }
-        throw new LongAhException(ExceptionMessage.MEMBER_NOT_FOUND);
+        return member;
+    }
+
+    /**
+     * Returns the member with the specified id.
+     *
+     * @param id The id of the member.
+     * @return The member with the specified id.
+     * @throws LongAhException If no member has the id.
+     */
+    public Member getMemberById(int id) throws LongAhException {
+        Member member = this.memberIdIndex.get(id);
+        if (member == null) {
+            throw new LongAhException(ExceptionMessage.MEMBER_NOT_FOUND);
+        }
+        return member;
     }
 
     /**
@@ -113,15 +183,16 @@ public class MemberList {
      * 
      * @param oldName The old name of the member.
      * @param newName The new name of the member.
-     * @throws LongAhException If the index is invalid.
+     * @throws LongAhException If the old name is not found or the new name is invalid or taken.
      */
     public void editMemberName(String oldName, String newName) throws LongAhException {
-        try {
-            Member member = getMember(oldName);
-            member.setName(newName);
-        } catch (IndexOutOfBoundsException | NumberFormatException e) {
-            throw new LongAhException(ExceptionMessage.INVALID_INDEX);
+        Member member = getMember(oldName);
+        if (!oldName.equals(newName) && isMember(newName)) {
+            throw new LongAhException(ExceptionMessage.DUPLICATE_MEMBER);
         }
+        member.setName(newName);
+        this.memberIndex.remove(oldName);
+        this.memberIndex.put(newName, member);
     }
 
     /**
@@ -130,14 +201,20 @@ public class MemberList {
      * @throws LongAhException If there are no members in the group.
      */
     public String listMembers() throws LongAhException {
+        return getMemberListing().toString();
+    }
+
+    /**
+     * Returns a listing of the members in the group with their balances.
+     *
+     * @return The listing of the members.
+     * @throws LongAhException If there are no members in the group.
+     */
+    public Listing getMemberListing() throws LongAhException {
         if (members.isEmpty()) {
             throw new LongAhException(ExceptionMessage.NO_MEMBERS_FOUND);
         }
-        String output = "";
-        for (Member member : members) {
-            output += member + "\n";
-        }
-        return output.trim();
+        return new Listing(null, members.size(), (out, row) -> out.append(members.get(row).toString()));
     }
 
     /**
@@ -148,19 +225,112 @@ public class MemberList {
      */
     public void updateMembersBalance(TransactionList transactions) throws LongAhException {
         clearBalances();
-        if (transactions.getTransactions().isEmpty()) {
-            return;
+        TransactionStore store = transactions.getStore();
+        for (int i = 0; i < store.size(); i++) {
+            Member lender = store.getLender(i);
+            for (int j = 0; j < store.getSubtransactionCount(i); j++) {
+                long amount = store.getAmountCents(i, j);
+                lender.addToBalanceCents(amount);
+                store.getBorrower(i, j).subtractFromBalanceCents(amount);
+            }
         }
-        for (Transaction transaction : transactions.getTransactions()) {
-            for (Subtransaction subtransaction : transaction.getSubtransactions()) {
-                Member lender = subtransaction.getLender();
-                Member borrower = subtransaction.getBorrower();
-                double amount = subtransaction.getAmount();
-                lender.addToBalance(amount);
-                borrower.subtractFromBalance(amount);
+    }
+
+    /**
+     * Applies the balance effect of a single transaction to the members in the group.
+     * If any subtransaction cannot be applied, the subtransactions already applied are reverted.
+     *
+     * @param transaction The transaction to apply.
+     * @throws LongAhException If the transaction causes a balance overflow.
+     */
+    public void applyTransactionBalance(Transaction transaction) throws LongAhException {
+        ArrayList<Subtransaction> subtransactions = transaction.getSubtransactions();
+        for (int i = 0; i < subtransactions.size(); i++) {
+            try {
+                applySubtransactionBalance(subtransactions.get(i));
+            } catch (LongAhException e) {
+                for (int j = i - 1; j >= 0; j--) {
+                    revertSubtransactionBalance(subtransactions.get(j));
+                }
+                throw e;
             }
         }
-    } 
+    }
+
+    /**
+     * Reverts the balance effect of a single transaction from the members in the group.
+     *
+     * @param transaction The transaction to revert.
+     * @throws LongAhException If the transaction causes a balance overflow.
+     */
+    public void revertTransactionBalance(Transaction transaction) throws LongAhException {
+        for (Subtransaction subtransaction : transaction.getSubtransactions()) {
+            revertSubtransactionBalance(subtransaction);
+        }
+    }
+
+    /**
+     * Applies the balance effect of a single subtransaction to its lender and borrower.
+     *
+     * @param subtransaction The subtransaction to apply.
+     * @throws LongAhException If the subtransaction causes a balance overflow.
+     */
+    public void applySubtransactionBalance(Subtransaction subtransaction) throws LongAhException {
+        Member lender = subtransaction.getLender();
+        Member borrower = subtransaction.getBorrower();
+        long amount = subtransaction.getAmountCents();
+        lender.addToBalanceCents(amount);
+        try {
+            borrower.subtractFromBalanceCents(amount);
+        } catch (LongAhException e) {
+            lender.subtractFromBalanceCents(amount);
+            throw e;
+        }
+    }
+
+    /**
+     * Reverts the balance effect of a single subtransaction from its lender and borrower.
+     *
+     * @param subtransaction The subtransaction to revert.
+     * @throws LongAhException If the subtransaction causes a balance overflow.
+     */
+    public void revertSubtransactionBalance(Subtransaction subtransaction) throws LongAhException {
+        Member lender = subtransaction.getLender();
+        Member borrower = subtransaction.getBorrower();
+        long amount = subtransaction.getAmountCents();
+        lender.subtractFromBalanceCents(amount);
+        borrower.addToBalanceCents(amount);
+    }
+
+    /**
+     * Returns true if the current balances of the members match a full replay of the transactions.
+     * The member balances are left untouched.
+     *
+     * @param transactions The list of transactions to replay.
+     * @return True if every member balance matches the replayed balance, false otherwise.
+     */
+    public boolean verifyMembersBalance(TransactionList transactions) {
+        IdentityHashMap<Member, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < this.members.size(); i++) {
+            positions.put(this.members.get(i), i);
+        }
+        long[] replayedBalances = new long[this.members.size()];
+        TransactionStore store = transactions.getStore();
+        for (int i = 0; i < store.size(); i++) {
+            int lenderPosition = positions.get(store.getLender(i));
+            for (int j = 0; j < store.getSubtransactionCount(i); j++) {
+                long amount = store.getAmountCents(i, j);
+                replayedBalances[lenderPosition] += amount;
+                replayedBalances[positions.get(store.getBorrower(i, j))] -= amount;
+            }
+        }
+        for (int i = 0; i < this.members.size(); i++) {
+            if (replayedBalances[i] != this.members.get(i).getBalanceCents()) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     /**
      * Groups members into two lists: positive balances and negative balances.
@@ -177,9 +347,9 @@ public class MemberList {
         ArrayList<Member> negativeMembers = new ArrayList<>();
 
         for (Member member : members) {
-            if (member.getBalance() > 0) {
+            if (member.getBalanceCents() > 0) {
                 positiveMembers.add(member);
-            } else if (member.getBalance() < 0) {
+            } else if (member.getBalanceCents() < 0) {
                 negativeMembers.add(member);
             }
         }
@@ -196,14 +366,47 @@ public class MemberList {
     }
 
     /**
-     * Finds the least transaction needed to solve the balances of the group members.
-     * This is done by pairing up members with positive balances and negative balances.
-     * The members are then iterated through and the balances are solved by subtracting the
-     * negative balance from the positive balance until the transaction has been solved.
-     * 
+     * Sets the default strategy used to solve the balances of the group members.
+     *
+     * @param mode The settlement strategy to use.
+     */
+    public static void setSettlementMode(SettlementMode mode) {
+        settlementMode = mode;
+    }
+
+    /**
+     * Returns the default strategy used to solve the balances of the group members.
+     *
+     * @return The default settlement strategy.
+     */
+    public static SettlementMode getSettlementMode() {
+        return settlementMode;
+    }
+
+    /**
+     * Finds the transactions needed to solve the balances of the group members using the
+     * default settlement mode.
+     *
      * @return The list of subtransactions needed to solve the balances of the group members.
      */
     public ArrayList<Subtransaction> solveTransactions() throws LongAhException {
+        return solveTransactions(settlementMode);
+    }
+
+    /**
+     * Finds the transactions needed to solve the balances of the group members using the
+     * given settlement mode. The minimum transfer mode falls back to the greedy solution
+     * for groups with more members than the limit of {@link MinimumTransferSolver}.
+     *
+     * @param mode The settlement strategy to use.
+     * @return The list of subtransactions needed to solve the balances of the group members.
+     */
+    public ArrayList<Subtransaction> solveTransactions(SettlementMode mode) throws LongAhException {
+        if (mode == SettlementMode.LARGEST_FIRST) {
+            // Works on the member list directly without classifying members
+            return LargestFirstSolver.solve(this.members);
+        }
+
         ArrayList<ArrayList<Member>> classifiedMembers;
         try {
             classifiedMembers = classifyMembers();
@@ -215,11 +418,28 @@ public class MemberList {
         ArrayList<Member> negativeMembers = classifiedMembers.get(1);
         assert !positiveMembers.isEmpty() && !negativeMembers.isEmpty() : "Members should be classified.";
 
+        if (mode == SettlementMode.MINIMUM_TRANSFERS) {
+            return MinimumTransferSolver.solve(positiveMembers, negativeMembers);
+        }
+        return settleGreedily(positiveMembers, negativeMembers);
+    }
+
+    /**
+     * Solves the balances of the given members by pairing up members with positive balances and
+     * negative balances. The members are then iterated through and the balances are solved by
+     * subtracting the negative balance from the positive balance until the transaction has been solved.
+     *
+     * @param positiveMembers The members with positive balances.
+     * @param negativeMembers The members with negative balances.
+     * @return The list of subtransactions needed to solve the balances of the members.
+     */
+    static ArrayList<Subtransaction> settleGreedily(ArrayList<Member> positiveMembers,
+            ArrayList<Member> negativeMembers) {
         ArrayList<Subtransaction> subtransactions = new ArrayList<>();
         int positiveIndex = 0;
         int negativeIndex = 0;
-        double positiveBalance = 0;
-        double negativeBalance = 0;
+        long positiveBalance = 0;
+        long negativeBalance = 0;
         Member positiveMember = positiveMembers.get(positiveIndex);
         Member negativeMember = negativeMembers.get(negativeIndex);
 
@@ -229,11 +449,11 @@ public class MemberList {
             // If either balance is 0, move to their respective next member
             if (positiveBalance == 0) {
                 positiveMember = positiveMembers.get(positiveIndex);
-                positiveBalance = positiveMember.getBalance();
+                positiveBalance = positiveMember.getBalanceCents();
             }
             if (negativeBalance == 0) {
                 negativeMember = negativeMembers.get(negativeIndex);
-                negativeBalance = Math.abs(negativeMember.getBalance());
+                negativeBalance = -negativeMember.getBalanceCents();
             }
 
             // Check the current pair for which balance is greater or if equal
@@ -296,6 +516,17 @@ public class MemberList {
         return getMember(name).getBalance();
     }
 
+    /**
+     * Returns the balance in cents of the member with the specified name.
+     *
+     * @param name The name of the member to get the balance of.
+     * @return The balance in cents of the member with the specified name.
+     * @throws LongAhException If the member does not exist in the group.
+     */
+    public long getMemberBalanceCents(String name) throws LongAhException {
+        return getMember(name).getBalanceCents();
+    }
+
     /**
      * Iterates through the members list and clears their balances.
      */
@@ -312,8 +543,19 @@ public class MemberList {
      * @throws LongAhException If the member does not exist in the group.
      */
     public void deleteMember(String name) throws LongAhException {
-        Member member = getMember(name);
-        members.remove(member);
+        removeMember(getMember(name));
         UI.showMessage("Deleted member: " + name);
     }
+
+    /**
+     * Removes a member from the group without printing a message.
+     * For use in storage only.
+     *
+     * @param member The member to remove.
+     */
+    public void removeMember(Member member) {
+        members.remove(member);
+        memberIndex.remove(member.getName());
+        memberIdIndex.remove(member.getId());
+    }
 }
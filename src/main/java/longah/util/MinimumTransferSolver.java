@@ -0,0 +1,304 @@
+package longah.util;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import longah.node.Member;
+
+/**
+ * Solves the balances of a group with the minimum number of transfers.
+ * A group of k members with non-zero balances can always be settled in k - 1 transfers, and every
+ * subset of members whose balances sum to zero can be settled among themselves. The minimum number
+ * of transfers is therefore k minus the maximum number of disjoint zero-sum subsets, which is found
+ * with a dynamic programme over bitmasks of members. Small groups are computed in one ascending pass
+ * over the bitmasks. In larger groups, each layer of bitmasks with the same number of members is
+ * computed in parallel on the common fork-join pool, visiting only the bitmasks of that layer.
+ */
+public class MinimumTransferSolver {
+    public static final int DEFAULT_MEMBER_LIMIT = 16;
+    public static final int MAX_MEMBER_LIMIT = 24;
+    private static final int SEQUENTIAL_BITS = 12;
+    private static final int SEQUENTIAL_THRESHOLD = 1 << SEQUENTIAL_BITS;
+
+    private static int memberLimit = DEFAULT_MEMBER_LIMIT;
+
+    private final Member[] members;
+    private final long[] lowSums;
+    private final long[] highSums;
+    private final int lowBits;
+    private final byte[] zeroSumGroups;
+
+    /**
+     * Constructs a new solver for the given members with non-zero balances.
+     *
+     * @param members The members with non-zero balances.
+     */
+    private MinimumTransferSolver(Member[] members) {
+        this.members = members;
+        this.lowBits = members.length / 2;
+        this.lowSums = subsetSums(0, this.lowBits);
+        this.highSums = subsetSums(this.lowBits, members.length);
+        this.zeroSumGroups = new byte[1 << members.length];
+    }
+
+    /**
+     * Sets the maximum number of members with non-zero balances solved exactly.
+     * Groups with more such members are solved greedily. Values are clamped to {@link #MAX_MEMBER_LIMIT}
+     * as the memory and time needed grow exponentially with the number of members.
+     *
+     * @param limit The maximum number of members solved exactly.
+     */
+    public static void setMemberLimit(int limit) {
+        memberLimit = Math.max(0, Math.min(limit, MAX_MEMBER_LIMIT));
+    }
+
+    /**
+     * Returns the maximum number of members with non-zero balances solved exactly.
+     *
+     * @return The maximum number of members solved exactly.
+     */
+    public static int getMemberLimit() {
+        return memberLimit;
+    }
+
+    /**
+     * Returns whether the balances of the given number of members can be solved exactly.
+     *
+     * @param memberCount The number of members with non-zero balances.
+     * @return True if the members are within the member limit, false otherwise.
+     */
+    public static boolean isSolvable(int memberCount) {
+        return memberCount <= memberLimit;
+    }
+
+    /**
+     * Finds the minimum list of subtransactions needed to solve the balances of the given members.
+     * Falls back to the greedy solution if the balances do not sum to zero or their sums overflow.
+     *
+     * @param positiveMembers The members with positive balances.
+     * @param negativeMembers The members with negative balances.
+     * @return The list of subtransactions needed to solve the balances of the members.
+     */
+    public static ArrayList<Subtransaction> solve(ArrayList<Member> positiveMembers,
+            ArrayList<Member> negativeMembers) {
+        ArrayList<Member> allMembers = new ArrayList<>(positiveMembers);
+        allMembers.addAll(negativeMembers);
+        if (!isSolvable(allMembers.size()) || !isBalanced(allMembers)) {
+            return MemberList.settleGreedily(positiveMembers, negativeMembers);
+        }
+
+        MinimumTransferSolver solver = new MinimumTransferSolver(allMembers.toArray(new Member[0]));
+        solver.computeZeroSumGroups();
+        return solver.settleGroups();
+    }
+
+    /**
+     * Returns whether the balances of the members sum to zero without overflowing.
+     *
+     * @param members The members to check.
+     * @return True if the balances sum to zero, false otherwise.
+     */
+    private static boolean isBalanced(ArrayList<Member> members) {
+        long positiveTotal = 0;
+        long negativeTotal = 0;
+        try {
+            for (Member member : members) {
+                long balance = member.getBalanceCents();
+                if (balance > 0) {
+                    positiveTotal = Math.addExact(positiveTotal, balance);
+                } else {
+                    negativeTotal = Math.subtractExact(negativeTotal, balance);
+                }
+            }
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        return positiveTotal == negativeTotal;
+    }
+
+    /**
+     * Returns the balance sums of all subsets of the members in the given index range.
+     *
+     * @param from The index of the first member, inclusive.
+     * @param to The index of the last member, exclusive.
+     * @return The balance sums indexed by the bitmask of the subset.
+     */
+    private long[] subsetSums(int from, int to) {
+        long[] sums = new long[1 << (to - from)];
+        for (int mask = 1; mask < sums.length; mask++) {
+            int lowestBit = Integer.numberOfTrailingZeros(mask);
+            sums[mask] = sums[mask & (mask - 1)] + this.members[from + lowestBit].getBalanceCents();
+        }
+        return sums;
+    }
+
+    /**
+     * Returns whether the balances of the members in the subset sum to zero.
+     *
+     * @param mask The bitmask of the subset.
+     * @return True if the balances of the subset sum to zero, false otherwise.
+     */
+    private boolean isZeroSum(int mask) {
+        int lowMask = (1 << this.lowBits) - 1;
+        return this.lowSums[mask & lowMask] + this.highSums[mask >>> this.lowBits] == 0;
+    }
+
+    /**
+     * Computes the maximum number of disjoint zero-sum groups for every subset of the members.
+     * Each subset depends only on the subsets with one member fewer, which have smaller bitmasks, so
+     * small groups are computed in one ascending pass. Larger groups are computed in layers of
+     * increasing size, with the bitmasks of a layer split by their high bits across tasks.
+     */
+    private void computeZeroSumGroups() {
+        if (this.zeroSumGroups.length <= SEQUENTIAL_THRESHOLD) {
+            for (int mask = 1; mask < this.zeroSumGroups.length; mask++) {
+                computeZeroSumGroups(mask);
+            }
+            return;
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int prefixCount = this.zeroSumGroups.length >>> SEQUENTIAL_BITS;
+        for (int layer = 1; layer <= this.members.length; layer++) {
+            pool.invoke(new LayerTask(layer, 0, prefixCount));
+        }
+    }
+
+    /**
+     * Computes the subsets of a layer whose bitmasks share the same high bits, enumerating only the
+     * low bits with the number of members still needed for the layer.
+     *
+     * @param layer The number of members in each subset.
+     * @param prefix The high bits of the bitmasks.
+     */
+    private void computeLayer(int layer, int prefix) {
+        int lowLayer = layer - Integer.bitCount(prefix);
+        if (lowLayer < 0 || lowLayer > SEQUENTIAL_BITS) {
+            return;
+        }
+        int highMask = prefix << SEQUENTIAL_BITS;
+        if (lowLayer == 0) {
+            computeZeroSumGroups(highMask);
+            return;
+        }
+        for (int low = (1 << lowLayer) - 1; low < SEQUENTIAL_THRESHOLD; low = nextCombination(low)) {
+            computeZeroSumGroups(highMask | low);
+        }
+    }
+
+    /**
+     * Returns the next larger bitmask with the same number of bits set.
+     *
+     * @param mask The bitmask, which must not be zero.
+     * @return The next bitmask with the same number of bits set.
+     */
+    private static int nextCombination(int mask) {
+        int lowestBit = mask & -mask;
+        int ripple = mask + lowestBit;
+        return ripple | (((mask ^ ripple) >>> 2) / lowestBit);
+    }
+
+    /**
+     * Computes the maximum number of disjoint zero-sum groups for a subset of the members.
+     *
+     * @param mask The bitmask of the subset.
+     */
+    private void computeZeroSumGroups(int mask) {
+        int best = 0;
+        for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            int bit = remaining & -remaining;
+            best = Math.max(best, this.zeroSumGroups[mask ^ bit]);
+        }
+        this.zeroSumGroups[mask] = (byte) (isZeroSum(mask) ? best + 1 : best);
+    }
+
+    /**
+     * Splits the members into the maximum number of zero-sum groups and settles each group greedily.
+     * Each group of size s is settled in at most s - 1 transfers.
+     *
+     * @return The list of subtransactions needed to solve the balances of the members.
+     */
+    private ArrayList<Subtransaction> settleGroups() {
+        ArrayList<Subtransaction> subtransactions = new ArrayList<>();
+        int mask = this.zeroSumGroups.length - 1;
+        int groupMask = mask;
+        while (mask != 0) {
+            int target = this.zeroSumGroups[mask] - (isZeroSum(mask) ? 1 : 0);
+            int bit = mask & -mask;
+            for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+                if (this.zeroSumGroups[mask ^ (remaining & -remaining)] == target) {
+                    bit = remaining & -remaining;
+                    break;
+                }
+            }
+            mask ^= bit;
+            if (isZeroSum(mask)) {
+                // Members removed since the previous zero-sum subset form a zero-sum group
+                subtransactions.addAll(settleGroup(groupMask ^ mask));
+                groupMask = mask;
+            }
+        }
+        return subtransactions;
+    }
+
+    /**
+     * Settles the balances of a zero-sum group of members greedily.
+     *
+     * @param mask The bitmask of the group.
+     * @return The list of subtransactions needed to solve the balances of the group.
+     */
+    private ArrayList<Subtransaction> settleGroup(int mask) {
+        ArrayList<Member> positiveMembers = new ArrayList<>();
+        ArrayList<Member> negativeMembers = new ArrayList<>();
+        for (int i = 0; i < this.members.length; i++) {
+            if ((mask & (1 << i)) == 0) {
+                continue;
+            }
+            if (this.members[i].getBalanceCents() > 0) {
+                positiveMembers.add(this.members[i]);
+            } else {
+                negativeMembers.add(this.members[i]);
+            }
+        }
+        return MemberList.settleGreedily(positiveMembers, negativeMembers);
+    }
+
+    /**
+     * Computes one layer of subsets of the same size over a range of high bits of the bitmasks.
+     */
+    private class LayerTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int layer;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructs a new task for the subsets of the given size in the given range of high bits.
+         *
+         * @param layer The number of members in each subset.
+         * @param from The first high bits, inclusive.
+         * @param to The last high bits, exclusive.
+         */
+        LayerTask(int layer, int from, int to) {
+            this.layer = layer;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Computes the layer directly for a single value of the high bits, otherwise splits the
+         * range in half.
+         */
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                computeLayer(this.layer, this.from);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new LayerTask(this.layer, this.from, middle),
+                    new LayerTask(this.layer, middle, this.to));
+        }
+    }
+}
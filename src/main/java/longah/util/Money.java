@@ -0,0 +1,250 @@
+package longah.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+import longah.exception.ExceptionMessage;
+import longah.exception.LongAhException;
+
+/**
+ * Represents monetary amounts as a primitive number of cents.
+ * All balances and amounts in the application are stored as cents in a long,
+ * which keeps sums exact and avoids boxing and BigDecimal allocation.
+ */
+public class Money {
+    public static final long CENTS_PER_DOLLAR = 100;
+    private static final long MAX_DOLLARS = Long.MAX_VALUE / CENTS_PER_DOLLAR;
+    private static final int CENT_DIGITS = 2;
+
+    /**
+     * Parses a dollar amount with at most 2 decimal places into cents.
+     * Plain decimal expressions are parsed directly from the characters of the expression.
+     * Other expressions accepted by {@link Double#parseDouble(String)} are parsed as before.
+     * Accepting any character sequence allows amounts to be parsed from a view of a storage file
+     * without creating a String for each amount.
+     *
+     * @param value The dollar amount to parse.
+     * @return The amount in cents.
+     * @throws LongAhException If the amount is not a number, has more than 2 decimal places or overflows.
+     */
+    public static long parseCents(CharSequence value) throws LongAhException {
+        int length = value.length();
+        int i = 0;
+        boolean isNegative = false;
+        if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            isNegative = value.charAt(i) == '-';
+            i++;
+        }
+
+        long dollars = 0;
+        int dollarDigits = 0;
+        while (i < length && isDigit(value.charAt(i))) {
+            int digit = value.charAt(i) - '0';
+            if (dollars > (MAX_DOLLARS - digit) / 10) {
+                throw new LongAhException(ExceptionMessage.BALANCE_OVERFLOW);
+            }
+            dollars = dollars * 10 + digit;
+            dollarDigits++;
+            i++;
+        }
+
+        long cents = 0;
+        int centDigits = 0;
+        boolean hasExcessPrecision = false;
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(value.charAt(i))) {
+                int digit = value.charAt(i) - '0';
+                if (centDigits < CENT_DIGITS) {
+                    cents = cents * 10 + digit;
+                } else if (digit != 0) {
+                    hasExcessPrecision = true;
+                }
+                centDigits++;
+                i++;
+            }
+        }
+
+        if (i != length || dollarDigits + centDigits == 0) {
+            // Not a plain decimal expression, e.g. scientific notation
+            return parseCentsFromDouble(value.toString());
+        }
+        if (hasExcessPrecision) {
+            throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
+        }
+        if (centDigits == 1) {
+            cents *= 10;
+        }
+        long total = dollars * CENTS_PER_DOLLAR + cents;
+        if (total < 0) {
+            throw new LongAhException(ExceptionMessage.BALANCE_OVERFLOW);
+        }
+        return isNegative ? -total : total;
+    }
+
+    /**
+     * Parses an amount through {@link Double#parseDouble(String)} into cents.
+     * Used only for expressions which are not plain decimals.
+     *
+     * @param value The dollar amount to parse.
+     * @return The amount in cents.
+     * @throws LongAhException If the amount is not a number, has more than 2 decimal places or overflows.
+     */
+    private static long parseCentsFromDouble(String value) throws LongAhException {
+        double amount;
+        try {
+            amount = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
+        }
+
+        BigDecimal decimal;
+        try {
+            decimal = BigDecimal.valueOf(amount);
+        } catch (NumberFormatException e) {
+            // Infinite values cannot be represented
+            throw new LongAhException(ExceptionMessage.BALANCE_OVERFLOW);
+        }
+        if (decimal.scale() > CENT_DIGITS) {
+            throw new LongAhException(ExceptionMessage.INVALID_TRANSACTION_VALUE);
+        }
+        try {
+            return decimal.movePointRight(CENT_DIGITS).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new LongAhException(ExceptionMessage.BALANCE_OVERFLOW);
+        }
+    }
+
+    /**
+     * Converts a dollar amount into cents, rounding to the nearest cent.
+     *
+     * @param amount The dollar amount to convert.
+     * @return The amount in cents.
+     * @throws LongAhException If the amount cannot be represented in cents.
+     */
+    public static long toCents(double amount) throws LongAhException {
+        if (Double.isNaN(amount) || Math.abs(amount) >= MAX_DOLLARS) {
+            throw new LongAhException(ExceptionMessage.BALANCE_OVERFLOW);
+        }
+        return Math.round(amount * CENTS_PER_DOLLAR);
+    }
+
+    /**
+     * Converts an amount in cents into dollars.
+     *
+     * @param cents The amount in cents.
+     * @return The amount in dollars.
+     */
+    public static double toDollars(long cents) {
+        return (double) cents / CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Returns the amount formatted with exactly 2 decimal places, e.g. "-1234.50".
+     *
+     * @param cents The amount in cents.
+     * @return The formatted amount.
+     */
+    public static String toString(long cents) {
+        StringBuilder builder = new StringBuilder();
+        append(builder, cents, false);
+        return builder.toString();
+    }
+
+    /**
+     * Returns the amount formatted with thousands separators and exactly 2 decimal places, e.g. "1,234.50".
+     *
+     * @param cents The amount in cents.
+     * @return The formatted amount.
+     */
+    public static String toGroupedString(long cents) {
+        StringBuilder builder = new StringBuilder();
+        append(builder, cents, true);
+        return builder.toString();
+    }
+
+    /**
+     * Returns the shortest decimal form of the amount, e.g. "9.0", "3.1" or "1.55".
+     * Matches the form previously produced by {@link Double#toString(double)} for storage and settlement.
+     *
+     * @param cents The amount in cents.
+     * @return The formatted amount.
+     */
+    public static String toShortString(long cents) {
+        long remainder = Math.abs(cents % CENTS_PER_DOLLAR);
+        StringBuilder builder = new StringBuilder();
+        if (cents < 0) {
+            builder.append('-');
+        }
+        builder.append(Math.abs(cents / CENTS_PER_DOLLAR)).append('.');
+        if (remainder % 10 == 0) {
+            builder.append(remainder / 10);
+        } else {
+            builder.append((char) ('0' + remainder / 10)).append((char) ('0' + remainder % 10));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Appends the amount with exactly 2 decimal places to the builder.
+     *
+     * @param builder The builder to append to.
+     * @param cents The amount in cents.
+     * @param isGrouped Whether thousands separators are added to the dollar part.
+     */
+    public static void append(StringBuilder builder, long cents, boolean isGrouped) {
+        try {
+            append((Appendable) builder, cents, isGrouped);
+        } catch (IOException e) {
+            // Appending to a StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the amount with exactly 2 decimal places to an output, such as a writer, without
+     * creating a String for the amount.
+     *
+     * @param out The output to append to.
+     * @param cents The amount in cents.
+     * @param isGrouped Whether thousands separators are added to the dollar part.
+     * @throws IOException If the output cannot be written to.
+     */
+    public static void append(Appendable out, long cents, boolean isGrouped) throws IOException {
+        if (cents < 0) {
+            out.append('-');
+        }
+        long dollars = Math.abs(cents / CENTS_PER_DOLLAR);
+        long divisor = 1;
+        int digitCount = 1;
+        while (divisor <= dollars / 10) {
+            divisor *= 10;
+            digitCount++;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + dollars / divisor % 10));
+            digitCount--;
+            if (isGrouped && digitCount > 0 && digitCount % 3 == 0) {
+                out.append(',');
+            }
+        }
+        out.append('.');
+        appendCents(out, Math.abs(cents % CENTS_PER_DOLLAR));
+    }
+
+    /**
+     * Appends a cent remainder as exactly 2 digits.
+     *
+     * @param out The output to append to.
+     * @param remainder The cent remainder between 0 and 99.
+     * @throws IOException If the output cannot be written to.
+     */
+    private static void appendCents(Appendable out, long remainder) throws IOException {
+        out.append((char) ('0' + remainder / 10)).append((char) ('0' + remainder % 10));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,135 @@
+package longah.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import longah.node.Member;
+import longah.node.Transaction;
+
+/**
+ * Represents the direct debts between each pair of members of a group before simplification.
+ * For each member id, the ledger keeps a sparse map from the id of every counterpart with a
+ * non-zero net amount to the amount in cents the counterpart owes the member. The entries of a
+ * pair are kept symmetric, so a pair can be queried in O(1) and a member broken down in O(degree).
+ */
+public class PairwiseLedger {
+    private HashMap<Integer, HashMap<Integer, Long>> netAmounts = new HashMap<>();
+
+    /**
+     * Adds the effect of all subtransactions of a transaction to the ledger.
+     *
+     * @param transaction The transaction to add.
+     */
+    public void applyTransaction(Transaction transaction) {
+        for (Subtransaction subtransaction : transaction.getSubtransactions()) {
+            applySubtransaction(subtransaction);
+        }
+    }
+
+    /**
+     * Removes the effect of all subtransactions of a transaction from the ledger.
+     *
+     * @param transaction The transaction to remove.
+     */
+    public void revertTransaction(Transaction transaction) {
+        for (Subtransaction subtransaction : transaction.getSubtransactions()) {
+            revertSubtransaction(subtransaction);
+        }
+    }
+
+    /**
+     * Adds the effect of a subtransaction to the ledger.
+     *
+     * @param subtransaction The subtransaction to add.
+     */
+    public void applySubtransaction(Subtransaction subtransaction) {
+        record(subtransaction.getLender(), subtransaction.getBorrower(), subtransaction.getAmountCents());
+    }
+
+    /**
+     * Removes the effect of a subtransaction from the ledger.
+     *
+     * @param subtransaction The subtransaction to remove.
+     */
+    public void revertSubtransaction(Subtransaction subtransaction) {
+        record(subtransaction.getLender(), subtransaction.getBorrower(), -subtransaction.getAmountCents());
+    }
+
+    /**
+     * Rebuilds the ledger from all transactions of a group.
+     *
+     * @param transactions The transactions of the group.
+     */
+    public void rebuild(TransactionList transactions) {
+        this.netAmounts.clear();
+        TransactionStore store = transactions.getStore();
+        for (int i = 0; i < store.size(); i++) {
+            Member lender = store.getLender(i);
+            for (int j = 0; j < store.getSubtransactionCount(i); j++) {
+                record(lender, store.getBorrower(i, j), store.getAmountCents(i, j));
+            }
+        }
+    }
+
+    /**
+     * Returns the net amount the other member owes the member directly.
+     *
+     * @param member The member who is owed the amount.
+     * @param other The member who owes the amount.
+     * @return The net amount in cents, which is negative if the member owes the other member.
+     */
+    public long getNetCents(Member member, Member other) {
+        HashMap<Integer, Long> counterparts = this.netAmounts.get(member.getId());
+        if (counterparts == null) {
+            return 0;
+        }
+        return counterparts.getOrDefault(other.getId(), 0L);
+    }
+
+    /**
+     * Returns the net amounts owed directly to the member by each of its counterparts.
+     *
+     * @param member The member to break down.
+     * @return An unmodifiable map from the id of each counterpart to the net amount in cents it owes the member.
+     */
+    public Map<Integer, Long> getCounterparts(Member member) {
+        HashMap<Integer, Long> counterparts = this.netAmounts.get(member.getId());
+        if (counterparts == null) {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(counterparts);
+    }
+
+    /**
+     * Records an amount lent by the lender to the borrower in both entries of the pair.
+     *
+     * @param lender The member who lent the amount.
+     * @param borrower The member who borrowed the amount.
+     * @param amount The amount in cents, which is negative to undo a previous amount.
+     */
+    private void record(Member lender, Member borrower, long amount) {
+        adjust(lender.getId(), borrower.getId(), amount);
+        adjust(borrower.getId(), lender.getId(), -amount);
+    }
+
+    /**
+     * Adjusts the net amount the counterpart owes the member, removing entries which reach zero.
+     *
+     * @param memberId The id of the member who is owed the amount.
+     * @param counterpartId The id of the member who owes the amount.
+     * @param amount The change in the net amount in cents.
+     */
+    private void adjust(int memberId, int counterpartId, long amount) {
+        HashMap<Integer, Long> counterparts = this.netAmounts.computeIfAbsent(memberId, id -> new HashMap<>());
+        long netAmount = counterparts.getOrDefault(counterpartId, 0L) + amount;
+        if (netAmount != 0) {
+            counterparts.put(counterpartId, netAmount);
+            return;
+        }
+        counterparts.remove(counterpartId);
+        if (counterparts.isEmpty()) {
+            this.netAmounts.remove(memberId);
+        }
+    }
+}
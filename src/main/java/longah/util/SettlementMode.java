@@ -0,0 +1,13 @@
+package longah.util;
+
+/**
+ * Represents the strategies available for solving the debts of a group.
+ */
+public enum SettlementMode {
+    // Pairs creditors and debtors in member list order
+    GREEDY,
+    // Finds the minimum number of transfers by partitioning balances into zero-sum subsets
+    MINIMUM_TRANSFERS,
+    // Matches the largest creditor with the largest debtor regardless of member list order
+    LARGEST_FIRST
+}
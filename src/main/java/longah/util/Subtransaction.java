@@ -8,16 +8,16 @@ import longah.node.Member;
 public class Subtransaction {
     private Member lender;
     private Member borrower;
-    private double amount;
+    private long amount; // In cents
 
     /**
      * Constructs a new Subtransaction instance with the given lender, person borrower, and amount.
      * 
      * @param lender The lender who lends out money in the subtransaction.
      * @param borrower The borrower who borrows money in the subtransaction.
-     * @param amount The amount borrowed in the subtransaction.
+     * @param amount The amount borrowed in the subtransaction, in cents.
      */
-    public Subtransaction(Member lender, Member borrower, double amount) {
+    public Subtransaction(Member lender, Member borrower, long amount) {
         this.lender = lender;
         this.borrower = borrower;
         this.amount = amount;
@@ -44,9 +44,18 @@ public class Subtransaction {
     /**
      * Returns the amount owed in the subtransaction.
      * 
-     * @return The amount owed in the subtransaction.
+     * @return The amount owed in the subtransaction, in dollars.
      */
     public double getAmount() {
+        return Money.toDollars(amount);
+    }
+
+    /**
+     * Returns the amount owed in the subtransaction in cents.
+     *
+     * @return The amount owed in the subtransaction, in cents.
+     */
+    public long getAmountCents() {
         return amount;
     }
 
@@ -67,8 +76,6 @@ public class Subtransaction {
      */
     @Override
     public String toString() {
-        double rounded = (double)Math.round(amount * 100) / 100;
-        String roundedString = String.format("%.2f", rounded);
-        return borrower.getName() + " owes " + lender.getName() + " $" + roundedString;
+        return borrower.getName() + " owes " + lender.getName() + " $" + Money.toString(amount);
     }
 }
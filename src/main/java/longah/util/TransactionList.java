@@ -1,6 +1,8 @@
 package longah.util;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 import longah.handler.UI;
 import longah.node.Group;
@@ -13,7 +15,45 @@ import longah.exception.ExceptionMessage;
  * Represents a list of transactions.
  */
 public class TransactionList {
-    private ArrayList<Transaction> transactions = new ArrayList<>();
+    private static boolean isColumnarStore = false;
+
+    private IndexedTransactionStore transactions;
+
+    /**
+     * Constructs a new empty transaction list with the default transaction store.
+     */
+    public TransactionList() {
+        this(isColumnarStore ? new ColumnarTransactionStore() : new ListTransactionStore());
+    }
+
+    /**
+     * Constructs a new empty transaction list backed by the given transaction store.
+     * The transactions of each member are indexed on top of the store.
+     *
+     * @param transactions The store to hold the transactions in.
+     */
+    public TransactionList(TransactionStore transactions) {
+        this.transactions = new IndexedTransactionStore(transactions);
+    }
+
+    /**
+     * Sets whether new transaction lists store their transactions in primitive columns
+     * instead of as transaction objects.
+     *
+     * @param isEnabled Whether the columnar transaction store is used by default
+     */
+    public static void setColumnarStore(boolean isEnabled) {
+        isColumnarStore = isEnabled;
+    }
+
+    /**
+     * Returns whether new transaction lists store their transactions in primitive columns.
+     *
+     * @return Whether the columnar transaction store is used by default
+     */
+    public static boolean isColumnarStore() {
+        return isColumnarStore;
+    }
 
     /**
      * Adds a transaction to the list.
@@ -52,9 +92,9 @@ public class TransactionList {
         Transaction toAddTransaction = new Transaction(expression, memberList);
         this.transactions.add(toAddTransaction);
         try {
-            group.updateTransactionSolution();
+            group.applyTransaction(toAddTransaction);
         } catch (LongAhException e) {
-            this.transactions.remove(toAddTransaction);
+            this.transactions.remove(this.transactions.size() - 1);
             throw e;
         }
         UI.showMessage("Transaction added successfully!");
@@ -71,19 +111,23 @@ public class TransactionList {
     }
 
     /**
-     * Removes a transaction from the list by index.
+     * Removes a transaction from the list by index and reverts its balance effect in the group.
      *
      * @param indexString The index of the transaction to remove.
+     * @param group The group of the transaction to remove.
+     * @return The 0-based index of the removed transaction.
      * @throws LongAhException If the index is invalid.
      */
-    public void remove(String indexString) throws LongAhException {
+    public int remove(String indexString, Group group) throws LongAhException {
         int index = Integer.parseInt(indexString) - 1;
         if (index < 0 || index >= this.transactions.size()) {
             throw new LongAhException(ExceptionMessage.INVALID_INDEX);
         }
         Transaction removedTransaction = this.transactions.remove(index);
+        group.revertTransaction(removedTransaction);
         UI.showMessage("Transaction #" + indexString + " removed successfully.");
         UI.showMessage(removedTransaction.toString());
+        return index;
     }
 
     /**
@@ -98,10 +142,21 @@ public class TransactionList {
 
     /**
      * Gets the list of transactions.
+     * For a columnar transaction store, the transactions are created on each call and
+     * changes to them are not reflected in the list.
      *
      * @return The list of transactions.
      */
     public ArrayList<Transaction> getTransactions() {
+        return this.transactions.toList();
+    }
+
+    /**
+     * Returns the store holding the transactions, for scanning transactions without creating transaction objects.
+     *
+     * @return The transaction store.
+     */
+    public TransactionStore getStore() {
         return this.transactions;
     }
 
@@ -109,17 +164,21 @@ public class TransactionList {
      * Returns a String printout the list of transactions stored in the system.
      */
     public String listTransactions() throws LongAhException {
+        return getTransactionListing().toString();
+    }
+
+    /**
+     * Returns a listing of all transactions stored in the system, numbered by their positions.
+     *
+     * @return The listing of the transactions
+     * @throws LongAhException If there are no transactions
+     */
+    public Listing getTransactionListing() throws LongAhException {
         int transactionListSize = getTransactionListSize();
         if (transactionListSize == 0) {
             throw new LongAhException(ExceptionMessage.NO_TRANSACTION_FOUND);
         }
-        int index = 1;
-        String outString = "";
-        for (Transaction transaction : this.transactions) {
-            outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-            index++;
-        }
-        return outString.trim();
+        return new Listing(null, transactionListSize, this::appendTransaction);
     }
 
     /**
@@ -131,23 +190,24 @@ public class TransactionList {
      * @return Returns a String printout of the required list of transactions
      */
     public String findLender(String lenderName, MemberList members) throws LongAhException {
+        return getLenderListing(lenderName, members).toString();
+    }
+
+    /**
+     * Returns a listing of the transactions in which a member is the lender.
+     *
+     * @param lenderName The name of the member
+     * @param members The member list to search for the name in
+     * @return The listing of the transactions
+     * @throws LongAhException If the member is not found or lent in no transaction
+     */
+    public Listing getLenderListing(String lenderName, MemberList members) throws LongAhException {
         if (!members.isMember(lenderName)) {
             throw new LongAhException(ExceptionMessage.MEMBER_NOT_FOUND);
         }
-        int index = 1;
-        int printCount = 0;
-        String outString = String.format("%s is a lender in the following list of transaction(s).", lenderName) + "\n";
-        for (Transaction transaction : this.transactions) {
-            if (transaction.checkIsLender(lenderName)) {
-                outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-                printCount++;
-            }
-            index++;
-        }
-        if (printCount == 0) {
-            throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
-        }
-        return outString.trim();
+        List<Integer> positions = this.transactions.getLenderPositions(members.getMember(lenderName));
+        return getListingAt(lenderName + " is a lender in the following list of transaction(s).",
+                positions, ExceptionMessage.TRANSACTIONS_SUMMED_UP);
     }
 
     /**
@@ -159,24 +219,24 @@ public class TransactionList {
      * @return Returns a String printout of the required list of transactions
      */
     public String findBorrower(String borrowerName, MemberList members) throws LongAhException {
+        return getBorrowerListing(borrowerName, members).toString();
+    }
+
+    /**
+     * Returns a listing of the transactions in which a member is a borrower.
+     *
+     * @param borrowerName The name of the member
+     * @param members The member list to search for the name in
+     * @return The listing of the transactions
+     * @throws LongAhException If the member is not found or borrowed in no transaction
+     */
+    public Listing getBorrowerListing(String borrowerName, MemberList members) throws LongAhException {
         if (!members.isMember(borrowerName)) {
             throw new LongAhException(ExceptionMessage.MEMBER_NOT_FOUND);
         }
-        int index = 1;
-        int printCount = 0;
-        String outString =
-                String.format("%s is a borrower in the following list of transaction(s).", borrowerName) + "\n";
-        for (Transaction transaction : this.transactions) {
-            if (transaction.checkIsBorrower(borrowerName)) {
-                outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-                printCount++;
-            }
-            index++;
-        }
-        if (printCount == 0) {
-            throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
-        }
-        return outString.trim();
+        List<Integer> positions = this.transactions.getBorrowerPositions(members.getMember(borrowerName));
+        return getListingAt(borrowerName + " is a borrower in the following list of transaction(s).",
+                positions, ExceptionMessage.TRANSACTIONS_SUMMED_UP);
     }
 
     /**
@@ -188,23 +248,68 @@ public class TransactionList {
      * @return Returns a String printout of the required list of transactions
      */
     public String findTransactions(String name, MemberList members) throws LongAhException {
+        return getInvolvedListing(name, members).toString();
+    }
+
+    /**
+     * Returns a listing of the transactions in which a member is the lender or a borrower.
+     *
+     * @param name The name of the member
+     * @param members The member list to search for the name in
+     * @return The listing of the transactions
+     * @throws LongAhException If the member is not found or is in no transaction
+     */
+    public Listing getInvolvedListing(String name, MemberList members) throws LongAhException {
         if (!members.isMember(name)) {
             throw new LongAhException(ExceptionMessage.MEMBER_NOT_FOUND);
         }
-        int index = 1;
-        int printCount = 0;
-        String outString = String.format("%s is a part of the following list of transaction(s).", name) + "\n";
-        for (Transaction transaction : this.transactions) {
-            if (transaction.isInvolved(name)) {
-                outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-                printCount++;
-            }
-            index++;
-        }
-        if (printCount == 0) {
-            throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
+        List<Integer> positions = this.transactions.getInvolvedPositions(members.getMember(name));
+        return getListingAt(name + " is a part of the following list of transaction(s).",
+                positions, ExceptionMessage.TRANSACTIONS_SUMMED_UP);
+    }
+
+    /**
+     * Returns a listing of the transactions matching a query, found through the indexes of the
+     * transactions. See {@link TransactionQuery} for the conditions of a query.
+     *
+     * @param expression The expression of the query
+     * @param members The member list to look up the members of the query in
+     * @return The listing of the matching transactions
+     * @throws LongAhException If the query is invalid or no transaction matches it
+     */
+    public Listing getQueryListing(String expression, MemberList members) throws LongAhException {
+        List<Integer> positions = new TransactionQuery(expression, members).findPositions(this.transactions);
+        return getListingAt("The following list of transactions matches the query.", positions,
+                ExceptionMessage.NO_TRANSACTION_FOUND);
+    }
+
+    /**
+     * Returns a listing of the transactions at the given positions under a heading.
+     *
+     * @param heading The heading of the listing.
+     * @param positions The positions of the transactions in ascending order.
+     * @param notFoundMessage The message of the exception thrown if there are no positions.
+     * @return The listing of the transactions.
+     * @throws LongAhException If there are no positions.
+     */
+    private Listing getListingAt(String heading, List<Integer> positions, ExceptionMessage notFoundMessage)
+            throws LongAhException {
+        if (positions.isEmpty()) {
+            throw new LongAhException(notFoundMessage);
         }
-        return outString.trim();
+        return new Listing(heading, positions.size(), (out, row) -> appendTransaction(out, positions.get(row)));
+    }
+
+    /**
+     * Writes the printout of the transaction at a position, numbered by its position.
+     *
+     * @param out The output to write to.
+     * @param position The position of the transaction.
+     * @throws IOException If the output cannot be written to.
+     */
+    private void appendTransaction(Appendable out, int position) throws IOException {
+        out.append(Integer.toString(position + 1)).append(".\n");
+        this.transactions.get(position).appendTo(out);
     }
 
     //@@author FeathersRe
@@ -216,26 +321,22 @@ public class TransactionList {
      * @throws LongAhException If there are no matching transactions
      */
     public String filterTransactionsEqualToDateTime(String dateTime) throws LongAhException {
+        return getEqualToDateTimeListing(dateTime).toString();
+    }
+
+    /**
+     * Returns a listing of the transactions matching a transaction time.
+     *
+     * @param dateTime String expression of the date time to filter
+     * @return The listing of the transactions
+     * @throws LongAhException If the date time is invalid or there are no matching transactions
+     */
+    public Listing getEqualToDateTimeListing(String dateTime) throws LongAhException {
         DateTime dateTimeToCompare = new DateTime(dateTime);
-        int index = 0;
-        int printCount = 0;
-        String outString = "The following list of transactions matches with the time " + dateTimeToCompare + ".\n";
-        for (Transaction transaction : this.transactions) {
-            try {
-                index++;
-                if (transaction.getTransactionTime().isEqual(dateTimeToCompare)) {
-                    outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-                    printCount++;
-                }
-            } catch (NullPointerException e) {
-                // Skip the transaction if the transaction time is not set
-                continue;
-            }
-        }
-        if (printCount == 0) {
-            throw new LongAhException(ExceptionMessage.NO_TRANSACTION_FOUND);
-        }
-        return outString.trim();
+        long minutesToCompare = dateTimeToCompare.toEpochMinutes();
+        List<Integer> positions = this.transactions.getPositionsInTimeRange(minutesToCompare, minutesToCompare);
+        return getListingAt("The following list of transactions matches with the time " + dateTimeToCompare
+                + ".", positions, ExceptionMessage.NO_TRANSACTION_FOUND);
     }
 
     /**
@@ -246,26 +347,23 @@ public class TransactionList {
      * @throws LongAhException If there are no matching transactions
      */
     public String filterTransactionsBeforeDateTime(String dateTime) throws LongAhException {
+        return getBeforeDateTimeListing(dateTime).toString();
+    }
+
+    /**
+     * Returns a listing of the transactions before a transaction time.
+     *
+     * @param dateTime String expression of the date time to filter
+     * @return The listing of the transactions
+     * @throws LongAhException If the date time is invalid or there are no matching transactions
+     */
+    public Listing getBeforeDateTimeListing(String dateTime) throws LongAhException {
         DateTime dateTimeToCompare = new DateTime(dateTime);
-        int index = 0;
-        int printCount = 0;
-        String outString = "The following list of transactions is before the time " + dateTimeToCompare + ".\n";
-        for (Transaction transaction : this.transactions) {
-            try {
-                index++;
-                if (transaction.getTransactionTime().isBefore(dateTimeToCompare)) {
-                    outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-                    printCount++;
-                }
-            } catch (NullPointerException e) {
-                // Skip the transaction if the transaction time is not set
-                continue;
-            }
-        }
-        if (printCount == 0) {
-            throw new LongAhException(ExceptionMessage.NO_TRANSACTION_FOUND);
-        }
-        return outString.trim();
+        long minutesToCompare = dateTimeToCompare.toEpochMinutes();
+        // Transactions without a time are not in the time index
+        List<Integer> positions = this.transactions.getPositionsInTimeRange(Long.MIN_VALUE, minutesToCompare - 1);
+        return getListingAt("The following list of transactions is before the time " + dateTimeToCompare
+                + ".", positions, ExceptionMessage.NO_TRANSACTION_FOUND);
     }
 
     /**
@@ -276,26 +374,22 @@ public class TransactionList {
      * @throws LongAhException If there are no matching transactions
      */
     public String filterTransactionsAfterDateTime(String dateTime) throws LongAhException {
+        return getAfterDateTimeListing(dateTime).toString();
+    }
+
+    /**
+     * Returns a listing of the transactions after a transaction time.
+     *
+     * @param dateTime String expression of the date time to filter
+     * @return The listing of the transactions
+     * @throws LongAhException If the date time is invalid or there are no matching transactions
+     */
+    public Listing getAfterDateTimeListing(String dateTime) throws LongAhException {
         DateTime dateTimeToCompare = new DateTime(dateTime);
-        int index = 0;
-        int printCount = 0;
-        String outString = "The following list of transactions is after the time " + dateTimeToCompare + ".\n";
-        for (Transaction transaction : this.transactions) {
-            try {
-                index++;
-                if (transaction.getTransactionTime().isAfter(dateTimeToCompare)) {
-                    outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-                    printCount++;
-                }
-            } catch (NullPointerException e) {
-                // Skip the transaction if the transaction time is not set
-                continue;
-            }
-        }
-        if (printCount == 0) {
-            throw new LongAhException(ExceptionMessage.NO_TRANSACTION_FOUND);
-        }
-        return outString.trim();
+        long minutesToCompare = dateTimeToCompare.toEpochMinutes();
+        List<Integer> positions = this.transactions.getPositionsInTimeRange(minutesToCompare + 1, Long.MAX_VALUE);
+        return getListingAt("The following list of transactions is after the time " + dateTimeToCompare
+                + ".", positions, ExceptionMessage.NO_TRANSACTION_FOUND);
     }
 
     /**
@@ -307,43 +401,44 @@ public class TransactionList {
      * @throws LongAhException If the date time filter is invalid or there is no transaction found
      */
     public String filterTransactionsBetweenDateTime(String fromDateTime, String toDateTime) throws LongAhException {
+        return getBetweenDateTimeListing(fromDateTime, toDateTime).toString();
+    }
+
+    /**
+     * Returns a listing of the transactions strictly between two transaction times.
+     *
+     * @param fromDateTime String expression of the earlier bound of the period to filter
+     * @param toDateTime String expression of the later bound of the period to filter
+     * @return The listing of the transactions
+     * @throws LongAhException If the date time filter is invalid or there are no matching transactions
+     */
+    public Listing getBetweenDateTimeListing(String fromDateTime, String toDateTime) throws LongAhException {
         DateTime fromDateTimeToCompare = new DateTime(fromDateTime);
         DateTime toDateTimeToCompare = new DateTime(toDateTime);
         if (toDateTimeToCompare.isBefore(fromDateTimeToCompare)) {
             throw new LongAhException(ExceptionMessage.INVALID_DATE_TIME_FILTER);
         }
-        int index = 0;
-        int printCount = 0;
-        String outString = "The following list of transactions is between the time " + fromDateTimeToCompare +
-                " and " + toDateTimeToCompare + ".\n";
-        for (Transaction transaction : this.transactions) {
-            try {
-                index++;
-                if (transaction.getTransactionTime().isAfter(fromDateTimeToCompare) &&
-                        transaction.getTransactionTime().isBefore(toDateTimeToCompare)) {
-                    outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-                    printCount++;
-                }
-            } catch (NullPointerException e) {
-                // Skip the transaction if the transaction time is not set
-                continue;
-            }
-        }
-        if (printCount == 0) {
-            throw new LongAhException(ExceptionMessage.NO_TRANSACTION_FOUND);
-        }
-        return outString.trim();
+        long fromMinutes = fromDateTimeToCompare.toEpochMinutes();
+        long toMinutes = toDateTimeToCompare.toEpochMinutes();
+        // Both times are excluded from the range
+        List<Integer> positions = this.transactions.getPositionsInTimeRange(fromMinutes + 1, toMinutes - 1);
+        return getListingAt("The following list of transactions is between the time " + fromDateTimeToCompare
+                + " and " + toDateTimeToCompare + ".", positions, ExceptionMessage.NO_TRANSACTION_FOUND);
     }
     //@@author
 
     /**
-     * Edits a transaction from the list by index with new expression.
-     * 
+     * Replaces a transaction in the list by index with a transaction parsed from the new expression,
+     * and applies the change in balance to the group.
+     *
      * @param expression The new expression to edit the transaction with.
      * @param memberList The member list to edit the transaction with.
+     * @param group The group of the transaction to edit.
+     * @return The 0-based index of the edited transaction.
      * @throws LongAhException If the index is invalid or if the edit input is in an invalid format.
      */
-    public void editTransactionList(String expression, MemberList memberList) throws LongAhException {
+    public int editTransactionList(String expression, MemberList memberList, Group group)
+            throws LongAhException {
         String[] indexTransactionSplice = expression.split(" ", 2);
         if (indexTransactionSplice.length != 2) {
             throw new LongAhException(ExceptionMessage.INVALID_EDIT_COMMAND);
@@ -354,9 +449,17 @@ public class TransactionList {
             if (index < 0 || index >= transactions.size()) {
                 throw new LongAhException(ExceptionMessage.INVALID_INDEX);
             }
-            transactions.get(index).editTransaction(indexTransactionSplice[1], memberList);
+            Transaction newTransaction = new Transaction(indexTransactionSplice[1], memberList);
+            Transaction oldTransaction = transactions.set(index, newTransaction);
+            try {
+                group.replaceTransaction(oldTransaction, newTransaction);
+            } catch (LongAhException e) {
+                transactions.set(index, oldTransaction);
+                throw e;
+            }
             UI.showMessage("Transaction #" + (index + 1) + " edited successfully.");
-            UI.showMessage(transactions.get(index).toString());
+            UI.showMessage(newTransaction.toString());
+            return index;
         } catch (NumberFormatException e) {
             throw new LongAhException(ExceptionMessage.INVALID_INDEX);
         }
@@ -366,24 +469,28 @@ public class TransactionList {
      * Printout the list of transactions which a person is involved as a borrower
      *
      * @param borrowerName containing the String representation of the name of person to search for
+     * @param members The member list to look up the person in
      * @return Returns a String printout of the required list of transactions
      */
-    public String findDebts(String borrowerName) throws LongAhException {
-        String outString = String.format("%s is involved as the payee in the following list of transactions."
-                , borrowerName) + "\n";
-        int index = 1;
-        int printCount = 0;
-        for (Transaction transaction : this.transactions) {
-            if (transaction.checkIsBorrower(borrowerName)) {
-                outString = outString + String.format("%d.\n%s", index, transaction) + "\n";
-                printCount++;
-            }
-            index++;
-        }
-        if (printCount == 0) {
+    public String findDebts(String borrowerName, MemberList members) throws LongAhException {
+        return getDebtListing(borrowerName, members).toString();
+    }
+
+    /**
+     * Returns a listing of the transactions in which a person is a borrower.
+     *
+     * @param borrowerName The name of the person
+     * @param members The member list to look up the person in
+     * @return The listing of the transactions
+     * @throws LongAhException If the person is not a member or no transaction has the person as a borrower
+     */
+    public Listing getDebtListing(String borrowerName, MemberList members) throws LongAhException {
+        if (!members.isMember(borrowerName)) {
             throw new LongAhException(ExceptionMessage.TRANSACTIONS_SUMMED_UP);
         }
-        return outString.trim();
+        List<Integer> positions = this.transactions.getBorrowerPositions(members.getMember(borrowerName));
+        return getListingAt(borrowerName + " is involved as the payee in the following list of transactions.",
+                positions, ExceptionMessage.TRANSACTIONS_SUMMED_UP);
     }
 
     /**
@@ -394,15 +501,30 @@ public class TransactionList {
      * @throws LongAhException If the member is not found in the list.
      */
     public void deleteMember(String name, MemberList members) throws LongAhException {
-        Member member = members.getMember(name);
-        int size = transactions.size();
-        for (int i = 0; i < size; i++) {
-            boolean isDiscard = transactions.get(i).deleteMember(member);
-            if (isDiscard) {
-                transactions.remove(i);
-                size--;
-                i--;
-            }
-        }
+        deleteMember(members.getMember(name));
+    }
+
+    /**
+     * Deletes a member from all transactions in the list and reverts the balance effect
+     * of the removed subtransactions in the group.
+     *
+     * @param name The name of the member to delete.
+     * @param members The list of members to delete from.
+     * @param group The group of the member to delete.
+     * @throws LongAhException If the member is not found in the list.
+     */
+    public void deleteMember(String name, MemberList members, Group group) throws LongAhException {
+        ArrayList<Subtransaction> removedSubtransactions = deleteMember(members.getMember(name));
+        group.revertSubtransactions(removedSubtransactions);
+    }
+
+    /**
+     * Deletes a member from all transactions in the list.
+     *
+     * @param member The member to delete.
+     * @return The list of subtransactions removed from the transaction list.
+     */
+    private ArrayList<Subtransaction> deleteMember(Member member) {
+        return this.transactions.deleteMember(member);
     }
 }
@@ -0,0 +1,212 @@
+package longah.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import longah.handler.Logging;
+import longah.node.Member;
+import longah.exception.LongAhException;
+import longah.exception.ExceptionMessage;
+
+/**
+ * Represents a query over a transaction list combining conditions on the lender, a borrower, the
+ * transaction time and the amount, written as "l/LENDER p/BORROWER a/DateTime b/DateTime
+ * min/AMOUNT max/AMOUNT". Every condition is optional, but at least one must be given, and a
+ * transaction matches if it meets all of them.
+ * The query is planned against the indexes of the transaction store: the condition whose index
+ * yields the fewest positions drives the search, the positions of the other member conditions are
+ * intersected with it, and the time and amount conditions are checked on each remaining candidate.
+ * Only a query with no indexed condition scans all transactions.
+ */
+public class TransactionQuery {
+    private static final String LENDER_PREFIX = "l/";
+    private static final String BORROWER_PREFIX = "p/";
+    private static final String AFTER_PREFIX = "a/";
+    private static final String BEFORE_PREFIX = "b/";
+    private static final String MIN_AMOUNT_PREFIX = "min/";
+    private static final String MAX_AMOUNT_PREFIX = "max/";
+    private static final String CONDITION_PATTERN = "\\s+(?=(l|p|a|b|min|max)/)";
+
+    // Plans
+    static final String FULL_SCAN_PLAN = "full scan";
+    static final String LENDER_INDEX_PLAN = "lender index";
+    static final String BORROWER_INDEX_PLAN = "borrower index";
+    static final String TIME_INDEX_PLAN = "time index";
+
+    private Member lender = null;
+    private Member borrower = null;
+    private boolean hasTimeRange = false;
+    private long fromMinutes = Long.MIN_VALUE;
+    private long toMinutes = Long.MAX_VALUE;
+    private boolean hasAmountRange = false;
+    private long minCents = Long.MIN_VALUE;
+    private long maxCents = Long.MAX_VALUE;
+    private String plan = null;
+
+    /**
+     * Constructs a query from its expression. As with the filter command, the a/ and b/ times are
+     * excluded from the time range, and the min/ and max/ amounts are included in the amount range.
+     * The amount of a transaction is the amount owed by the borrower of the query if there is one,
+     * or else the total amount of the transaction.
+     *
+     * @param expression The expression of the query
+     * @param members The member list to look up the lender and borrower in
+     * @throws LongAhException If the expression is invalid or a member is not found
+     */
+    public TransactionQuery(String expression, MemberList members) throws LongAhException {
+        String trimmedExpression = expression.trim();
+        if (trimmedExpression.isEmpty()) {
+            throw new LongAhException(ExceptionMessage.INVALID_QUERY_COMMAND);
+        }
+        DateTime after = null;
+        DateTime before = null;
+        boolean hasMinAmount = false;
+        boolean hasMaxAmount = false;
+        for (String condition : trimmedExpression.split(CONDITION_PATTERN)) {
+            if (condition.startsWith(LENDER_PREFIX) && this.lender == null) {
+                this.lender = members.getMember(getValue(condition, LENDER_PREFIX));
+            } else if (condition.startsWith(BORROWER_PREFIX) && this.borrower == null) {
+                this.borrower = members.getMember(getValue(condition, BORROWER_PREFIX));
+            } else if (condition.startsWith(AFTER_PREFIX) && after == null) {
+                after = new DateTime(getValue(condition, AFTER_PREFIX));
+            } else if (condition.startsWith(BEFORE_PREFIX) && before == null) {
+                before = new DateTime(getValue(condition, BEFORE_PREFIX));
+            } else if (condition.startsWith(MIN_AMOUNT_PREFIX) && !hasMinAmount) {
+                this.minCents = Money.parseCents(getValue(condition, MIN_AMOUNT_PREFIX));
+                hasMinAmount = true;
+            } else if (condition.startsWith(MAX_AMOUNT_PREFIX) && !hasMaxAmount) {
+                this.maxCents = Money.parseCents(getValue(condition, MAX_AMOUNT_PREFIX));
+                hasMaxAmount = true;
+            } else {
+                // Unknown or repeated condition
+                throw new LongAhException(ExceptionMessage.INVALID_QUERY_COMMAND);
+            }
+        }
+
+        if (after != null && before != null && before.isBefore(after)) {
+            throw new LongAhException(ExceptionMessage.INVALID_DATE_TIME_FILTER);
+        }
+        if (after != null) {
+            this.fromMinutes = after.toEpochMinutes() + 1;
+            this.hasTimeRange = true;
+        }
+        if (before != null) {
+            this.toMinutes = before.toEpochMinutes() - 1;
+            this.hasTimeRange = true;
+        }
+        if (this.minCents > this.maxCents) {
+            throw new LongAhException(ExceptionMessage.INVALID_QUERY_COMMAND);
+        }
+        this.hasAmountRange = hasMinAmount || hasMaxAmount;
+    }
+
+    /**
+     * Returns the positions of the transactions matching the query.
+     *
+     * @param store The indexed store to search
+     * @return The positions of the matching transactions in ascending order
+     */
+    public List<Integer> findPositions(IndexedTransactionStore store) {
+        List<Integer> lenderPositions = this.lender == null ? null : store.getLenderPositions(this.lender);
+        List<Integer> borrowerPositions = this.borrower == null ? null : store.getBorrowerPositions(this.borrower);
+
+        // Drive the search with the smallest list of positions from the member indexes
+        List<Integer> candidates = null;
+        String plan = FULL_SCAN_PLAN;
+        if (lenderPositions != null) {
+            candidates = lenderPositions;
+            plan = LENDER_INDEX_PLAN;
+        }
+        if (borrowerPositions != null && (candidates == null || borrowerPositions.size() < candidates.size())) {
+            candidates = borrowerPositions;
+            plan = BORROWER_INDEX_PLAN;
+        }
+        // The time index is only counted up to the size of the member candidates
+        boolean isTimeChecked = this.hasTimeRange;
+        if (this.hasTimeRange && (candidates == null
+                || store.countPositionsInTimeRange(this.fromMinutes, this.toMinutes, candidates.size())
+                        < candidates.size())) {
+            candidates = store.getPositionsInTimeRange(this.fromMinutes, this.toMinutes);
+            plan = TIME_INDEX_PLAN;
+            isTimeChecked = false;
+        }
+
+        ArrayList<Integer> positions = new ArrayList<>();
+        int candidateCount = candidates == null ? store.size() : candidates.size();
+        for (int i = 0; i < candidateCount; i++) {
+            int position = candidates == null ? i : candidates.get(i);
+            if (candidates != lenderPositions && !isIn(lenderPositions, position)) {
+                continue;
+            }
+            if (candidates != borrowerPositions && !isIn(borrowerPositions, position)) {
+                continue;
+            }
+            if (isTimeChecked && !isInTimeRange(store.getTimeMinutes(position))) {
+                continue;
+            }
+            if (this.hasAmountRange && !isInAmountRange(getAmountCents(store, position))) {
+                continue;
+            }
+            positions.add(position);
+        }
+        Logging.logInfo("Query planned with " + plan + ": " + candidateCount + " candidates, "
+                + positions.size() + " matches.");
+        this.plan = plan;
+        return positions;
+    }
+
+    /**
+     * Returns the plan chosen when the query was last run, which names the index that drove the search.
+     *
+     * @return The plan of the last run, or null if the query has not been run
+     */
+    String getPlan() {
+        return this.plan;
+    }
+
+    /**
+     * Returns whether a position is in a sorted list of positions from an index.
+     *
+     * @param indexPositions The positions from the index, or null if the condition is not in the query
+     * @param position The position to find
+     * @return Whether the position is in the list, or true if the condition is not in the query
+     */
+    private static boolean isIn(List<Integer> indexPositions, int position) {
+        return indexPositions == null || Collections.binarySearch(indexPositions, position) >= 0;
+    }
+
+    private boolean isInTimeRange(long time) {
+        return time != TransactionStore.NO_TIME && time >= this.fromMinutes && time <= this.toMinutes;
+    }
+
+    private boolean isInAmountRange(long cents) {
+        return cents >= this.minCents && cents <= this.maxCents;
+    }
+
+    /**
+     * Returns the amount of a transaction compared with the amount range, which is the amount owed by
+     * the borrower of the query if there is one, or else the total amount of the transaction.
+     *
+     * @param store The store holding the transaction
+     * @param position The position of the transaction
+     * @return The amount in cents
+     */
+    private long getAmountCents(TransactionStore store, int position) {
+        long total = 0;
+        for (int i = 0; i < store.getSubtransactionCount(position); i++) {
+            if (this.borrower == null || store.getBorrower(position, i) == this.borrower) {
+                total += store.getAmountCents(position, i);
+            }
+        }
+        return total;
+    }
+
+    private static String getValue(String condition, String prefix) throws LongAhException {
+        String value = condition.substring(prefix.length()).trim();
+        if (value.isEmpty()) {
+            throw new LongAhException(ExceptionMessage.INVALID_QUERY_COMMAND);
+        }
+        return value;
+    }
+}
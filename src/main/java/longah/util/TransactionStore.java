@@ -0,0 +1,119 @@
+package longah.util;
+
+import java.util.ArrayList;
+
+import longah.node.Member;
+import longah.node.Transaction;
+
+/**
+ * Represents the backing storage of the transactions of a {@link TransactionList}.
+ * Transactions are addressed by their 0-based position in the list. The primitive accessors allow
+ * transactions to be scanned without creating {@link Transaction} objects for stores which do not
+ * hold them.
+ */
+public interface TransactionStore {
+    // Time of transactions which were recorded without a time
+    long NO_TIME = Long.MIN_VALUE;
+
+    /**
+     * Returns the number of transactions in the store.
+     *
+     * @return The number of transactions.
+     */
+    int size();
+
+    /**
+     * Returns the transaction at the given position.
+     *
+     * @param index The position of the transaction.
+     * @return The transaction at the position.
+     */
+    Transaction get(int index);
+
+    /**
+     * Appends a transaction to the store.
+     *
+     * @param transaction The transaction to add.
+     */
+    void add(Transaction transaction);
+
+    /**
+     * Replaces the transaction at the given position.
+     *
+     * @param index The position of the transaction.
+     * @param transaction The new transaction.
+     * @return The transaction previously at the position.
+     */
+    Transaction set(int index, Transaction transaction);
+
+    /**
+     * Removes the transaction at the given position.
+     *
+     * @param index The position of the transaction.
+     * @return The removed transaction.
+     */
+    Transaction remove(int index);
+
+    /**
+     * Removes all transactions from the store.
+     */
+    void clear();
+
+    /**
+     * Removes a member from all transactions. Transactions lent by the member, or left without
+     * borrowers, are removed entirely.
+     *
+     * @param member The member to remove.
+     * @return The subtransactions removed from the store.
+     */
+    ArrayList<Subtransaction> deleteMember(Member member);
+
+    /**
+     * Returns all transactions in the store in order.
+     *
+     * @return The list of transactions.
+     */
+    ArrayList<Transaction> toList();
+
+    /**
+     * Returns the lender of the transaction at the given position.
+     *
+     * @param index The position of the transaction.
+     * @return The lender of the transaction.
+     */
+    Member getLender(int index);
+
+    /**
+     * Returns the time of the transaction at the given position in minutes since the epoch.
+     *
+     * @param index The position of the transaction.
+     * @return The time of the transaction, or {@link #NO_TIME} if it has no time.
+     */
+    long getTimeMinutes(int index);
+
+    /**
+     * Returns the number of borrowers of the transaction at the given position.
+     *
+     * @param index The position of the transaction.
+     * @return The number of subtransactions of the transaction.
+     */
+    int getSubtransactionCount(int index);
+
+    /**
+     * Returns a borrower of the transaction at the given position.
+     *
+     * @param index The position of the transaction.
+     * @param subIndex The position of the subtransaction within the transaction.
+     * @return The borrower of the subtransaction.
+     */
+    Member getBorrower(int index, int subIndex);
+
+    /**
+     * Returns an amount of the transaction at the given position.
+     *
+     * @param index The position of the transaction.
+     * @param subIndex The position of the subtransaction within the transaction.
+     * @return The amount of the subtransaction in cents.
+     */
+    long getAmountCents(int index, int subIndex);
+}
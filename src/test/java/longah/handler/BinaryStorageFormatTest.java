@@ -0,0 +1,75 @@
+package longah.handler;
+
+import org.junit.jupiter.api.Test;
+
+import longah.node.Member;
+import longah.node.Transaction;
+import longah.util.MemberList;
+import longah.util.TransactionList;
+import longah.exception.LongAhException;
+import longah.exception.ExceptionMessage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class BinaryStorageFormatTest {
+    /**
+     * Returns the encoded data of a group with Alice, Bob and Charlie and three transactions.
+     *
+     * @return The encoded data.
+     */
+    private byte[] encodeGroup() throws LongAhException {
+        // Members and transactions are added silently so that UI does not bind to standard input here
+        MemberList members = new MemberList();
+        members.addMember(new Member("Alice"));
+        members.addMember(new Member("Bob"));
+        members.addMember(new Member("Charlie"));
+        TransactionList transactions = new TransactionList();
+        transactions.addTransaction(new Transaction("Alice t/02-01-2024 1200 p/Bob a/5 p/Charlie a/2.5", members));
+        transactions.addTransaction(new Transaction("Bob p/Charlie a/3", members));
+        transactions.addTransaction(new Transaction("Charlie t/01-01-2024 0900 p/Alice a/1.05", members));
+        transactions.deleteMember("Bob", members);
+        members.removeMember(members.getMember("Bob"));
+        members.updateMembersBalance(transactions);
+        return BinaryStorageFormat.encode(members, transactions);
+    }
+
+    /**
+     * Tests that decoding encoded data restores the members, balances and transactions.
+     */
+    @Test
+    public void decode_encodedGroup_success() {
+        try {
+            byte[] data = encodeGroup();
+            assertTrue(BinaryStorageFormat.isBinaryFormat(data));
+            MemberList members = new MemberList();
+            TransactionList transactions = new TransactionList();
+            BinaryStorageFormat.decode(data, members, transactions);
+            assertEquals("Alice: $1.45\nCharlie: -$1.45", members.listMembers());
+            assertEquals(2, members.getMember("Charlie").getId());
+            String expected = "1.\nLender: Alice\nTransaction time: 02-01-2024 1200\n"
+                    + "Borrower 1: Charlie Owed amount: $2.50\n"
+                    + "2.\nLender: Charlie\nTransaction time: 01-01-2024 0900\n"
+                    + "Borrower 1: Alice Owed amount: $1.05";
+            assertEquals(expected, transactions.listTransactions());
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that data with a changed byte fails the checksum.
+     */
+    @Test
+    public void decode_corruptedData_exceptionThrown() {
+        try {
+            byte[] data = encodeGroup();
+            data[data.length / 2] ^= 1;
+            BinaryStorageFormat.decode(data, new MemberList(), new TransactionList());
+            fail();
+        } catch (LongAhException e) {
+            assertEquals(ExceptionMessage.STORAGE_FILE_CORRUPTED.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package longah.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import longah.exception.ExceptionMessage;
+import longah.exception.LongAhException;
+import longah.node.Group;
+import longah.util.GroupList;
+import longah.util.MemberList;
+import longah.util.MinimumTransferSolver;
+import longah.util.SettlementMode;
+import longah.util.TransactionList;
+
+public class ConfigHandlerTest {
+    @AfterEach
+    public void tearDown() {
+        StorageHandler.setWriteBehind(false);
+        StorageHandler.setMaxWriteDelay(1000);
+        StorageHandler.setJournalMode(false);
+        StorageHandler.setCheckpointLimits(1000, 1 << 20);
+        StorageHandler.setBinaryFormat(false);
+        GroupList.setCacheLimits(0, 0);
+        GroupList.setPreloadGroups(false);
+        Group.setFastStart(false);
+        MemberList.setSettlementMode(SettlementMode.GREEDY);
+        MinimumTransferSolver.setMemberLimit(MinimumTransferSolver.DEFAULT_MEMBER_LIMIT);
+        TransactionList.setColumnarStore(false);
+        Group.setLedgerVerification(false);
+    }
+
+    /**
+     * Tests that the write-behind settings are applied from the lines of a config file.
+     */
+    @Test
+    public void loadSettings_writeBehind_applied() {
+        ConfigHandler.loadSettings(List.of("# background saves", "write-behind=true", "", "max-write-delay = 50"));
+        assertTrue(StorageHandler.isWriteBehind());
+        assertEquals(50, StorageHandler.getMaxWriteDelay());
+    }
+
+    /**
+     * Tests that the journal settings are applied, with each checkpoint limit set on its own.
+     */
+    @Test
+    public void loadSettings_journal_applied() {
+        ConfigHandler.loadSettings(List.of("journal=true", "checkpoint-records=50", "checkpoint-bytes=4096"));
+        assertTrue(StorageHandler.isJournalMode());
+        assertEquals(50, StorageHandler.getCheckpointRecordLimit());
+        assertEquals(4096, StorageHandler.getCheckpointByteLimit());
+    }
+
+    /**
+     * Tests that the storage format is applied from the lines of a config file.
+     */
+    @Test
+    public void loadSettings_storageFormat_applied() {
+        ConfigHandler.loadSettings(List.of("storage-format=binary"));
+        assertTrue(StorageHandler.isBinaryFormat());
+        ConfigHandler.loadSettings(List.of("storage-format=text"));
+        assertFalse(StorageHandler.isBinaryFormat());
+    }
+
+    /**
+     * Tests that the group settings are applied, with each limit of the group cache set on its own.
+     */
+    @Test
+    public void loadSettings_groupSettings_applied() {
+        ConfigHandler.loadSettings(List.of("cache-groups=3", "cache-bytes=65536", "preload-groups=true",
+                "fast-start=true"));
+        assertEquals(3, GroupList.getMaxLoadedGroups());
+        assertEquals(65536, GroupList.getMaxLoadedBytes());
+        assertTrue(GroupList.isCacheLimited());
+        assertTrue(GroupList.isPreloadGroups());
+        assertTrue(Group.isFastStart());
+    }
+
+    /**
+     * Tests that the settlement settings are applied from the lines of a config file.
+     */
+    @Test
+    public void loadSettings_settlementSettings_applied() {
+        ConfigHandler.loadSettings(List.of("settlement-mode=largest-first", "solver-members=10"));
+        assertEquals(SettlementMode.LARGEST_FIRST, MemberList.getSettlementMode());
+        assertEquals(10, MinimumTransferSolver.getMemberLimit());
+        ConfigHandler.loadSettings(List.of("settlement-mode=minimum-transfers"));
+        assertEquals(SettlementMode.MINIMUM_TRANSFERS, MemberList.getSettlementMode());
+    }
+
+    /**
+     * Tests that the columnar store setting is applied from the lines of a config file.
+     */
+    @Test
+    public void loadSettings_columnarStore_applied() {
+        ConfigHandler.loadSettings(List.of("columnar-store=true"));
+        assertTrue(TransactionList.isColumnarStore());
+        ConfigHandler.loadSettings(List.of("columnar-store=false"));
+        assertFalse(TransactionList.isColumnarStore());
+    }
+
+    /**
+     * Tests that the ledger verification setting is applied from the lines of a config file.
+     */
+    @Test
+    public void loadSettings_verifyLedger_applied() {
+        ConfigHandler.loadSettings(List.of("verify-ledger=true"));
+        assertTrue(Group.isLedgerVerified());
+    }
+
+    /**
+     * Tests that saving a setting replaces the line of its key and keeps the other lines.
+     */
+    @Test
+    public void saveSetting_existingKey_lineReplaced() {
+        Path configPath = Paths.get("./data/config.txt");
+        try {
+            StorageHandler.initDir();
+            Files.write(configPath, List.of("# comment", "storage-format=text", "journal=true"));
+            ConfigHandler.saveSetting("storage-format", "binary");
+            assertEquals(List.of("# comment", "storage-format=binary", "journal=true"),
+                    Files.readAllLines(configPath));
+            ConfigHandler.saveSetting("write-behind", "true");
+            assertEquals("write-behind=true", Files.readAllLines(configPath).get(3));
+        } catch (IOException | LongAhException e) {
+            fail();
+        } finally {
+            try {
+                Files.deleteIfExists(configPath);
+            } catch (IOException e) {
+                fail();
+            }
+        }
+    }
+
+    /**
+     * Tests that an unknown key or an invalid value is rejected.
+     */
+    @Test
+    public void applySetting_invalidSetting_exceptionThrown() {
+        String[][] settings = {{"unknown", "true"}, {"write-behind", "1"}, {"max-write-delay", "-1"},
+            {"journal", "on"}, {"checkpoint-records", "0"}, {"checkpoint-bytes", "-1"},
+            {"storage-format", "csv"}, {"cache-groups", "-1"}, {"cache-bytes", "many"},
+            {"preload-groups", "yes"}, {"fast-start", ""}, {"settlement-mode", "fastest"},
+            {"solver-members", "25"}, {"columnar-store", "1"},
+            {"verify-ledger", "no"}};
+        for (String[] setting : settings) {
+            try {
+                ConfigHandler.applySetting(setting[0], setting[1]);
+                fail();
+            } catch (LongAhException e) {
+                assertTrue(LongAhException.isMessage(e, ExceptionMessage.INVALID_CONFIG_SETTING));
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package longah.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+public class DurableFileWriterTest {
+    /**
+     * Tests that files written concurrently from two threads are all replaced, with no temporary
+     * files left behind.
+     */
+    @Test
+    public void write_concurrentWriters_allFilesReplaced() {
+        File first = new File("./data/test_durable1.txt");
+        File second = new File("./data/test_durable2.txt");
+        File third = new File("./data/test_durable3.txt");
+        try {
+            StorageHandler.initDir();
+            Files.write(first.toPath(), "old".getBytes());
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            Thread writer = new Thread(() -> {
+                try {
+                    DurableFileWriter.write(Map.of(third, "third".getBytes()));
+                } catch (IOException e) {
+                    failure.set(e);
+                }
+            });
+            writer.start();
+            DurableFileWriter.write(Map.of(first, "first".getBytes(), second, "second".getBytes()));
+            writer.join();
+
+            assertEquals(null, failure.get());
+            assertEquals("first", Files.readString(first.toPath()));
+            assertEquals("second", Files.readString(second.toPath()));
+            assertEquals("third", Files.readString(third.toPath()));
+            for (File file : new File[] {first, second, third}) {
+                assertFalse(new File(file.getPath() + DurableFileWriter.TEMP_SUFFIX).exists());
+            }
+        } catch (IOException | InterruptedException e) {
+            fail();
+        } finally {
+            first.delete();
+            second.delete();
+            third.delete();
+        }
+    }
+
+    /**
+     * Tests that a set of files interrupted after its first rename is completed by recovery when
+     * its commit marker matches the temporary file left.
+     */
+    @Test
+    public void recover_committedSet_renamesCompleted() {
+        File dir = new File("./data/test_recover_committed");
+        try {
+            dir.mkdirs();
+            Path members = dir.toPath().resolve("members.txt");
+            Path transactions = dir.toPath().resolve("transactions.txt");
+            // The members file was renamed before the crash, but not the transactions file
+            Files.writeString(members, "new members");
+            Files.writeString(transactions, "old transactions");
+            Files.writeString(dir.toPath().resolve("transactions.txt" + DurableFileWriter.TEMP_SUFFIX),
+                    "new transactions");
+            Files.writeString(dir.toPath().resolve(DurableFileWriter.COMMIT_MARKER_FILE),
+                    "2\n" + getMarkerLine("members.txt", "new members")
+                    + getMarkerLine("transactions.txt", "new transactions"));
+
+            DurableFileWriter.recover(dir.toPath());
+
+            assertEquals("new members", Files.readString(members));
+            assertEquals("new transactions", Files.readString(transactions));
+            assertFalse(dir.toPath().resolve(DurableFileWriter.COMMIT_MARKER_FILE).toFile().exists());
+        } catch (IOException e) {
+            fail();
+        } finally {
+            StorageHandler.deleteDir(dir);
+        }
+    }
+
+    /**
+     * Tests that a temporary file which does not match the commit marker is not moved, as its set
+     * was not committed.
+     */
+    @Test
+    public void recover_mismatchedMarker_tempFileNotMoved() {
+        File dir = new File("./data/test_recover_uncommitted");
+        try {
+            dir.mkdirs();
+            Path transactions = dir.toPath().resolve("transactions.txt");
+            Path temp = dir.toPath().resolve("transactions.txt" + DurableFileWriter.TEMP_SUFFIX);
+            Files.writeString(transactions, "old transactions");
+            Files.writeString(temp, "partly written");
+            Files.writeString(dir.toPath().resolve(DurableFileWriter.COMMIT_MARKER_FILE),
+                    "2\n" + getMarkerLine("members.txt", "earlier members")
+                    + getMarkerLine("transactions.txt", "earlier transactions"));
+
+            DurableFileWriter.recover(dir.toPath());
+
+            assertEquals("old transactions", Files.readString(transactions));
+            assertTrue(temp.toFile().exists());
+            assertFalse(dir.toPath().resolve(DurableFileWriter.COMMIT_MARKER_FILE).toFile().exists());
+        } catch (IOException e) {
+            fail();
+        } finally {
+            StorageHandler.deleteDir(dir);
+        }
+    }
+
+    /**
+     * Tests that no commit marker is left after a set of files is written.
+     */
+    @Test
+    public void write_setOfFiles_markerRemoved() {
+        File dir = new File("./data/test_durable_set");
+        try {
+            dir.mkdirs();
+            DurableFileWriter.write(Map.of(new File(dir, "members.txt"), "members".getBytes(),
+                    new File(dir, "transactions.txt"), "transactions".getBytes()));
+            assertEquals("members", Files.readString(dir.toPath().resolve("members.txt")));
+            assertEquals("transactions", Files.readString(dir.toPath().resolve("transactions.txt")));
+            assertFalse(new File(dir, DurableFileWriter.COMMIT_MARKER_FILE).exists());
+        } catch (IOException e) {
+            fail();
+        } finally {
+            StorageHandler.deleteDir(dir);
+        }
+    }
+
+    private static String getMarkerLine(String name, String content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes());
+        return name + "\t" + content.length() + "\t" + crc.getValue() + "\n";
+    }
+}
@@ -3,6 +3,8 @@ package longah.handler;
 import longah.exception.ExceptionMessage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import org.junit.jupiter.api.Test;
 
@@ -20,4 +22,21 @@ public class InputHandlerTest {
             assertEquals(expected, e.getMessage());
         }
     }
+
+    /**
+     * Tests that only commands which wait for user input are marked as prompting the user, so that
+     * the data lock is not held while they wait.
+     */
+    @Test
+    public void parseInput_promptingCommands_hasUserPrompt() {
+        try {
+            assertTrue(InputHandler.parseInput("clear").hasUserPrompt());
+            assertTrue(InputHandler.parseInput("pin reset").hasUserPrompt());
+            assertTrue(InputHandler.parseInput("delete group GroupA").hasUserPrompt());
+            assertFalse(InputHandler.parseInput("delete member Alice").hasUserPrompt());
+            assertFalse(InputHandler.parseInput("add member Alice").hasUserPrompt());
+        } catch (Exception e) {
+            fail();
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package longah.handler;
+
+import org.junit.jupiter.api.Test;
+
+import longah.util.DateTime;
+import longah.util.MemberList;
+import longah.util.TransactionList;
+import longah.util.TransactionStore;
+import longah.exception.LongAhException;
+import longah.exception.ExceptionMessage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import java.io.File;
+import java.io.FileWriter;
+
+public class MappedTransactionsLoaderTest {
+    private static final String SEPARATOR = String.valueOf(Character.toChars(31));
+
+    /**
+     * Returns a member list with Alice, Bob and Charlie, with ids 0, 1 and 2.
+     *
+     * @return The member list.
+     */
+    private MemberList createMemberList() throws LongAhException {
+        MemberList members = new MemberList();
+        members.addMemberCents(0, "Alice", 0);
+        members.addMemberCents(1, "Bob", 0);
+        members.addMemberCents(2, "Charlie", 0);
+        return members;
+    }
+
+    /**
+     * Tests that transactions of a file large enough to be mapped are loaded, with invalid
+     * subtransactions skipped and Windows line breaks accepted.
+     */
+    @Test
+    public void load_largeFile_success() {
+        File f = new File("./data/test_mapped1.txt");
+        try {
+            StorageHandler.initDir();
+            FileWriter fw = new FileWriter(f);
+            fw.write("0" + SEPARATOR + "01-01-2024 1200" + SEPARATOR + "1" + SEPARATOR + "5.5" + SEPARATOR
+                    + "5" + SEPARATOR + "3\r\n");
+            for (int i = 0; i < 10000; i++) {
+                fw.write("2" + SEPARATOR + "0" + SEPARATOR + "0.01\n");
+            }
+            fw.close();
+
+            MemberList members = createMemberList();
+            TransactionList transactions = new TransactionList();
+            boolean hasSkipped = MappedTransactionsLoader.load(f, members, transactions);
+            assertTrue(hasSkipped);
+            TransactionStore store = transactions.getStore();
+            assertEquals(10001, store.size());
+            assertEquals(1, store.getSubtransactionCount(0));
+            assertEquals(550, store.getAmountCents(0, 0));
+            assertEquals(new DateTime("01-01-2024 1200").toEpochMinutes(), store.getTimeMinutes(0));
+            assertEquals("Charlie", store.getLender(10000).getName());
+            assertEquals(TransactionStore.NO_TIME, store.getTimeMinutes(10000));
+            members.updateMembersBalance(transactions);
+            assertEquals(-9450, members.getMemberBalanceCents("Alice"));
+        } catch (Exception e) {
+            fail();
+        } finally {
+            f.delete();
+        }
+    }
+
+    /**
+     * Tests that a transaction with a time in the future is rejected.
+     */
+    @Test
+    public void load_futureTime_exceptionThrown() {
+        File f = new File("./data/test_mapped2.txt");
+        try {
+            StorageHandler.initDir();
+            FileWriter fw = new FileWriter(f);
+            fw.write("0" + SEPARATOR + "01-01-9999 1200" + SEPARATOR + "1" + SEPARATOR + "5\n");
+            fw.close();
+            MappedTransactionsLoader.load(f, createMemberList(), new TransactionList());
+            fail();
+        } catch (LongAhException e) {
+            assertEquals(ExceptionMessage.INVALID_STORAGE_CONTENT.getMessage(), e.getMessage());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            f.delete();
+        }
+    }
+
+    /**
+     * Tests that transactions are loaded when a member id is far larger than the number of members,
+     * without allocating a table up to that id.
+     */
+    @Test
+    public void load_sparseMemberIds_success() {
+        File f = new File("./data/test_mapped3.txt");
+        try {
+            StorageHandler.initDir();
+            FileWriter fw = new FileWriter(f);
+            fw.write("999999999" + SEPARATOR + "0" + SEPARATOR + "5\n");
+            fw.write("0" + SEPARATOR + "999999998" + SEPARATOR + "5\n");
+            fw.close();
+
+            MemberList members = new MemberList();
+            members.addMemberCents(0, "Alice", 0);
+            members.addMemberCents(999999999, "Bob", 0);
+            TransactionList transactions = new TransactionList();
+            boolean hasSkipped = MappedTransactionsLoader.load(f, members, transactions);
+            assertTrue(hasSkipped);
+            TransactionStore store = transactions.getStore();
+            assertEquals(2, store.size());
+            assertEquals("Bob", store.getLender(0).getName());
+            assertEquals("Alice", store.getBorrower(0, 0).getName());
+            assertEquals(0, store.getSubtransactionCount(1));
+        } catch (Exception e) {
+            fail();
+        } finally {
+            f.delete();
+        }
+    }
+}
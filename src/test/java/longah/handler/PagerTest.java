@@ -0,0 +1,82 @@
+package longah.handler;
+
+import java.io.File;
+
+import longah.exception.ExceptionMessage;
+import longah.exception.LongAhException;
+import longah.node.Group;
+import longah.util.Listing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+public class PagerTest {
+    /**
+     * Tests that the page options are taken out of the expression of a command.
+     */
+    @Test
+    public void pagerConstructor_pageOptions_optionsRemoved() throws LongAhException {
+        Pager pager = new Pager("a/01-01-2024 1200 pg/2 sz/5");
+        assertEquals("a/01-01-2024 1200", pager.getExpression());
+        assertTrue(pager.isPaged());
+
+        Pager unpagedPager = new Pager("Alice");
+        assertEquals("Alice", unpagedPager.getExpression());
+        assertFalse(unpagedPager.isPaged());
+    }
+
+    /**
+     * Tests that invalid page options are rejected.
+     */
+    @Test
+    public void pagerConstructor_invalidPageOption_exceptionThrown() {
+        try {
+            new Pager("Alice pg/0");
+            fail();
+        } catch (LongAhException e) {
+            assertEquals(ExceptionMessage.INVALID_PAGE_OPTION.getMessage(), e.getMessage());
+        }
+    }
+
+    /**
+     * Tests that navigating past the last page of a paged query is rejected.
+     */
+    @Test
+    public void showAdjacentPage_pastLastPage_exceptionThrown() {
+        try {
+            Group group = new Group("TestPagerGroup1");
+            Listing listing = new Listing(null, 3, (out, row) -> out.append(Integer.toString(row)));
+            new Pager("pg/1 sz/2").show(group, activeGroup -> listing);
+            Pager.showAdjacentPage(group, 1);
+            Pager.showAdjacentPage(group, 1);
+            fail();
+        } catch (LongAhException e) {
+            assertEquals(ExceptionMessage.PAGE_OUT_OF_RANGE.getMessage(), e.getMessage());
+        } finally {
+            StorageHandler.deleteDir(new File("./data/TestPagerGroup1"));
+        }
+    }
+
+    /**
+     * Tests that the last paged query is kept for a group reloaded under the same name, and rejected
+     * for another group.
+     */
+    @Test
+    public void showAdjacentPage_groupName_matchedAcrossReloads() {
+        try {
+            Listing listing = new Listing(null, 3, (out, row) -> out.append(Integer.toString(row)));
+            new Pager("pg/1 sz/2").show(new Group("TestPagerGroup1"), activeGroup -> listing);
+            Pager.showAdjacentPage(new Group("TestPagerGroup1"), 1);
+            Pager.showAdjacentPage(new Group("TestPagerGroup2"), -1);
+            fail();
+        } catch (LongAhException e) {
+            assertEquals(ExceptionMessage.NO_PAGED_LISTING.getMessage(), e.getMessage());
+        } finally {
+            StorageHandler.deleteDir(new File("./data/TestPagerGroup1"));
+            StorageHandler.deleteDir(new File("./data/TestPagerGroup2"));
+        }
+    }
+}
@@ -4,14 +4,18 @@ import org.junit.jupiter.api.Test;
 
 import longah.util.MemberList;
 import longah.util.TransactionList;
+import longah.node.Transaction;
 import longah.exception.LongAhException;
 import longah.exception.ExceptionMessage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import java.io.File;
 import java.io.FileWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 public class StorageHandlerTest {
     /**
@@ -120,4 +124,381 @@ public class StorageHandlerTest {
             fail();
         }
     }
+
+    /**
+     * Tests the loading of data files in the legacy format which refer to members by name,
+     * and their migration to member ids.
+     */
+    @Test
+    public void loadAllData_legacyFormat_migrated() {
+        File f = new File("./data/test_grp5");
+        try {
+            StorageHandler.deleteDir(f);
+            new StorageHandler(new MemberList(), new TransactionList(), "test_grp5");
+            String separator = String.valueOf(Character.toChars(31));
+            FileWriter fw = new FileWriter("./data/test_grp5/members.txt");
+            fw.write("Alice" + separator + "5.00\nBob" + separator + "-5.00\n");
+            fw.close();
+            fw = new FileWriter("./data/test_grp5/transactions.txt");
+            fw.write("Alice" + separator + "Bob" + separator + "5.0\n");
+            fw.close();
+
+            MemberList members = new MemberList();
+            TransactionList transactions = new TransactionList();
+            new StorageHandler(members, transactions, "test_grp5");
+            assertEquals("Alice: $5.00\nBob: -$5.00", members.listMembers());
+            String migrated = new String(Files.readAllBytes(Paths.get("./data/test_grp5/transactions.txt")));
+            assertEquals("0" + separator + "1" + separator + "5.0\n", migrated);
+            StorageHandler.deleteDir(f);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that renaming a member only requires the members data file to be saved.
+     */
+    @Test
+    public void saveMembersData_renamedMember_transactionsUnaffected() {
+        File f = new File("./data/test_grp6");
+        try {
+            StorageHandler.deleteDir(f);
+            MemberList members1 = new MemberList();
+            TransactionList transactions1 = new TransactionList();
+            StorageHandler storage1 = new StorageHandler(members1, transactions1, "test_grp6");
+            members1.addMember("Alice");
+            members1.addMember("Bob");
+            transactions1.addTransaction("Alice p/Bob a/5", members1);
+            members1.updateMembersBalance(transactions1);
+            storage1.saveAllData();
+            members1.editMemberName("Alice", "Charlie");
+            storage1.saveMembersData();
+
+            MemberList members2 = new MemberList();
+            TransactionList transactions2 = new TransactionList();
+            new StorageHandler(members2, transactions2, "test_grp6");
+            assertEquals("Charlie: $5.00\nBob: -$5.00", members2.listMembers());
+            assertEquals("Charlie", transactions2.getTransactions().get(0).getLender().getName());
+            StorageHandler.deleteDir(f);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that changes saved in journal mode are replayed on the data files when loaded.
+     */
+    @Test
+    public void replayJournal_journaledChanges_success() {
+        File f = new File("./data/test_grp7");
+        try {
+            StorageHandler.deleteDir(f);
+            StorageHandler.setJournalMode(true);
+            MemberList members1 = new MemberList();
+            TransactionList transactions1 = new TransactionList();
+            StorageHandler storage1 = new StorageHandler(members1, transactions1, "test_grp7");
+            members1.addMember("Alice");
+            members1.addMember("Bob");
+            storage1.saveAllData();
+            members1.addMember("Charlie");
+            storage1.saveAddedMember(members1.getMember("Charlie"));
+            transactions1.addTransaction("Alice p/Bob a/5", members1);
+            storage1.saveAddedTransaction(transactions1.getStore().get(0));
+            transactions1.addTransaction("Charlie p/Alice a/2", members1);
+            storage1.saveAddedTransaction(transactions1.getStore().get(1));
+            transactions1.getStore().set(0, new Transaction("Alice p/Bob a/7", members1));
+            storage1.saveEditedTransaction(0, transactions1.getStore().get(0));
+            members1.editMemberName("Bob", "Dave");
+            storage1.saveRenamedMember(members1.getMember("Dave"));
+            assertEquals(0, new File("./data/test_grp7/transactions.txt").length());
+
+            MemberList members2 = new MemberList();
+            TransactionList transactions2 = new TransactionList();
+            new StorageHandler(members2, transactions2, "test_grp7");
+            assertEquals("Alice: $5.00\nDave: -$7.00\nCharlie: $2.00", members2.listMembers());
+            assertEquals(2, transactions2.getTransactionListSize());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.setJournalMode(false);
+            StorageHandler.deleteDir(f);
+        }
+    }
+
+    /**
+     * Tests that an incomplete last journal record is ignored and the journal is folded into the
+     * data files when journal mode is disabled.
+     */
+    @Test
+    public void replayJournal_incompleteLastRecord_ignored() {
+        File f = new File("./data/test_grp8");
+        try {
+            StorageHandler.deleteDir(f);
+            MemberList members1 = new MemberList();
+            TransactionList transactions1 = new TransactionList();
+            StorageHandler storage1 = new StorageHandler(members1, transactions1, "test_grp8");
+            members1.addMember("Alice");
+            members1.addMember("Bob");
+            storage1.saveAllData();
+            String separator = String.valueOf(Character.toChars(31));
+            FileWriter fw = new FileWriter("./data/test_grp8/journal.txt");
+            fw.write("A" + separator + "0" + separator + "1" + separator + "5.0\n");
+            fw.write("A" + separator + "1" + separator + "0\n");
+            fw.close();
+
+            MemberList members2 = new MemberList();
+            TransactionList transactions2 = new TransactionList();
+            new StorageHandler(members2, transactions2, "test_grp8");
+            assertEquals("Alice: $5.00\nBob: -$5.00", members2.listMembers());
+            assertTrue(!new File("./data/test_grp8/journal.txt").exists());
+            String saved = new String(Files.readAllBytes(Paths.get("./data/test_grp8/transactions.txt")));
+            assertEquals("0" + separator + "1" + separator + "5.0\n", saved);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.deleteDir(f);
+        }
+    }
+
+    /**
+     * Tests that a checkpoint replaces the data files and truncates the journal once the journal
+     * reaches the record limit.
+     */
+    @Test
+    public void appendJournal_recordLimitReached_checkpointWritten() {
+        File f = new File("./data/test_grp9");
+        try {
+            StorageHandler.deleteDir(f);
+            StorageHandler.setJournalMode(true);
+            StorageHandler.setCheckpointLimits(3, 1 << 20);
+            MemberList members1 = new MemberList();
+            TransactionList transactions1 = new TransactionList();
+            StorageHandler storage1 = new StorageHandler(members1, transactions1, "test_grp9");
+            members1.addMember("Alice");
+            storage1.saveAddedMember(members1.getMember("Alice"));
+            members1.addMember("Bob");
+            storage1.saveAddedMember(members1.getMember("Bob"));
+            transactions1.addTransaction("Alice p/Bob a/5", members1);
+            members1.updateMembersBalance(transactions1);
+            storage1.saveAddedTransaction(transactions1.getStore().get(0));
+            storage1.waitForCheckpoint();
+            transactions1.addTransaction("Bob p/Alice a/2", members1);
+            storage1.saveAddedTransaction(transactions1.getStore().get(1));
+
+            assertTrue(!new File("./data/test_grp9/journal.old").exists());
+            String separator = String.valueOf(Character.toChars(31));
+            String saved = new String(Files.readAllBytes(Paths.get("./data/test_grp9/transactions.txt")));
+            assertEquals("0" + separator + "1" + separator + "5.0\n", saved);
+            assertEquals(1, Files.readAllLines(Paths.get("./data/test_grp9/journal.txt")).size());
+
+            MemberList members2 = new MemberList();
+            TransactionList transactions2 = new TransactionList();
+            new StorageHandler(members2, transactions2, "test_grp9");
+            assertEquals("Alice: $3.00\nBob: -$3.00", members2.listMembers());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.setJournalMode(false);
+            StorageHandler.setCheckpointLimits(1000, 1 << 20);
+            StorageHandler.deleteDir(f);
+        }
+    }
+
+    /**
+     * Tests that a failed checkpoint keeps its journal, and that the next checkpoint folds the
+     * journal into it and writes all changes.
+     */
+    @Test
+    public void startCheckpoint_earlierCheckpointFailed_retried() {
+        File f = new File("./data/test_grp14");
+        File blocker = new File("./data/test_grp14/members.tmp");
+        try {
+            StorageHandler.deleteDir(f);
+            StorageHandler.setJournalMode(true);
+            StorageHandler.setCheckpointLimits(2, 1 << 20);
+            MemberList members1 = new MemberList();
+            TransactionList transactions1 = new TransactionList();
+            StorageHandler storage1 = new StorageHandler(members1, transactions1, "test_grp14");
+            // A directory in place of the temporary members file makes the checkpoint fail
+            blocker.mkdir();
+            members1.addMember("Alice");
+            storage1.saveAddedMember(members1.getMember("Alice"));
+            members1.addMember("Bob");
+            storage1.saveAddedMember(members1.getMember("Bob"));
+            storage1.waitForCheckpoint();
+            assertTrue(new File("./data/test_grp14/journal.old").exists());
+
+            blocker.delete();
+            members1.addMember("Charlie");
+            storage1.saveAddedMember(members1.getMember("Charlie"));
+            members1.addMember("Dave");
+            storage1.saveAddedMember(members1.getMember("Dave"));
+            storage1.waitForCheckpoint();
+
+            assertFalse(new File("./data/test_grp14/journal.old").exists());
+            assertEquals(0, new File("./data/test_grp14/journal.txt").length());
+            assertEquals(4, Files.readAllLines(Paths.get("./data/test_grp14/members.txt")).size());
+            MemberList members2 = new MemberList();
+            new StorageHandler(members2, new TransactionList(), "test_grp14");
+            assertEquals(4, members2.getMemberListSize());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.setJournalMode(false);
+            StorageHandler.setCheckpointLimits(1000, 1 << 20);
+            blocker.delete();
+            StorageHandler.deleteDir(f);
+        }
+    }
+
+    /**
+     * Tests that an uncommitted checkpoint is discarded and its journal replayed when loaded.
+     */
+    @Test
+    public void recoverCheckpoint_uncommittedCheckpoint_journalReplayed() {
+        File f = new File("./data/test_grp10");
+        try {
+            StorageHandler.deleteDir(f);
+            MemberList members1 = new MemberList();
+            TransactionList transactions1 = new TransactionList();
+            StorageHandler storage1 = new StorageHandler(members1, transactions1, "test_grp10");
+            members1.addMember("Alice");
+            members1.addMember("Bob");
+            storage1.saveAllData();
+            String separator = String.valueOf(Character.toChars(31));
+            FileWriter fw = new FileWriter("./data/test_grp10/journal.old");
+            fw.write("A" + separator + "0" + separator + "1" + separator + "5.0\n");
+            fw.close();
+            fw = new FileWriter("./data/test_grp10/journal.txt");
+            fw.write("A" + separator + "1" + separator + "0" + separator + "1.0\n");
+            fw.close();
+            // Incomplete checkpoint without the marker
+            fw = new FileWriter("./data/test_grp10/members.tmp");
+            fw.write("0" + separator + "Alice");
+            fw.close();
+
+            MemberList members2 = new MemberList();
+            TransactionList transactions2 = new TransactionList();
+            new StorageHandler(members2, transactions2, "test_grp10");
+            assertEquals("Alice: $4.00\nBob: -$4.00", members2.listMembers());
+            assertTrue(!new File("./data/test_grp10/members.tmp").exists());
+            assertTrue(!new File("./data/test_grp10/journal.old").exists());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.deleteDir(f);
+        }
+    }
+
+    /**
+     * Tests that data is converted to the binary format and back when loaded in the other format.
+     */
+    @Test
+    public void storageHandlerConstructor_formatChanged_dataConverted() {
+        File f = new File("./data/test_grp11");
+        try {
+            StorageHandler.deleteDir(f);
+            MemberList members1 = new MemberList();
+            TransactionList transactions1 = new TransactionList();
+            StorageHandler storage1 = new StorageHandler(members1, transactions1, "test_grp11");
+            members1.addMember("Alice");
+            members1.addMember("Bob");
+            transactions1.addTransaction("Alice t/01-01-2024 1200 p/Bob a/5", members1);
+            members1.updateMembersBalance(transactions1);
+            storage1.saveAllData();
+
+            StorageHandler.setBinaryFormat(true);
+            new StorageHandler(new MemberList(), new TransactionList(), "test_grp11");
+            assertTrue(new File("./data/test_grp11/group.bin").exists());
+            assertTrue(!new File("./data/test_grp11/members.txt").exists());
+
+            StorageHandler.setBinaryFormat(false);
+            MemberList members2 = new MemberList();
+            TransactionList transactions2 = new TransactionList();
+            new StorageHandler(members2, transactions2, "test_grp11");
+            assertTrue(!new File("./data/test_grp11/group.bin").exists());
+            assertEquals("Alice: $5.00\nBob: -$5.00", members2.listMembers());
+            String separator = String.valueOf(Character.toChars(31));
+            String saved = new String(Files.readAllBytes(Paths.get("./data/test_grp11/transactions.txt")));
+            assertEquals("0" + separator + "01-01-2024 1200" + separator + "1" + separator + "5.0\n", saved);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.setBinaryFormat(false);
+            StorageHandler.deleteDir(f);
+        }
+    }
+
+    /**
+     * Tests that write-behind saves are deferred and written together when flushed.
+     */
+    @Test
+    public void flushAll_writeBehindChanges_savedTogether() {
+        File f = new File("./data/test_grp12");
+        try {
+            StorageHandler.deleteDir(f);
+            StorageHandler.setWriteBehind(true);
+            StorageHandler.setMaxWriteDelay(60000);
+            MemberList members1 = new MemberList();
+            TransactionList transactions1 = new TransactionList();
+            StorageHandler storage1 = new StorageHandler(members1, transactions1, "test_grp12");
+            members1.addMember("Alice");
+            storage1.saveAddedMember(members1.getMember("Alice"));
+            members1.addMember("Bob");
+            storage1.saveAddedMember(members1.getMember("Bob"));
+            transactions1.addTransaction("Alice p/Bob a/5", members1);
+            members1.updateMembersBalance(transactions1);
+            storage1.saveAddedTransaction(transactions1.getStore().get(0));
+            assertEquals(0, new File("./data/test_grp12/members.txt").length());
+
+            StorageHandler.flushAll();
+            MemberList members2 = new MemberList();
+            TransactionList transactions2 = new TransactionList();
+            new StorageHandler(members2, transactions2, "test_grp12");
+            assertEquals("Alice: $5.00\nBob: -$5.00", members2.listMembers());
+            assertEquals(1, transactions2.getTransactionListSize());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.setWriteBehind(false);
+            StorageHandler.setMaxWriteDelay(1000);
+            StorageHandler.deleteDir(f);
+        }
+    }
+
+    /**
+     * Tests that only the data files with changes are written when a change is saved.
+     */
+    @Test
+    public void saveRenamedMember_transactionsUnchanged_transactionsFileSkipped() {
+        File f = new File("./data/test_grp13");
+        File transactionsFile = new File("./data/test_grp13/transactions.txt");
+        try {
+            StorageHandler.deleteDir(f);
+            MemberList members = new MemberList();
+            TransactionList transactions = new TransactionList();
+            StorageHandler storage = new StorageHandler(members, transactions, "test_grp13");
+            members.addMember("Alice");
+            storage.saveAddedMember(members.getMember("Alice"));
+            members.addMember("Bob");
+            storage.saveAddedMember(members.getMember("Bob"));
+            transactions.addTransaction("Alice p/Bob a/5", members);
+            storage.saveAddedTransaction(transactions.getStore().get(0));
+
+            transactionsFile.delete();
+            members.editMemberName("Bob", "Charlie");
+            storage.saveRenamedMember(members.getMember("Charlie"));
+            assertFalse(transactionsFile.exists());
+            assertTrue(new String(Files.readAllBytes(new File("./data/test_grp13/members.txt").toPath()))
+                    .contains("Charlie"));
+
+            transactions.addTransaction("Charlie p/Alice a/2", members);
+            storage.saveAddedTransaction(transactions.getStore().get(1));
+            assertTrue(transactionsFile.exists());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.deleteDir(f);
+        }
+    }
 }
@@ -1,15 +1,25 @@
 package longah.node;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.locks.Lock;
 
 import org.junit.jupiter.api.Test;
 
 import longah.exception.ExceptionMessage;
+import longah.exception.LongAhException;
 import longah.handler.StorageHandler;
 import longah.util.MemberList;
+import longah.util.SettlementMode;
+import longah.util.Subtransaction;
 import longah.util.TransactionList;
 
 public class GroupTest {
@@ -147,4 +157,177 @@ public class GroupTest {
             assertEquals(ExceptionMessage.TRANSACTIONS_SUMMED_UP.getMessage(), e.getMessage());
         }
     }
+
+    /**
+     * Tests that incremental balance updates on edit and delete match a full replay.
+     */
+    @Test
+    public void replaceTransaction_incrementalUpdate_matchesReplay() {
+        try {
+            Group.setLedgerVerification(true);
+            Group group = new Group("TestGroup2");
+            MemberList members = group.getMemberList();
+            TransactionList transactions = group.getTransactionList();
+            members.addMember("Alice");
+            members.addMember("Bob");
+            members.addMember("Charlie");
+            transactions.addTransaction("Alice p/Bob a/10 p/Charlie a/5", members, group);
+            transactions.addTransaction("Bob p/Charlie a/2.5", members, group);
+            transactions.editTransactionList("1 Charlie p/Alice a/4", members, group);
+            assertEquals("Alice: -$4.00\nBob: $2.50\nCharlie: $1.50", members.listMembers());
+            transactions.remove("2", group);
+            assertEquals("Alice: -$4.00\nBob: $0.00\nCharlie: $4.00", members.listMembers());
+            transactions.deleteMember("Alice", members, group);
+            members.deleteMember("Alice");
+            assertEquals("Bob: $0.00\nCharlie: $0.00", members.listMembers());
+            assertTrue(members.verifyMembersBalance(transactions));
+            File f = new File("./data/TestGroup2");
+            StorageHandler.deleteDir(f);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            Group.setLedgerVerification(false);
+        }
+    }
+
+    /**
+     * Tests that the transaction solution is cached until the ledger version changes.
+     */
+    @Test
+    public void getTransactionSolution_ledgerVersion_recomputedOnChange() {
+        try {
+            Group group = new Group("TestGroup3");
+            MemberList members = group.getMemberList();
+            TransactionList transactions = group.getTransactionList();
+            members.addMember("Alice");
+            members.addMember("Bob");
+            long version = group.getLedgerVersion();
+            transactions.addTransaction("Alice p/Bob a/10", members, group);
+            assertTrue(group.getLedgerVersion() > version);
+
+            version = group.getLedgerVersion();
+            ArrayList<Subtransaction> solution = group.getTransactionSolution();
+            assertSame(solution, group.getTransactionSolution());
+            assertEquals(version, group.getLedgerVersion());
+
+            transactions.addTransaction("Bob p/Alice a/4", members, group);
+            assertTrue(group.getLedgerVersion() > version);
+            assertNotSame(solution, group.getTransactionSolution());
+            assertEquals("Bob owes Alice $6.00", group.getTransactionSolution().get(0).toString());
+
+            version = group.getLedgerVersion();
+            solution = group.getTransactionSolution();
+            group.setSettlementMode(SettlementMode.MINIMUM_TRANSFERS);
+            assertTrue(group.getLedgerVersion() > version);
+            assertNotSame(solution, group.getTransactionSolution());
+            File f = new File("./data/TestGroup3");
+            StorageHandler.deleteDir(f);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that direct debts between pairs of members follow added, edited and deleted transactions.
+     */
+    @Test
+    public void listPairDebt_incrementalUpdates_success() {
+        try {
+            Group group = new Group("TestGroup4");
+            MemberList members = group.getMemberList();
+            TransactionList transactions = group.getTransactionList();
+            members.addMember("Alice");
+            members.addMember("Bob");
+            members.addMember("Charlie");
+            transactions.addTransaction("Alice p/Bob a/10 p/Charlie a/5", members, group);
+            transactions.addTransaction("Bob p/Alice a/4", members, group);
+            assertEquals("Bob owes Alice $6.00", group.listPairDebt("Bob", "Alice"));
+            assertEquals("Direct debts of Alice before simplification:\n"
+                    + "Bob owes Alice $6.00\nCharlie owes Alice $5.00", group.listPairDebts("Alice"));
+
+            transactions.editTransactionList("2 Bob p/Alice a/12", members, group);
+            assertEquals("Alice owes Bob $2.00", group.listPairDebt("Alice", "Bob"));
+            transactions.remove("1", group);
+            assertEquals("Alice owes Bob $12.00", group.listPairDebt("Alice", "Bob"));
+            transactions.deleteMember("Bob", members, group);
+            members.deleteMember("Bob");
+            group.listPairDebts("Alice");
+            fail();
+        } catch (LongAhException e) {
+            assertEquals(ExceptionMessage.TRANSACTIONS_SUMMED_UP.getMessage(), e.getMessage());
+        } finally {
+            StorageHandler.deleteDir(new File("./data/TestGroup4"));
+        }
+    }
+
+    /**
+     * Tests that unsaved write-behind changes of a group are written when its storage is closed.
+     */
+    @Test
+    public void closeStorage_unsavedChanges_written() {
+        File f = new File("./data/TestGroup9");
+        try {
+            StorageHandler.deleteDir(f);
+            StorageHandler.setWriteBehind(true);
+            StorageHandler.setMaxWriteDelay(60000);
+            Group group = new Group("TestGroup9");
+            long emptySize = group.getEstimatedSize();
+            group.getMemberList().addMember("Alice");
+            group.saveAddedMember(group.getMemberList().getMember("Alice"));
+            assertTrue(group.hasUnsavedChanges());
+            assertTrue(group.getEstimatedSize() > emptySize);
+
+            group.closeStorage();
+            assertFalse(group.hasUnsavedChanges());
+            Group reloaded = new Group("TestGroup9");
+            assertEquals(1, reloaded.getMemberList().getMemberListSize());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            StorageHandler.setWriteBehind(false);
+            StorageHandler.setMaxWriteDelay(1000);
+            StorageHandler.deleteDir(f);
+        }
+    }
+
+    /**
+     * Tests that balances loaded with fast start are used at once, and repaired from a full replay
+     * in the background if they do not match the transactions.
+     */
+    @Test
+    public void groupConstructor_fastStartMismatchedBalances_repaired() {
+        File f = new File("./data/TestGroup10");
+        String separator = String.valueOf(Character.toChars(31));
+        try {
+            StorageHandler.deleteDir(f);
+            f.mkdirs();
+            Files.writeString(new File(f, "members.txt").toPath(), "0" + separator + "Alice" + separator + "1.00\n"
+                    + "1" + separator + "Bob" + separator + "-1.00\n");
+            Files.writeString(new File(f, "transactions.txt").toPath(),
+                    "0" + separator + "1" + separator + "5.00\n");
+            Group.setFastStart(true);
+            // Holding the data lock keeps the verification from running until the stored balances are checked
+            Lock dataLock = StorageHandler.getDataLock();
+            Group group;
+            dataLock.lock();
+            try {
+                group = new Group("TestGroup10");
+                assertEquals(100, group.getMemberList().getMemberBalanceCents("Alice"));
+                assertEquals(-100, group.getMemberList().getMemberBalanceCents("Bob"));
+            } finally {
+                dataLock.unlock();
+            }
+            group.awaitBalanceVerification();
+            assertEquals(500, group.getMemberList().getMemberBalanceCents("Alice"));
+            assertEquals("Bob owes Alice $5.00", group.listPairDebt("Alice", "Bob"));
+
+            String membersData = Files.readString(new File(f, "members.txt").toPath());
+            assertTrue(membersData.contains("Bob" + separator + "-5.00"));
+        } catch (Exception e) {
+            fail();
+        } finally {
+            Group.setFastStart(false);
+            StorageHandler.deleteDir(f);
+        }
+    }
 }
@@ -148,14 +148,30 @@ public class MemberTest {
     public void subtractFromBalance_boundaryValues_success() {
         try {
             Member member = new Member("Bob");
-            member.addToBalance(Double.MAX_VALUE);
-            member.subtractFromBalance(Double.MAX_VALUE);
+            member.addToBalanceCents(Long.MAX_VALUE);
+            member.subtractFromBalanceCents(Long.MAX_VALUE);
             assertEquals(0.0, member.getBalance());
         } catch (Exception e) {
             fail();
         }
     }
 
+    /**
+     * Tests the addToBalanceCents method of the Member class when the balance overflows.
+     */
+    @Test
+    public void addToBalanceCents_overflow_exceptionThrown() {
+        try {
+            Member member = new Member("Bob");
+            member.addToBalanceCents(Long.MAX_VALUE);
+            member.addToBalanceCents(1);
+            fail();
+        } catch (LongAhException e) {
+            String expectedString = ExceptionMessage.BALANCE_OVERFLOW.getMessage();
+            assertEquals(expectedString, e.getMessage());
+        }
+    }
+
     /**
      * Tests the subtractFromBalance method of the Member class with concurrent transactions.
      */
@@ -0,0 +1,150 @@
+package longah.util;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import longah.exception.LongAhException;
+import longah.node.Transaction;
+
+public class ColumnarTransactionStoreTest {
+    /**
+     * Returns a transaction list backed by a columnar store with three transactions between
+     * Alice, Bob and Charlie.
+     *
+     * @param memberList The member list with Alice, Bob and Charlie.
+     * @return The transaction list.
+     */
+    private TransactionList createTransactionList(MemberList memberList) throws LongAhException {
+        memberList.addMember("Alice");
+        memberList.addMember("Bob");
+        memberList.addMember("Charlie");
+        TransactionList transactionList = new TransactionList(new ColumnarTransactionStore());
+        transactionList.addTransaction("Alice p/Bob a/5 p/Charlie a/2.5", memberList);
+        transactionList.addTransaction("Bob t/01-01-2024 1200 p/Charlie a/3", memberList);
+        transactionList.addTransaction("Charlie p/Alice a/1.05", memberList);
+        return transactionList;
+    }
+
+    /**
+     * Tests that transactions read from the store match the transactions added.
+     */
+    @Test
+    public void get_addedTransactions_success() {
+        try {
+            MemberList memberList = new MemberList();
+            TransactionList transactionList = createTransactionList(memberList);
+            String expected = "1.\nLender: Alice\nBorrower 1: Bob Owed amount: $5.00\n"
+                    + "Borrower 2: Charlie Owed amount: $2.50\n"
+                    + "2.\nLender: Bob\nTransaction time: 01-01-2024 1200\nBorrower 1: Charlie Owed amount: $3.00\n"
+                    + "3.\nLender: Charlie\nBorrower 1: Alice Owed amount: $1.05";
+            assertEquals(expected, transactionList.listTransactions());
+            memberList.updateMembersBalance(transactionList);
+            assertEquals("Alice: $6.45\nBob: -$2.00\nCharlie: -$4.45", memberList.listMembers());
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that editing a transaction to a different number of borrowers keeps later transactions intact.
+     */
+    @Test
+    public void editTransactionList_moreBorrowers_success() {
+        try {
+            MemberList memberList = new MemberList();
+            TransactionList transactionList = createTransactionList(memberList);
+            TransactionStore store = transactionList.getStore();
+            store.set(1, new Transaction("Bob t/01-01-2024 1200 p/Charlie a/3 p/Alice a/4", memberList));
+            store.set(0, new Transaction("Alice p/Bob a/7", memberList));
+            assertEquals(1, store.getSubtransactionCount(0));
+            assertEquals(2, store.getSubtransactionCount(1));
+            assertEquals(400, store.getAmountCents(1, 1));
+            assertEquals("Alice", store.getBorrower(2, 0).getName());
+            assertEquals(105, store.getAmountCents(2, 0));
+            assertEquals(new DateTime("01-01-2024 1200").toEpochMinutes(), store.getTimeMinutes(1));
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests the removal of a transaction from the middle of the store.
+     */
+    @Test
+    public void remove_middleTransaction_success() {
+        try {
+            MemberList memberList = new MemberList();
+            TransactionList transactionList = createTransactionList(memberList);
+            TransactionStore store = transactionList.getStore();
+            store.remove(1);
+            assertEquals(2, store.size());
+            assertEquals("Charlie", store.getLender(1).getName());
+            assertEquals(105, store.getAmountCents(1, 0));
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that deleting a member removes its subtransactions and the transactions it lent.
+     */
+    @Test
+    public void deleteMember_validMember_success() {
+        try {
+            MemberList memberList = new MemberList();
+            TransactionList transactionList = createTransactionList(memberList);
+            ArrayList<Subtransaction> removed = transactionList.getStore()
+                    .deleteMember(memberList.getMember("Charlie"));
+            assertEquals(3, removed.size());
+            TransactionStore store = transactionList.getStore();
+            assertEquals(1, store.size());
+            assertEquals(1, store.getSubtransactionCount(0));
+            assertEquals("Bob", store.getBorrower(0, 0).getName());
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests filtering transactions by time on a columnar store.
+     */
+    @Test
+    public void filterTransactionsBeforeDateTime_columnarStore_success() {
+        try {
+            MemberList memberList = new MemberList();
+            TransactionList transactionList = createTransactionList(memberList);
+            String expected = "The following list of transactions is before the time 02-01-2024 0000.\n"
+                    + "2.\nLender: Bob\nTransaction time: 01-01-2024 1200\nBorrower 1: Charlie Owed amount: $3.00";
+            assertEquals(expected, transactionList.filterTransactionsBeforeDateTime("02-01-2024 0000"));
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that a copy of a store keeps the transactions at the time of copying.
+     */
+    @Test
+    public void copyOf_laterChanges_notReflected() {
+        try {
+            MemberList memberList = new MemberList();
+            TransactionList transactionList = createTransactionList(memberList);
+            ColumnarTransactionStore copy = ColumnarTransactionStore.copyOf(transactionList.getStore());
+            transactionList.getStore().remove(0);
+            transactionList.addTransaction("Alice p/Bob a/9", memberList);
+
+            assertEquals(3, copy.size());
+            assertEquals("Alice", copy.getLender(0).getName());
+            assertEquals(2, copy.getSubtransactionCount(0));
+            assertEquals(250, copy.getAmountCents(0, 1));
+            assertEquals(new DateTime("01-01-2024 1200").toEpochMinutes(), copy.getTimeMinutes(1));
+            assertEquals(TransactionStore.NO_TIME, copy.getTimeMinutes(2));
+            assertEquals("Alice", copy.getBorrower(2, 0).getName());
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package longah.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import longah.handler.StorageHandler;
+import longah.node.Group;
+
+public class GroupListTest {
+    private static final String[] GROUP_NAMES = {"TestList1", "TestList2", "TestList3"};
+    private static final String[] CORRUPT_GROUP_NAMES = {"TestListBad1", "TestListBad2"};
+    private static final String GROUP_LIST_FILE_PATH = "./data/groupList.txt";
+    private static final String SEPARATOR = String.valueOf(Character.toChars(31));
+
+    /**
+     * Saves the groups in storage, each with a member named after the group, and lists them in
+     * the group list file.
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        GroupList.clearLoadedState();
+        for (String groupName : GROUP_NAMES) {
+            Group group = new Group(groupName);
+            group.getMemberList().addMember("Member" + groupName);
+            group.saveAllData();
+            group.closeStorage();
+        }
+        Files.write(Paths.get(GROUP_LIST_FILE_PATH), String.join("\n", GROUP_NAMES).getBytes());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Group.setFastStart(false);
+        GroupList.setCacheLimits(0, 0);
+        GroupList.setPreloadGroups(false);
+        GroupList.clearLoadedState();
+        for (String groupName : GROUP_NAMES) {
+            StorageHandler.deleteDir(new File("./data/" + groupName));
+        }
+        for (String groupName : CORRUPT_GROUP_NAMES) {
+            StorageHandler.deleteDir(new File("./data/" + groupName));
+        }
+        new File(GROUP_LIST_FILE_PATH).delete();
+    }
+
+    /**
+     * Tests that only the first group is loaded at startup, and that another group is loaded from
+     * storage when it is first accessed.
+     */
+    @Test
+    public void groupListConstructor_lazyLoading_firstGroupOnly() {
+        try {
+            new GroupList();
+            assertEquals(GROUP_NAMES[0], GroupList.getActiveGroup().getGroupName());
+            assertTrue(GroupList.isGroupLoaded(GROUP_NAMES[0]));
+            assertFalse(GroupList.isGroupLoaded(GROUP_NAMES[1]));
+            assertFalse(GroupList.isGroupLoaded(GROUP_NAMES[2]));
+
+            Group group = GroupList.getGroup(GROUP_NAMES[1]);
+            assertTrue(GroupList.isGroupLoaded(GROUP_NAMES[1]));
+            assertFalse(GroupList.isGroupLoaded(GROUP_NAMES[2]));
+            assertTrue(group.getMemberList().isMember("Member" + GROUP_NAMES[1]));
+            assertSame(group, GroupList.getGroup(GROUP_NAMES[1]));
+            assertEquals("Group cache: 2 loaded, 1 hits, 2 misses, 0 evictions", GroupList.getCacheStatistics());
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that the least recently used group other than the active group is evicted once the
+     * group limit is exceeded, and that an evicted group is loaded again from storage when accessed.
+     */
+    @Test
+    public void getGroup_groupLimitExceeded_leastRecentlyUsedEvicted() {
+        try {
+            GroupList.setCacheLimits(2, 0);
+            new GroupList();
+            Group second = GroupList.getGroup(GROUP_NAMES[1]);
+            GroupList.getGroup(GROUP_NAMES[2]);
+            // The active group is kept although it was used before the second group
+            assertTrue(GroupList.isGroupLoaded(GROUP_NAMES[0]));
+            assertFalse(GroupList.isGroupLoaded(GROUP_NAMES[1]));
+            assertTrue(GroupList.isGroupLoaded(GROUP_NAMES[2]));
+
+            GroupList.getGroup(GROUP_NAMES[0]);
+            Group reloaded = GroupList.getGroup(GROUP_NAMES[1]);
+            assertFalse(GroupList.isGroupLoaded(GROUP_NAMES[2]));
+            assertNotSame(second, reloaded);
+            assertTrue(reloaded.getMemberList().isMember("Member" + GROUP_NAMES[1]));
+            assertEquals("Group cache: 2 loaded, 1 hits, 4 misses, 2 evictions", GroupList.getCacheStatistics());
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that preloading reports the groups which cannot be loaded and the groups with skipped
+     * transactions in the order of the group list, and keeps the order of the remaining groups.
+     */
+    @Test
+    public void groupListConstructor_preloadWithCorruptGroups_reportedInListOrder() {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            for (String groupName : CORRUPT_GROUP_NAMES) {
+                Files.createDirectories(Paths.get("./data/" + groupName));
+                Files.write(Paths.get("./data/" + groupName + "/members.txt"), "corrupt".getBytes());
+            }
+            // A transaction of the last group has a borrower which does not exist
+            Files.write(Paths.get("./data/" + GROUP_NAMES[2] + "/transactions.txt"),
+                    ("0" + SEPARATOR + "5" + SEPARATOR + "1\n").getBytes());
+            String[] listedNames = {GROUP_NAMES[0], CORRUPT_GROUP_NAMES[0], GROUP_NAMES[1],
+                CORRUPT_GROUP_NAMES[1], GROUP_NAMES[2]};
+            Files.write(Paths.get(GROUP_LIST_FILE_PATH), String.join("\n", listedNames).getBytes());
+
+            GroupList.setPreloadGroups(true);
+            System.setOut(new PrintStream(output));
+            new GroupList();
+            System.setOut(originalOut);
+
+            String printed = output.toString();
+            int firstFailure = printed.indexOf("Group " + CORRUPT_GROUP_NAMES[0] + ": ");
+            int secondFailure = printed.indexOf("Group " + CORRUPT_GROUP_NAMES[1] + ": ");
+            int skipWarning = printed.indexOf("Some transactions of group " + GROUP_NAMES[2]);
+            assertTrue(firstFailure >= 0);
+            assertTrue(secondFailure > firstFailure);
+            assertTrue(skipWarning > secondFailure);
+            for (String groupName : GROUP_NAMES) {
+                assertTrue(GroupList.isGroupLoaded(groupName));
+            }
+            assertEquals("1. TestList1\n2. TestList2\n3. TestList3\n", GroupList.getGroupList());
+            assertEquals(GROUP_NAMES[0], GroupList.getActiveGroup().getGroupName());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    /**
+     * Tests that a background verification of a group loaded with fast start does not save the data
+     * of the group after it has been evicted, overwriting changes made to the reloaded group.
+     */
+    @Test
+    public void getGroup_evictedDuringVerification_reloadedChangesKept() {
+        Lock dataLock = StorageHandler.getDataLock();
+        try {
+            // The stored balances do not match the transaction, so the verification would repair and save them
+            Files.write(Paths.get("./data/" + GROUP_NAMES[1] + "/members.txt"),
+                    ("0" + SEPARATOR + "Alice" + SEPARATOR + "1.00\n"
+                    + "1" + SEPARATOR + "Bob" + SEPARATOR + "-1.00\n").getBytes());
+            Files.write(Paths.get("./data/" + GROUP_NAMES[1] + "/transactions.txt"),
+                    ("0" + SEPARATOR + "1" + SEPARATOR + "5.00\n").getBytes());
+            GroupList.setCacheLimits(1, 0);
+            new GroupList();
+
+            Group evicted;
+            // Holding the data lock keeps the verification from running until the group is reloaded
+            dataLock.lock();
+            try {
+                Group.setFastStart(true);
+                evicted = GroupList.getGroup(GROUP_NAMES[1]);
+                Group.setFastStart(false);
+                GroupList.getGroup(GROUP_NAMES[2]);
+                assertFalse(GroupList.isGroupLoaded(GROUP_NAMES[1]));
+
+                Group reloaded = GroupList.getGroup(GROUP_NAMES[1]);
+                assertNotSame(evicted, reloaded);
+                reloaded.getTransactionList().addTransaction("Bob p/Alice a/2", reloaded.getMemberList(), reloaded);
+                reloaded.saveAllData();
+            } finally {
+                dataLock.unlock();
+            }
+            evicted.awaitBalanceVerification();
+
+            Group stored = new Group(GROUP_NAMES[1]);
+            assertEquals(2, stored.getTransactionList().getTransactionListSize());
+            assertEquals(300, stored.getMemberList().getMemberBalanceCents("Alice"));
+        } catch (Exception e) {
+            fail();
+        }
+    }
+}
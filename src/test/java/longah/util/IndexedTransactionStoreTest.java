@@ -0,0 +1,161 @@
+package longah.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import longah.exception.LongAhException;
+import longah.node.Member;
+import longah.node.Transaction;
+
+public class IndexedTransactionStoreTest {
+    /**
+     * Tests that the positions of the transactions of a member are kept up to date when transactions
+     * are removed and edited.
+     */
+    @Test
+    public void getInvolvedPositions_removeAndEdit_positionsUpdated() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            memberList.addMember("Bob");
+            memberList.addMember("Charlie");
+            TransactionList transactionList = new TransactionList(new ListTransactionStore());
+            transactionList.addTransaction("Alice p/Bob a/5", memberList);
+            transactionList.addTransaction("Bob p/Charlie a/3", memberList);
+            transactionList.addTransaction("Charlie p/Bob a/1 p/Alice a/2", memberList);
+            transactionList.addTransaction("Alice p/Charlie a/4", memberList);
+
+            IndexedTransactionStore store = (IndexedTransactionStore) transactionList.getStore();
+            Member alice = memberList.getMember("Alice");
+            Member bob = memberList.getMember("Bob");
+            assertEquals(List.of(0, 2, 3), store.getInvolvedPositions(alice));
+            assertEquals(List.of(0, 2), store.getBorrowerPositions(bob));
+
+            store.remove(0);
+            assertEquals(List.of(1, 2), store.getInvolvedPositions(alice));
+            assertEquals(List.of(0), store.getLenderPositions(bob));
+
+            store.set(0, new Transaction("Alice p/Bob a/6", memberList));
+            assertEquals(List.of(0, 2), store.getLenderPositions(alice));
+            assertEquals(List.of(0, 1), store.getBorrowerPositions(bob));
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that the index is rebuilt after a member is deleted from all transactions.
+     */
+    @Test
+    public void deleteMember_lenderDeleted_indexRebuilt() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            memberList.addMember("Bob");
+            memberList.addMember("Charlie");
+            TransactionList transactionList = new TransactionList(new ColumnarTransactionStore());
+            transactionList.addTransaction("Bob p/Alice a/5", memberList);
+            transactionList.addTransaction("Charlie p/Bob a/3 p/Alice a/1", memberList);
+            IndexedTransactionStore store = (IndexedTransactionStore) transactionList.getStore();
+
+            store.deleteMember(memberList.getMember("Bob"));
+            assertEquals(List.of(0), store.getBorrowerPositions(memberList.getMember("Alice")));
+            assertEquals(List.of(), store.getInvolvedPositions(memberList.getMember("Bob")));
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that transactions in a time range are found in order of position, excluding transactions
+     * without a time, after transactions are removed and edited.
+     */
+    @Test
+    public void getPositionsInTimeRange_removeAndEdit_positionsUpdated() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            memberList.addMember("Bob");
+            TransactionList transactionList = new TransactionList(new ListTransactionStore());
+            transactionList.addTransaction("Alice t/03-01-2024 1200 p/Bob a/1", memberList);
+            transactionList.addTransaction("Alice p/Bob a/2", memberList);
+            transactionList.addTransaction("Bob t/01-01-2024 1200 p/Alice a/3", memberList);
+            transactionList.addTransaction("Bob t/02-01-2024 1200 p/Alice a/4", memberList);
+            IndexedTransactionStore store = (IndexedTransactionStore) transactionList.getStore();
+            long from = new DateTime("01-01-2024 1200").toEpochMinutes();
+            long to = new DateTime("03-01-2024 1200").toEpochMinutes();
+            assertEquals(List.of(0, 2, 3), store.getPositionsInTimeRange(Long.MIN_VALUE, Long.MAX_VALUE));
+            assertEquals(List.of(2, 3), store.getPositionsInTimeRange(from, to - 1));
+
+            store.remove(1);
+            assertEquals(List.of(1, 2), store.getPositionsInTimeRange(from, to - 1));
+            store.set(1, new Transaction("Bob t/04-01-2024 1200 p/Alice a/3", memberList));
+            assertEquals(List.of(2), store.getPositionsInTimeRange(from, to - 1));
+            assertEquals(List.of(), store.getPositionsInTimeRange(to, from));
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that the positions from the indexes match a scan of the transactions after many random
+     * additions, removals and edits, including removals which leave most slots empty.
+     */
+    @Test
+    public void getInvolvedPositions_randomChanges_matchesScan() {
+        try {
+            MemberList memberList = new MemberList();
+            String[] names = {"Alice", "Bob", "Charlie", "Dave"};
+            for (String name : names) {
+                memberList.addMember(name);
+            }
+            TransactionList transactionList = new TransactionList(new ListTransactionStore());
+            IndexedTransactionStore store = (IndexedTransactionStore) transactionList.getStore();
+            Random random = new Random(42);
+            for (int step = 0; step < 600; step++) {
+                int change = random.nextInt(10);
+                int lender = random.nextInt(4);
+                String expression = names[lender] + " t/0" + (1 + random.nextInt(9)) + "-01-2024 1200 p/"
+                        + names[(lender + 1 + random.nextInt(3)) % 4] + " a/1";
+                if (store.size() == 0 || change < 4 || (step > 300 && step < 400 && change < 2)) {
+                    store.add(new Transaction(expression, memberList));
+                } else if (change < 8 || (step > 300 && step < 400)) {
+                    store.remove(random.nextInt(store.size()));
+                } else {
+                    store.set(random.nextInt(store.size()), new Transaction(expression, memberList));
+                }
+                for (String name : names) {
+                    Member member = memberList.getMember(name);
+                    ArrayList<Integer> lent = new ArrayList<>();
+                    ArrayList<Integer> borrowed = new ArrayList<>();
+                    for (int i = 0; i < store.size(); i++) {
+                        if (store.getLender(i) == member) {
+                            lent.add(i);
+                        }
+                        if (store.getBorrower(i, 0) == member) {
+                            borrowed.add(i);
+                        }
+                    }
+                    assertEquals(lent, store.getLenderPositions(member));
+                    assertEquals(borrowed, store.getBorrowerPositions(member));
+                }
+                long from = new DateTime("03-01-2024 1200").toEpochMinutes();
+                long to = new DateTime("06-01-2024 1200").toEpochMinutes();
+                ArrayList<Integer> inRange = new ArrayList<>();
+                for (int i = 0; i < store.size(); i++) {
+                    if (store.getTimeMinutes(i) >= from && store.getTimeMinutes(i) <= to) {
+                        inRange.add(i);
+                    }
+                }
+                assertEquals(inRange, store.getPositionsInTimeRange(from, to));
+            }
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+}
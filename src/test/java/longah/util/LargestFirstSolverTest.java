@@ -0,0 +1,129 @@
+package longah.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static longah.util.SettlementAssertions.assertSettlesBalances;
+
+import longah.handler.Logging;
+
+public class LargestFirstSolverTest {
+    /**
+     * Tests that the largest creditor is matched with the largest debtor regardless of member order.
+     */
+    @Test
+    public void solveTransactions_largestFirst_matchesLargestPair() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice", 3);
+            memberList.addMember("Bob", 5);
+            memberList.addMember("Charlie", -5);
+            memberList.addMember("Dane", -3);
+
+            ArrayList<Subtransaction> subtransactions = memberList.solveTransactions(SettlementMode.LARGEST_FIRST);
+            assertEquals(2, subtransactions.size());
+            assertEquals("Charlie owes Bob $5.00", subtransactions.get(0).toString());
+            assertEquals("Dane owes Alice $3.00", subtransactions.get(1).toString());
+            assertSettlesBalances(memberList, subtransactions);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that no subtransactions are needed when all balances are zero.
+     */
+    @Test
+    public void solveTransactions_largestFirstNoDebts_emptySolution() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            memberList.addMember("Bob");
+            assertTrue(memberList.solveTransactions(SettlementMode.LARGEST_FIRST).isEmpty());
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Benchmarks the number of transfers of the largest first mode against the greedy mode on
+     * randomly ordered groups made up of creditor and debtor pairs with equal balances.
+     * Largest first settles every pair with a single transfer while greedy depends on member order.
+     */
+    @Test
+    public void solveTransactions_randomPairedGroups_noMoreTransfersThanGreedy() {
+        try {
+            Random random = new Random(2113);
+            int greedyTransfers = 0;
+            int largestFirstTransfers = 0;
+            int pairs = 0;
+            for (int trial = 0; trial < 50; trial++) {
+                ArrayList<Long> balances = new ArrayList<>();
+                int pairCount = 2 + random.nextInt(6);
+                for (int i = 0; i < pairCount; i++) {
+                    long balance = (i + 1) * 100L + random.nextInt(100);
+                    balances.add(balance);
+                    balances.add(-balance);
+                }
+                Collections.shuffle(balances, random);
+
+                MemberList memberList = new MemberList();
+                for (int i = 0; i < balances.size(); i++) {
+                    memberList.addMemberCents("Member" + i, balances.get(i));
+                }
+                ArrayList<Subtransaction> solution = memberList.solveTransactions(SettlementMode.LARGEST_FIRST);
+                assertSettlesBalances(memberList, solution);
+                greedyTransfers += memberList.solveTransactions(SettlementMode.GREEDY).size();
+                largestFirstTransfers += solution.size();
+                pairs += pairCount;
+            }
+            assertEquals(pairs, largestFirstTransfers);
+            assertTrue(largestFirstTransfers < greedyTransfers);
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Benchmarks the number of transfers of the largest first mode against the greedy mode on groups
+     * with random balances, which rarely contain zero-sum pairs. Both modes settle a group of n members
+     * with non-zero balances in at most n - 1 transfers, and the total of each mode is reported.
+     */
+    @Test
+    public void solveTransactions_randomBalances_transfersReported() {
+        try {
+            Random random = new Random(2113);
+            int greedyTransfers = 0;
+            int largestFirstTransfers = 0;
+            for (int trial = 0; trial < 50; trial++) {
+                int memberCount = 3 + random.nextInt(10);
+                MemberList memberList = new MemberList();
+                long total = 0;
+                for (int i = 0; i < memberCount - 1; i++) {
+                    long balance = random.nextInt(20001) - 10000;
+                    memberList.addMemberCents("Member" + i, balance);
+                    total += balance;
+                }
+                memberList.addMemberCents("Member" + (memberCount - 1), -total);
+
+                ArrayList<Subtransaction> greedy = memberList.solveTransactions(SettlementMode.GREEDY);
+                ArrayList<Subtransaction> largestFirst = memberList.solveTransactions(SettlementMode.LARGEST_FIRST);
+                assertSettlesBalances(memberList, greedy);
+                assertSettlesBalances(memberList, largestFirst);
+                assertTrue(greedy.size() < memberCount);
+                assertTrue(largestFirst.size() < memberCount);
+                greedyTransfers += greedy.size();
+                largestFirstTransfers += largestFirst.size();
+            }
+            Logging.logInfo("Random balances settled in " + greedyTransfers + " greedy transfers and "
+                    + largestFirstTransfers + " largest first transfers.");
+        } catch (Exception e) {
+            fail();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package longah.util;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -207,6 +208,64 @@ public class MemberListTest {
         }
     }
 
+    /**
+     * Tests the successful lookup of a member by its new name after an edit.
+     */
+    @Test
+    public void editMemberName_lookupByNewName_success() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice", 5);
+            memberList.editMemberName("Alice", "Bob");
+            assertTrue(memberList.isMember("Bob"));
+            assertFalse(memberList.isMember("Alice"));
+            assertEquals(5.0, memberList.getMember("Bob").getBalance());
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests the unsuccessful edit of name of a member to the name of another member.
+     */
+    @Test
+    public void editMemberName_duplicateName_exceptionThrown() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice", 5);
+            memberList.addMember("Bob", 10);
+            memberList.editMemberName("Alice", "Bob");
+            fail();
+        } catch (LongAhException e) {
+            boolean isMessage = LongAhException.isMessage(e, ExceptionMessage.DUPLICATE_MEMBER);
+            assertTrue(isMessage);
+        }
+    }
+
+    /**
+     * Tests that member ids are unchanged by renames and are not reused after a deletion.
+     */
+    @Test
+    public void getMemberById_renameAndDelete_idsStable() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            memberList.addMember("Bob");
+            int aliceId = memberList.getMember("Alice").getId();
+            memberList.editMemberName("Alice", "Charlie");
+            assertEquals("Charlie", memberList.getMemberById(aliceId).getName());
+
+            memberList.deleteMember("Bob");
+            memberList.addMember("Dane");
+            assertEquals(2, memberList.getMember("Dane").getId());
+            memberList.getMemberById(1);
+            fail();
+        } catch (LongAhException e) {
+            boolean isMessage = LongAhException.isMessage(e, ExceptionMessage.MEMBER_NOT_FOUND);
+            assertTrue(isMessage);
+        }
+    }
+
     /**
      * Tests the successful deletion of a member in the group.
      * Balance should not be updated at this point as updating is performed after commands are invoked.
@@ -225,6 +284,23 @@ public class MemberListTest {
         }
     }
 
+    /**
+     * Tests that a deleted member can no longer be found and its name can be reused.
+     */
+    @Test
+    public void deleteMember_lookupAfterDelete_success() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice", 5);
+            memberList.deleteMember("Alice");
+            assertFalse(memberList.isMember("Alice"));
+            memberList.addMember("Alice");
+            assertTrue(memberList.isMember("Alice"));
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
     /**
      * Tests the unsuccessful deletion of a member in the group when the name is invalid.
      */
@@ -241,4 +317,44 @@ public class MemberListTest {
             assertTrue(isMessage);
         }
     }
+
+    /**
+     * Tests the successful application and reversal of a single transaction.
+     */
+    @Test
+    public void applyTransactionBalance_validTransaction_success() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            memberList.addMember("Bob");
+            memberList.addMember("Charlie");
+            TransactionList transactionList = new TransactionList();
+            transactionList.addTransaction("Alice p/Bob a/5 p/Charlie a/10", memberList);
+            memberList.applyTransactionBalance(transactionList.getTransactions().get(0));
+            assertEquals("Alice: $15.00\nBob: -$5.00\nCharlie: -$10.00", memberList.listMembers());
+            memberList.revertTransactionBalance(transactionList.getTransactions().get(0));
+            assertEquals("Alice: $0.00\nBob: $0.00\nCharlie: $0.00", memberList.listMembers());
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests the verification of incrementally updated balances against a full replay.
+     */
+    @Test
+    public void verifyMembersBalance_incrementalBalances_success() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            memberList.addMember("Bob");
+            TransactionList transactionList = new TransactionList();
+            transactionList.addTransaction("Alice p/Bob a/5", memberList);
+            assertFalse(memberList.verifyMembersBalance(transactionList));
+            memberList.applyTransactionBalance(transactionList.getTransactions().get(0));
+            assertTrue(memberList.verifyMembersBalance(transactionList));
+        } catch (Exception e) {
+            fail();
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package longah.util;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static longah.util.SettlementAssertions.assertSettlesBalances;
+
+public class MinimumTransferSolverTest {
+    /**
+     * Returns a member list where the greedy solution misses two zero-sum pairs.
+     *
+     * @return The member list with Alice and Dane, and Bob and Charlie settling between themselves.
+     */
+    private MemberList createPairedMembers() throws Exception {
+        MemberList memberList = new MemberList();
+        memberList.addMember("Alice", 5);
+        memberList.addMember("Bob", 3);
+        memberList.addMember("Charlie", -3);
+        memberList.addMember("Dane", -5);
+        return memberList;
+    }
+
+    /**
+     * Tests that the minimum transfer mode settles zero-sum subgroups among themselves.
+     */
+    @Test
+    public void solveTransactions_zeroSumPairs_fewerTransfersThanGreedy() {
+        try {
+            MemberList memberList = createPairedMembers();
+            assertEquals(3, memberList.solveTransactions().size());
+
+            MemberList.setSettlementMode(SettlementMode.MINIMUM_TRANSFERS);
+            ArrayList<Subtransaction> subtransactions = memberList.solveTransactions();
+            assertEquals(2, subtransactions.size());
+            assertSettlesBalances(memberList, subtransactions);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            MemberList.setSettlementMode(SettlementMode.GREEDY);
+        }
+    }
+
+    /**
+     * Tests that the minimum transfer mode settles a group without zero-sum subgroups in n - 1 transfers.
+     */
+    @Test
+    public void solveTransactions_noZeroSumSubgroups_success() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice", 7);
+            memberList.addMember("Bob", 4.5);
+            memberList.addMember("Charlie", -2.25);
+            memberList.addMember("Dane", -9.25);
+
+            MemberList.setSettlementMode(SettlementMode.MINIMUM_TRANSFERS);
+            ArrayList<Subtransaction> subtransactions = memberList.solveTransactions();
+            assertEquals(3, subtransactions.size());
+            assertSettlesBalances(memberList, subtransactions);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            MemberList.setSettlementMode(SettlementMode.GREEDY);
+        }
+    }
+
+    /**
+     * Tests that groups above the member limit fall back to the greedy solution.
+     */
+    @Test
+    public void solveTransactions_aboveMemberLimit_greedyFallback() {
+        try {
+            MemberList memberList = createPairedMembers();
+            MemberList.setSettlementMode(SettlementMode.MINIMUM_TRANSFERS);
+            MinimumTransferSolver.setMemberLimit(3);
+            assertEquals(3, memberList.solveTransactions().size());
+        } catch (Exception e) {
+            fail();
+        } finally {
+            MemberList.setSettlementMode(SettlementMode.GREEDY);
+            MinimumTransferSolver.setMemberLimit(MinimumTransferSolver.DEFAULT_MEMBER_LIMIT);
+        }
+    }
+
+    /**
+     * Tests that a group large enough to be computed in parallel layers finds every zero-sum pair.
+     */
+    @Test
+    public void solveTransactions_parallelLayers_zeroSumPairsFound() {
+        try {
+            MemberList memberList = new MemberList();
+            for (int i = 0; i < 7; i++) {
+                memberList.addMember("Lender" + (char) ('A' + i), 1 << i);
+                memberList.addMember("Borrower" + (char) ('A' + i), -(1 << (6 - i)));
+            }
+
+            MemberList.setSettlementMode(SettlementMode.MINIMUM_TRANSFERS);
+            ArrayList<Subtransaction> subtransactions = memberList.solveTransactions();
+            assertEquals(7, subtransactions.size());
+            assertSettlesBalances(memberList, subtransactions);
+        } catch (Exception e) {
+            fail();
+        } finally {
+            MemberList.setSettlementMode(SettlementMode.GREEDY);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package longah.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import longah.exception.LongAhException;
+import longah.exception.ExceptionMessage;
+
+public class MoneyTest {
+    /**
+     * Tests the successful parsing of plain decimal amounts into cents.
+     */
+    @Test
+    public void parseCents_plainDecimals_success() {
+        try {
+            assertEquals(1000L, Money.parseCents("10"));
+            assertEquals(155L, Money.parseCents("1.55"));
+            assertEquals(310L, Money.parseCents("3.1"));
+            assertEquals(50L, Money.parseCents(".5"));
+            assertEquals(110L, Money.parseCents("1.100"));
+            assertEquals(-1000L, Money.parseCents("-10.00"));
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests the successful parsing of amounts in scientific notation into cents.
+     */
+    @Test
+    public void parseCents_scientificNotation_success() {
+        try {
+            assertEquals(10000L, Money.parseCents("1e2"));
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests the unsuccessful parsing of an amount with more than 2 decimal places.
+     */
+    @Test
+    public void parseCents_excessPrecision_exceptionThrown() {
+        try {
+            Money.parseCents("1.111");
+            fail();
+        } catch (LongAhException e) {
+            assertTrue(LongAhException.isMessage(e, ExceptionMessage.INVALID_TRANSACTION_VALUE));
+        }
+    }
+
+    /**
+     * Tests the unsuccessful parsing of an amount which does not fit in cents.
+     */
+    @Test
+    public void parseCents_overflow_exceptionThrown() {
+        try {
+            Money.parseCents("100000000000000000000");
+            fail();
+        } catch (LongAhException e) {
+            assertTrue(LongAhException.isMessage(e, ExceptionMessage.BALANCE_OVERFLOW));
+        }
+    }
+
+    /**
+     * Tests the formatting of amounts in cents.
+     */
+    @Test
+    public void toString_variousAmounts_success() {
+        assertEquals("0.05", Money.toString(5));
+        assertEquals("-12.30", Money.toString(-1230));
+        assertEquals("1,234,567.89", Money.toGroupedString(123456789));
+        assertEquals("123.00", Money.toGroupedString(12300));
+        assertEquals("9.0", Money.toShortString(900));
+        assertEquals("3.1", Money.toShortString(310));
+        assertEquals("0.05", Money.toShortString(5));
+    }
+
+    /**
+     * Tests the formatting of amounts into an output at the boundaries of the thousands separators.
+     */
+    @Test
+    public void append_groupBoundaries_success() throws Exception {
+        StringBuilder output = new StringBuilder();
+        Appendable out = output;
+        Money.append(out, 0, true);
+        output.append(' ');
+        Money.append(out, 99999, true);
+        output.append(' ');
+        Money.append(out, -100000, true);
+        output.append(' ');
+        Money.append(out, 100000000, false);
+        assertEquals("0.00 999.99 -1,000.00 1000000.00", output.toString());
+        assertEquals("92,233,720,368,547,758.07", Money.toGroupedString(Long.MAX_VALUE));
+    }
+}
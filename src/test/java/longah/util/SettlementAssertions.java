@@ -0,0 +1,35 @@
+package longah.util;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import longah.node.Member;
+
+/**
+ * Assertions shared by the tests of the settlement modes.
+ */
+final class SettlementAssertions {
+    private SettlementAssertions() {
+    }
+
+    /**
+     * Asserts that the subtransactions clear the balances of all members.
+     *
+     * @param memberList The member list the subtransactions were solved for.
+     * @param subtransactions The subtransactions to check.
+     */
+    static void assertSettlesBalances(MemberList memberList, ArrayList<Subtransaction> subtransactions) {
+        for (Member member : memberList.getMembers()) {
+            long balance = member.getBalanceCents();
+            for (Subtransaction subtransaction : subtransactions) {
+                if (subtransaction.getLender() == member) {
+                    balance -= subtransaction.getAmountCents();
+                } else if (subtransaction.getBorrower() == member) {
+                    balance += subtransaction.getAmountCents();
+                }
+            }
+            assertEquals(0, balance);
+        }
+    }
+}
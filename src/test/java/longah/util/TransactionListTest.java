@@ -1,9 +1,13 @@
 package longah.util;
 
+import java.io.File;
+
 import org.junit.jupiter.api.Test;
 
 import longah.exception.LongAhException;
 import longah.exception.ExceptionMessage;
+import longah.handler.StorageHandler;
+import longah.node.Group;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -16,19 +20,22 @@ public class TransactionListTest {
     @Test
     public void remove_validIndex_success() {
         try {
-            MemberList memberList = new MemberList();
-            TransactionList transactionList = new TransactionList();
+            Group group = new Group("TestTransactionGroup");
+            MemberList memberList = group.getMemberList();
+            TransactionList transactionList = group.getTransactionList();
             memberList.addMember("Alice");
             memberList.addMember("Bob");
 
-            transactionList.addTransaction("Alice p/Bob a/5", memberList);
+            transactionList.addTransaction("Alice p/Bob a/5", memberList, group);
             assertEquals(1, transactionList.getTransactionListSize());
             String[] parts = "remove 1".split(" ", 2);
-            transactionList.remove(parts[1]);
+            transactionList.remove(parts[1], group);
             assertEquals(0, transactionList.getTransactionListSize());
 
         } catch (LongAhException e) {
             fail();
+        } finally {
+            StorageHandler.deleteDir(new File("./data/TestTransactionGroup"));
         }
     }
 
@@ -38,19 +45,22 @@ public class TransactionListTest {
     @Test
     public void remove_invalidIndex_exceptionThrown() {
         try {
-            MemberList memberList = new MemberList();
-            TransactionList transactionList = new TransactionList();
+            Group group = new Group("TestTransactionGroup");
+            MemberList memberList = group.getMemberList();
+            TransactionList transactionList = group.getTransactionList();
             memberList.addMember("Alice");
             memberList.addMember("Bob");
 
-            transactionList.addTransaction("Alice p/Bob a/5", memberList);
+            transactionList.addTransaction("Alice p/Bob a/5", memberList, group);
             assertEquals(1, transactionList.getTransactionListSize());
             String[] parts = "remove -1".split(" ", 2);
-            transactionList.remove(parts[1]);
+            transactionList.remove(parts[1], group);
             fail();
         } catch (LongAhException e) {
             boolean isMessage = LongAhException.isMessage(e, ExceptionMessage.INVALID_INDEX);
             assertTrue(isMessage);
+        } finally {
+            StorageHandler.deleteDir(new File("./data/TestTransactionGroup"));
         }
     }
 
@@ -165,7 +175,7 @@ public class TransactionListTest {
             transactionList.addTransaction("Jack p/Jane a/200 p/James a/100", memberList);
             transactionList.addTransaction("Jack p/Jane a/150 p/James a/200", memberList);
             String[] parts = "finddebt Jack".split(" ", 2);
-            transactionList.findDebts(parts[1]);
+            transactionList.findDebts(parts[1], memberList);
             fail();
 
         } catch (LongAhException e) {
@@ -191,7 +201,7 @@ public class TransactionListTest {
             transactionList.addTransaction("Jack p/Jane a/150 p/James a/200", memberList);
             String command = "finddebt James";
             String[] parts = command.split(" ", 2);
-            String printedOutput = transactionList.findDebts(parts[1]);
+            String printedOutput = transactionList.findDebts(parts[1], memberList);
 
             assertTrue(printedOutput.contains("Lender: Jack"));
             assertTrue(printedOutput.contains("Jane Owed amount: $200.00"));
@@ -211,20 +221,23 @@ public class TransactionListTest {
     @Test
     public void editTransactionList_validIndexAndExpression_success() {
         try {
-            MemberList memberList = new MemberList();
-            TransactionList transactionList = new TransactionList();
+            Group group = new Group("TestTransactionGroup");
+            MemberList memberList = group.getMemberList();
+            TransactionList transactionList = group.getTransactionList();
             memberList.addMember("Alice");
             memberList.addMember("Bob");
 
-            transactionList.addTransaction("Alice p/Bob a/5", memberList);
+            transactionList.addTransaction("Alice p/Bob a/5", memberList, group);
             assertEquals(1, transactionList.getTransactionListSize());
             String command = "1 Alice p/Bob a/10";
-            transactionList.editTransactionList(command, memberList);
+            transactionList.editTransactionList(command, memberList, group);
             assertEquals(1, transactionList.getTransactionListSize());
             String expectedString = "1.\nLender: Alice\nBorrower 1: Bob Owed amount: $10.00\n";
             assertEquals(expectedString.trim(), transactionList.listTransactions().trim());
         } catch (LongAhException e) {
             fail();
+        } finally {
+            StorageHandler.deleteDir(new File("./data/TestTransactionGroup"));
         }
     }
 
@@ -234,19 +247,22 @@ public class TransactionListTest {
     @Test
     public void editTransactionList_invalidIndex_exceptionThrown() {
         try {
-            MemberList memberList = new MemberList();
-            TransactionList transactionList = new TransactionList();
+            Group group = new Group("TestTransactionGroup");
+            MemberList memberList = group.getMemberList();
+            TransactionList transactionList = group.getTransactionList();
             memberList.addMember("Alice");
             memberList.addMember("Bob");
 
-            transactionList.addTransaction("Alice p/Bob a/5", memberList);
+            transactionList.addTransaction("Alice p/Bob a/5", memberList, group);
             assertEquals(1, transactionList.getTransactionListSize());
             String command = "-1 Alice p/Bob a/10";
-            transactionList.editTransactionList(command, memberList);
+            transactionList.editTransactionList(command, memberList, group);
             fail();
         } catch (LongAhException e) {
             boolean isMessage = LongAhException.isMessage(e, ExceptionMessage.INVALID_INDEX);
             assertTrue(isMessage);
+        } finally {
+            StorageHandler.deleteDir(new File("./data/TestTransactionGroup"));
         }
     }
 
@@ -256,19 +272,22 @@ public class TransactionListTest {
     @Test
     public void editTransactionList_invalidPerson_exceptionThrown() {
         try {
-            MemberList memberList = new MemberList();
-            TransactionList transactionList = new TransactionList();
+            Group group = new Group("TestTransactionGroup");
+            MemberList memberList = group.getMemberList();
+            TransactionList transactionList = group.getTransactionList();
             memberList.addMember("Alice");
             memberList.addMember("Bob");
 
-            transactionList.addTransaction("Alice p/Bob a/5", memberList);
+            transactionList.addTransaction("Alice p/Bob a/5", memberList, group);
             assertEquals(1, transactionList.getTransactionListSize());
             String command = "1 Alice p/Charlie a/10";
-            transactionList.editTransactionList(command, memberList);
+            transactionList.editTransactionList(command, memberList, group);
             fail();
         } catch (LongAhException e) {
             boolean isMessage = LongAhException.isMessage(e, ExceptionMessage.MEMBER_NOT_FOUND);
             assertTrue(isMessage);
+        } finally {
+            StorageHandler.deleteDir(new File("./data/TestTransactionGroup"));
         }
     }
 
@@ -407,4 +426,33 @@ public class TransactionListTest {
             fail();
         }
     }
+
+    /**
+     * Tests that a listing of transactions renders the same printout as the String method, and
+     * only the rows in a range when rendered in part.
+     */
+    @Test
+    public void getLenderListing_renderRange_onlyRowsInRange() throws Exception {
+        MemberList memberList = new MemberList();
+        TransactionList transactionList = new TransactionList();
+        memberList.addMember("Jack");
+        memberList.addMember("Jane");
+        transactionList.addTransaction("Jack p/Jane a/1000", memberList);
+        transactionList.addTransaction("Jane p/Jack a/2", memberList);
+        transactionList.addTransaction("Jack t/01-01-2024 1200 p/Jane a/3.5", memberList);
+
+        Listing listing = transactionList.getLenderListing("Jack", memberList);
+        assertEquals(2, listing.getRowCount());
+        assertEquals(transactionList.findLender("Jack", memberList), listing.toString());
+        assertEquals("Jack is a lender in the following list of transaction(s).\n"
+                + "1.\nLender: Jack\nBorrower 1: Jane Owed amount: $1,000.00\n"
+                + "3.\nLender: Jack\nTransaction time: 01-01-2024 1200\nBorrower 1: Jane Owed amount: $3.50",
+                listing.toString());
+
+        StringBuilder output = new StringBuilder();
+        listing.render(output, 1, 5);
+        assertEquals("Jack is a lender in the following list of transaction(s).\n"
+                + "3.\nLender: Jack\nTransaction time: 01-01-2024 1200\nBorrower 1: Jane Owed amount: $3.50",
+                output.toString());
+    }
 }
@@ -0,0 +1,66 @@
+package longah.util;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import longah.exception.LongAhException;
+import longah.exception.ExceptionMessage;
+
+public class TransactionQueryTest {
+    /**
+     * Tests that a query combining a lender, a borrower, a time range and an amount finds only the
+     * transactions meeting all conditions, whichever index drives the search.
+     */
+    @Test
+    public void findPositions_combinedConditions_matchingPositions() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            memberList.addMember("Bob");
+            memberList.addMember("Charlie");
+            TransactionList transactionList = new TransactionList();
+            transactionList.addTransaction("Alice t/01-03-2024 1200 p/Bob a/60", memberList);
+            transactionList.addTransaction("Alice t/01-04-2024 1200 p/Bob a/40 p/Charlie a/30", memberList);
+            transactionList.addTransaction("Alice t/01-04-2024 1200 p/Charlie a/80", memberList);
+            transactionList.addTransaction("Bob t/01-04-2024 1200 p/Alice a/90", memberList);
+            transactionList.addTransaction("Alice p/Bob a/70", memberList);
+            transactionList.addTransaction("Alice t/01-06-2024 1200 p/Bob a/55", memberList);
+            IndexedTransactionStore store = (IndexedTransactionStore) transactionList.getStore();
+
+            TransactionQuery query = new TransactionQuery("l/Alice p/Bob a/01-02-2024 1200 "
+                    + "b/31-05-2024 1200 min/50", memberList);
+            assertEquals(List.of(0), query.findPositions(store));
+            assertEquals(TransactionQuery.BORROWER_INDEX_PLAN, query.getPlan());
+            TransactionQuery timeQuery = new TransactionQuery("a/31-03-2024 1200 b/02-04-2024 1200 min/70",
+                    memberList);
+            assertEquals(List.of(1, 2, 3), timeQuery.findPositions(store));
+            assertEquals(TransactionQuery.TIME_INDEX_PLAN, timeQuery.getPlan());
+            TransactionQuery amountQuery = new TransactionQuery("max/60", memberList);
+            assertEquals(List.of(0, 5), amountQuery.findPositions(store));
+            assertEquals(TransactionQuery.FULL_SCAN_PLAN, amountQuery.getPlan());
+            TransactionQuery lenderQuery = new TransactionQuery("l/Bob min/50", memberList);
+            assertEquals(List.of(3), lenderQuery.findPositions(store));
+            assertEquals(TransactionQuery.LENDER_INDEX_PLAN, lenderQuery.getPlan());
+        } catch (LongAhException e) {
+            fail();
+        }
+    }
+
+    /**
+     * Tests that a query with a repeated condition is rejected.
+     */
+    @Test
+    public void transactionQueryConstructor_repeatedCondition_exceptionThrown() {
+        try {
+            MemberList memberList = new MemberList();
+            memberList.addMember("Alice");
+            new TransactionQuery("l/Alice l/Alice", memberList);
+            fail();
+        } catch (LongAhException e) {
+            assertEquals(ExceptionMessage.INVALID_QUERY_COMMAND.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -27,6 +27,15 @@ FC data\GroupA\transactions.txt ..\..\text-ui-test\expected_data\EXPECTED_TRANSA
 FC data\groupList.txt ..\..\text-ui-test\expected_data\EXPECTED_GRPLIST.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% GRPLIST)
 FC data\pin.txt ..\..\text-ui-test\expected_data\EXPECTED_PIN.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% PIN)
 
+copy ..\..\text-ui-test\input\config6.txt data\config.txt >NUL
+java -jar %jarloc% < ..\..\text-ui-test\input\input6A.txt > ..\..\text-ui-test\actual_output\ACTUAL6A.TXT
+java -jar %jarloc% < ..\..\text-ui-test\input\input6B.txt > ..\..\text-ui-test\actual_output\ACTUAL6B.TXT
+copy ..\..\text-ui-test\input\config7.txt data\config.txt >NUL
+java -jar %jarloc% < ..\..\text-ui-test\input\input7A.txt > ..\..\text-ui-test\actual_output\ACTUAL7A.TXT
+java -jar %jarloc% < ..\..\text-ui-test\input\input7B.txt > ..\..\text-ui-test\actual_output\ACTUAL7B.TXT
+java -jar %jarloc% < ..\..\text-ui-test\input\input8A.txt > ..\..\text-ui-test\actual_output\ACTUAL8A.TXT
+java -jar %jarloc% < ..\..\text-ui-test\input\input8B.txt > ..\..\text-ui-test\actual_output\ACTUAL8B.TXT
+
 cd ..\..\text-ui-test
 
 FC actual_output\ACTUAL5B.TXT expected_output\EXPECTED5B.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 5B)
@@ -35,6 +44,12 @@ FC actual_output\ACTUAL2.TXT expected_output\EXPECTED2.TXT >NUL && set /a ERROR_
 FC actual_output\ACTUAL3.TXT expected_output\EXPECTED3.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 3)
 FC actual_output\ACTUAL4.TXT expected_output\EXPECTED4.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 4)
 FC actual_output\ACTUAL5A.TXT expected_output\EXPECTED5A.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 5A)
+FC actual_output\ACTUAL6A.TXT expected_output\EXPECTED6A.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 6A)
+FC actual_output\ACTUAL6B.TXT expected_output\EXPECTED6B.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 6B)
+FC actual_output\ACTUAL7A.TXT expected_output\EXPECTED7A.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 7A)
+FC actual_output\ACTUAL7B.TXT expected_output\EXPECTED7B.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 7B)
+FC actual_output\ACTUAL8A.TXT expected_output\EXPECTED8A.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 8A)
+FC actual_output\ACTUAL8B.TXT expected_output\EXPECTED8B.TXT >NUL && set /a ERROR_COUNT=ERROR_COUNT || (set /a ERROR_COUNT+=1 && set FAILED_TESTS=%FAILED_TESTS% 8B)
 
 if %ERROR_COUNT% EQU 0 (
     Echo All tests passed!
@@ -73,6 +73,16 @@ check_data "expected_data/EXPECTED_TRANSACTION" "data/GroupA/transactions.txt" "
 check_data "expected_data/EXPECTED_GRPLIST" "data/groupList.txt" "GRPLIST" ERROR_COUNT FAILED_TESTS
 check_data "expected_data/EXPECTED_PIN" "data/pin.txt" "PIN" ERROR_COUNT FAILED_TESTS
 
+# Run tests with settings from a config file
+cp input/config6.txt data/config.txt
+check_test "input/input6A.txt" "expected_output/EXPECTED6A" "actual_output/ACTUAL6A.TXT" "6A" ERROR_COUNT FAILED_TESTS
+check_test "input/input6B.txt" "expected_output/EXPECTED6B" "actual_output/ACTUAL6B.TXT" "6B" ERROR_COUNT FAILED_TESTS
+cp input/config7.txt data/config.txt
+check_test "input/input7A.txt" "expected_output/EXPECTED7A" "actual_output/ACTUAL7A.TXT" "7A" ERROR_COUNT FAILED_TESTS
+check_test "input/input7B.txt" "expected_output/EXPECTED7B" "actual_output/ACTUAL7B.TXT" "7B" ERROR_COUNT FAILED_TESTS
+check_test "input/input8A.txt" "expected_output/EXPECTED8A" "actual_output/ACTUAL8A.TXT" "8A" ERROR_COUNT FAILED_TESTS
+check_test "input/input8B.txt" "expected_output/EXPECTED8B" "actual_output/ACTUAL8B.TXT" "8B" ERROR_COUNT FAILED_TESTS
+
 # Output test results
 if [ $ERROR_COUNT -eq 0 ]; then
     echo "All tests passed!"